@@ -0,0 +1,87 @@
+package pe.edu.cibertec.apigateway.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import pe.edu.cibertec.apigateway.cors.CorsGlobalFilter;
+import pe.edu.cibertec.apigateway.cors.CorsPolicy;
+import pe.edu.cibertec.apigateway.cors.CorsProperties;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filtro CORS global: preflight respondido desde la caché, petición con
+ * Origin cuyo downstream escribe un cuerpo JSON, y petición sin Origin.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CorsGlobalFilterBenchmark {
+
+    private static final String ORIGIN = "http://localhost:4200";
+    private static final byte[] BODY = "{\"id\":3,\"nombre\":\"MacBook Air M2\",\"precio\":1199.99}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    // Con y sin la instrumentación de latencias, para medir su sobrecosto
+    @Param({ "true", "false" })
+    public boolean instrumented;
+
+    private CorsGlobalFilter filter;
+
+    // Simula al downstream: escribe el cuerpo, lo que dispara las acciones de beforeCommit
+    private final WebFilterChain writingChain = exchange -> {
+        ServerHttpResponse response = exchange.getResponse();
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(BODY)));
+    };
+
+    @Setup
+    public void setUp() {
+        LatencyRecorder latency = new LatencyRecorder(instrumented, Duration.ofSeconds(10),
+                List.of(Duration.ofMinutes(1), Duration.ofMinutes(5)));
+        filter = new CorsGlobalFilter(new CorsPolicy(new CorsProperties()), latency);
+    }
+
+    @Benchmark
+    public void preflight() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest
+                .options("/api/orders/user/1")
+                .header(HttpHeaders.ORIGIN, ORIGIN)
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "authorization")), writingChain).block();
+    }
+
+    @Benchmark
+    public void corsResponse() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/products/3")
+                .header(HttpHeaders.ORIGIN, ORIGIN)), writingChain).block();
+    }
+
+    @Benchmark
+    public void noOrigin() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/products/3")), writingChain).block();
+    }
+}
@@ -0,0 +1,137 @@
+package pe.edu.cibertec.apigateway.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Logger;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Ráfagas de {@code concurrency} GET simultáneos contra un servicio stub
+ * local (responde tras 2 ms) con HTTP/1.1 o HTTP/2 en texto plano (h2c).
+ * Además del tiempo por ráfaga, los contadores auxiliares
+ * {@code connectionsAccepted} y {@code peakOpenConnections} de los
+ * resultados informan las conexiones TCP que aceptó el stub en la iteración
+ * y el pico de conexiones abiertas: con HTTP/1.1 hace falta una por petición
+ * en vuelo, con h2c todas comparten unas pocas.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Http2UpstreamBenchmark {
+
+    private static final int H2_MAX_CONNECTIONS = 4;
+    private static final long H2_MAX_STREAMS = 100;
+
+    @Param({ "HTTP11", "H2C" })
+    public String protocol;
+
+    @Param({ "16", "128" })
+    public int concurrency;
+
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    private DisposableServer upstream;
+    private ConnectionProvider provider;
+    private HttpClient client;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.WARN);
+        upstream = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                // Se cuenta el canal TCP, no los streams HTTP/2 que viajan dentro
+                .doOnChannelInit((observer, channel, remoteAddress) -> {
+                    accepted.incrementAndGet();
+                    peak.accumulateAndGet(open.incrementAndGet(), Math::max);
+                    channel.closeFuture().addListener(future -> open.decrementAndGet());
+                })
+                .handle((request, response) -> response.sendString(
+                        Mono.just("{\"id\":1,\"name\":\"producto\"}").delayElement(Duration.ofMillis(2))))
+                .bindNow();
+        ConnectionProvider.Builder pool = ConnectionProvider.builder("benchmark-" + protocol)
+                .maxConnections(1000)
+                .pendingAcquireMaxCount(-1);
+        if (protocol.equals("H2C")) {
+            // Como gateway.upstream-pool.*.max-concurrent-streams
+            pool.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(H2_MAX_CONNECTIONS)
+                    .maxConcurrentStreams(H2_MAX_STREAMS)
+                    .build());
+        }
+        provider = pool.build();
+        client = HttpClient.create(provider)
+                .protocol(HttpProtocol.valueOf(protocol))
+                .baseUrl("http://127.0.0.1:" + upstream.port());
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        accepted.set(0);
+        peak.set(open.get());
+    }
+
+    @TearDown
+    public void tearDown() {
+        provider.disposeLater().block(Duration.ofSeconds(5));
+        upstream.disposeNow();
+    }
+
+    @Benchmark
+    public Long burst(Connections connections) {
+        Long responses = Flux.range(0, concurrency)
+                .flatMap(i -> client.get().uri("/product/1").responseContent().aggregate().asString(), concurrency)
+                .count()
+                .block(Duration.ofSeconds(10));
+        connections.connectionsAccepted = accepted.get();
+        connections.peakOpenConnections = peak.get();
+        return responses;
+    }
+
+    /** Conexiones de la iteración, publicadas por JMH junto al tiempo de cada ráfaga. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Connections {
+
+        public long connectionsAccepted;
+        public long peakOpenConnections;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            connectionsAccepted = 0;
+            peakOpenConnections = 0;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package pe.edu.cibertec.apigateway.benchmark;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.jsonwebtoken.Jwts;
+import pe.edu.cibertec.apigateway.diagnostics.DiagnosticsProperties;
+import pe.edu.cibertec.apigateway.diagnostics.RequestLog;
+import pe.edu.cibertec.apigateway.filter.JwtAuthenticationFilter;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import pe.edu.cibertec.apigateway.security.JwtKeyProperties;
+import pe.edu.cibertec.apigateway.security.JwtVerificationExecutor;
+import pe.edu.cibertec.apigateway.security.PathAccessProperties;
+import pe.edu.cibertec.apigateway.security.PublicPathMatcher;
+import pe.edu.cibertec.apigateway.security.SigningKeyRing;
+import pe.edu.cibertec.apigateway.security.TokenRejectionTracker;
+import pe.edu.cibertec.apigateway.security.TokenRevocationList;
+import pe.edu.cibertec.apigateway.security.VerifiedTokenCache;
+import reactor.core.publisher.Mono;
+
+/**
+ * Costo de JwtAuthenticationFilter.filter por tipo de petición con la
+ * configuración por defecto: ruta pública, token válido (caché activa) y
+ * token con firma incorrecta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "MiClaveSecretaSuperSeguraParaJWTEnMicroserviciosQueDebeSerMuyLarga";
+
+    // Con y sin la instrumentación de latencias, para medir su sobrecosto
+    @Param({ "true", "false" })
+    public boolean instrumented;
+
+    private final WebFilterChain chain = exchange -> Mono.empty();
+
+    private JwtAuthenticationFilter filter;
+    private String validAuthorization;
+    private String invalidAuthorization;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        LatencyRecorder latency = new LatencyRecorder(instrumented, Duration.ofSeconds(10),
+                List.of(Duration.ofMinutes(1), Duration.ofMinutes(5)));
+        SigningKeyRing keyRing = new SigningKeyRing(new JwtKeyProperties(), SECRET);
+        filter = new JwtAuthenticationFilter(keyRing,
+                new VerifiedTokenCache(true, 10_000, Duration.ofHours(1)),
+                new JwtVerificationExecutor(false, 1, 1),
+                new TokenRejectionTracker(4096, Duration.ofSeconds(60)),
+                new PublicPathMatcher(new PathAccessProperties()),
+                new TokenRevocationList(null, Duration.ofHours(24), Duration.ofMinutes(5), 1024),
+                latency, new RequestLog(new DiagnosticsProperties()));
+
+        SigningKeyRing.KeyEntry signingKey = keyRing.signingKey();
+        String token = Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
+                .id(UUID.randomUUID().toString())
+                .subject("admin@admin.com")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 86400000))
+                .signWith(signingKey.key())
+                .compact();
+        validAuthorization = "Bearer " + token;
+        // Misma cabecera y payload, firma alterada en el último carácter
+        char last = token.charAt(token.length() - 1);
+        invalidAuthorization = "Bearer " + token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+    }
+
+    @Benchmark
+    public void publicPath() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/3")), chain).block();
+    }
+
+    @Benchmark
+    public void validToken() {
+        filter.filter(exchange(validAuthorization), chain).block();
+    }
+
+    @Benchmark
+    public void invalidToken() {
+        filter.filter(exchange(invalidAuthorization), chain).block();
+    }
+
+    private MockServerWebExchange exchange(String authorization) {
+        return MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/orders/user/1")
+                .header("Authorization", authorization));
+    }
+}
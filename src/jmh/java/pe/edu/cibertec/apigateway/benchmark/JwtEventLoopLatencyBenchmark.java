@@ -0,0 +1,135 @@
+package pe.edu.cibertec.apigateway.benchmark;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.jsonwebtoken.Jwts;
+import pe.edu.cibertec.apigateway.diagnostics.DiagnosticsProperties;
+import pe.edu.cibertec.apigateway.diagnostics.RequestLog;
+import pe.edu.cibertec.apigateway.filter.JwtAuthenticationFilter;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import pe.edu.cibertec.apigateway.security.JwtKeyProperties;
+import pe.edu.cibertec.apigateway.security.JwtVerificationExecutor;
+import pe.edu.cibertec.apigateway.security.PathAccessProperties;
+import pe.edu.cibertec.apigateway.security.PublicPathMatcher;
+import pe.edu.cibertec.apigateway.security.SigningKeyRing;
+import pe.edu.cibertec.apigateway.security.TokenRejectionTracker;
+import pe.edu.cibertec.apigateway.security.TokenRevocationList;
+import pe.edu.cibertec.apigateway.security.VerifiedTokenCache;
+import reactor.core.publisher.Mono;
+
+/**
+ * Latencia de una ruta pública que comparte un único hilo de event loop con
+ * una carga intensa de peticiones autenticadas con RS256 (caché desactivada).
+ * Con {@code offload=false} la verificación RSA bloquea el event loop; con
+ * {@code offload=true} se ejecuta en el pool acotado de verificación.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Group)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtEventLoopLatencyBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean offload;
+
+    private final WebFilterChain chain = exchange -> Mono.empty();
+
+    private ExecutorService eventLoop;
+    private JwtVerificationExecutor verifier;
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() throws Exception {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.OFF);
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        JwtKeyProperties properties = new JwtKeyProperties();
+        properties.getPublicKeys().put("idp-rsa",
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        SigningKeyRing keyRing = new SigningKeyRing(properties,
+                "MiClaveSecretaSuperSeguraParaJWTEnMicroserviciosQueDebeSerMuyLarga");
+
+        eventLoop = Executors.newSingleThreadExecutor(r -> new Thread(r, "simulated-event-loop"));
+        verifier = new JwtVerificationExecutor(offload, 0, 4096);
+        filter = new JwtAuthenticationFilter(keyRing,
+                new VerifiedTokenCache(false, 0, Duration.ofHours(1)), verifier,
+                new TokenRejectionTracker(0, Duration.ofMinutes(1)),
+                new PublicPathMatcher(new PathAccessProperties()),
+                new TokenRevocationList(null, Duration.ofHours(24), Duration.ofMinutes(5), 1024),
+                new LatencyRecorder(false, Duration.ofSeconds(10), List.of(Duration.ofMinutes(1))),
+                new RequestLog(new DiagnosticsProperties()));
+
+        String token = Jwts.builder()
+                .header().keyId("idp-rsa").and()
+                .subject("cliente@ios.app")
+                .expiration(new Date(System.currentTimeMillis() + 86400000))
+                .signWith(keyPair.getPrivate())
+                .compact();
+        authorization = "Bearer " + token;
+    }
+
+    @TearDown
+    public void tearDown() {
+        eventLoop.shutdownNow();
+        verifier.shutdown();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void publicRoute() {
+        runOnEventLoop(MockServerHttpRequest.get("/api/products/1"));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(7)
+    public void authenticatedRoute() {
+        runOnEventLoop(MockServerHttpRequest.get("/api/orders/user/1")
+                .header("Authorization", authorization));
+    }
+
+    private void runOnEventLoop(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        eventLoop.execute(() -> filter.filter(exchange, chain)
+                .subscribe(null, done::completeExceptionally, () -> done.complete(null)));
+        done.join();
+    }
+}
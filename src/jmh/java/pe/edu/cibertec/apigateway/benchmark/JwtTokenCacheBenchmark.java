@@ -0,0 +1,107 @@
+package pe.edu.cibertec.apigateway.benchmark;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.jsonwebtoken.Jwts;
+import pe.edu.cibertec.apigateway.diagnostics.DiagnosticsProperties;
+import pe.edu.cibertec.apigateway.diagnostics.RequestLog;
+import pe.edu.cibertec.apigateway.filter.JwtAuthenticationFilter;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import pe.edu.cibertec.apigateway.security.JwtKeyProperties;
+import pe.edu.cibertec.apigateway.security.JwtVerificationExecutor;
+import pe.edu.cibertec.apigateway.security.PathAccessProperties;
+import pe.edu.cibertec.apigateway.security.PublicPathMatcher;
+import pe.edu.cibertec.apigateway.security.SigningKeyRing;
+import pe.edu.cibertec.apigateway.security.TokenRejectionTracker;
+import pe.edu.cibertec.apigateway.security.TokenRevocationList;
+import pe.edu.cibertec.apigateway.security.VerifiedTokenCache;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compara el throughput de JwtAuthenticationFilter con y sin la caché de
+ * tokens verificados, usando siempre el mismo token (como hacen los clientes iOS).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenCacheBenchmark {
+
+    private static final String SECRET = "MiClaveSecretaSuperSeguraParaJWTEnMicroserviciosQueDebeSerMuyLarga";
+
+    private final WebFilterChain chain = exchange -> Mono.empty();
+
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        LatencyRecorder latency = new LatencyRecorder(false, Duration.ofSeconds(10),
+                List.of(Duration.ofMinutes(1), Duration.ofMinutes(5)));
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        SigningKeyRing keyRing = new SigningKeyRing(new JwtKeyProperties(), SECRET);
+        JwtVerificationExecutor verifier = new JwtVerificationExecutor(false, 1, 1);
+        cachedFilter = new JwtAuthenticationFilter(keyRing,
+                new VerifiedTokenCache(true, 10_000, Duration.ofHours(1)), verifier,
+                new TokenRejectionTracker(0, Duration.ofMinutes(1)),
+                new PublicPathMatcher(new PathAccessProperties()),
+                new TokenRevocationList(null, Duration.ofHours(24), Duration.ofMinutes(5), 1024),
+                latency, new RequestLog(new DiagnosticsProperties()));
+        uncachedFilter = new JwtAuthenticationFilter(keyRing,
+                new VerifiedTokenCache(false, 0, Duration.ofHours(1)), verifier,
+                new TokenRejectionTracker(0, Duration.ofMinutes(1)),
+                new PublicPathMatcher(new PathAccessProperties()),
+                new TokenRevocationList(null, Duration.ofHours(24), Duration.ofMinutes(5), 1024),
+                latency, new RequestLog(new DiagnosticsProperties()));
+
+        SigningKeyRing.KeyEntry signingKey = keyRing.signingKey();
+        String token = Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
+                .subject("admin@admin.com")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 86400000))
+                .signWith(signingKey.key())
+                .compact();
+        authorization = "Bearer " + token;
+    }
+
+    @Benchmark
+    public void cached() {
+        cachedFilter.filter(exchange(), chain).block();
+    }
+
+    @Benchmark
+    public void uncached() {
+        uncachedFilter.filter(exchange(), chain).block();
+    }
+
+    private MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/orders/user/1")
+                .header("Authorization", authorization));
+    }
+}
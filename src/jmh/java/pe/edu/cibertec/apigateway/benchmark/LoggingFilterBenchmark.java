@@ -0,0 +1,97 @@
+package pe.edu.cibertec.apigateway.benchmark;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import pe.edu.cibertec.apigateway.accesslog.BinaryAccessLog;
+import pe.edu.cibertec.apigateway.diagnostics.DiagnosticsProperties;
+import pe.edu.cibertec.apigateway.diagnostics.RequestLog;
+import pe.edu.cibertec.apigateway.filter.LoggingFilter;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Closure de LoggingFilter alrededor de una cadena vacía. Con nivel INFO se
+ * mide la construcción de los eventos (sin appenders, no hay E/S); con WARN,
+ * solo el costo del filtro con los logs deshabilitados. En modo SAMPLED el
+ * filtro no registra nada por petición; en formato BINARY escribe una entrada
+ * en el access log mapeado en memoria.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingFilterBenchmark {
+
+    @Param({ "INFO", "WARN" })
+    public String level;
+
+    @Param({ "VERBOSE", "SAMPLED" })
+    public DiagnosticsProperties.Mode mode;
+
+    @Param({ "TEXT", "BINARY" })
+    public String format;
+
+    private final GatewayFilterChain chain = exchange -> Mono.empty();
+    private final InetSocketAddress client = new InetSocketAddress("192.168.1.20", 52311);
+
+    private GatewayFilter filter;
+    private BinaryAccessLog accessLog;
+
+    @Setup
+    public void setUp() throws IOException {
+        LatencyRecorder latency = new LatencyRecorder(false, Duration.ofSeconds(10),
+                List.of(Duration.ofMinutes(1), Duration.ofMinutes(5)));
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.setLevel(Level.WARN);
+        ((Logger) LoggerFactory.getLogger(LoggingFilter.class)).setLevel(Level.toLevel(level));
+
+        accessLog = new BinaryAccessLog(format, Files.createTempDirectory("access-log").toString(),
+                DataSize.ofMegabytes(64), 2);
+        accessLog.start();
+
+        DiagnosticsProperties diagnostics = new DiagnosticsProperties();
+        diagnostics.setMode(mode);
+        filter = new LoggingFilter(latency, new RequestLog(diagnostics), accessLog).apply(new LoggingFilter.Config());
+    }
+
+    @TearDown
+    public void tearDown() {
+        accessLog.stop();
+    }
+
+    @Benchmark
+    public void filter() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/products/3")
+                .remoteAddress(client)), chain).block();
+    }
+}
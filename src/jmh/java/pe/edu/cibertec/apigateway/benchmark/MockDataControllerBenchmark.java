@@ -0,0 +1,89 @@
+package pe.edu.cibertec.apigateway.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import pe.edu.cibertec.apigateway.controller.MockDataController;
+
+/**
+ * Catálogo de MockDataController: búsqueda por id (primer y último elemento,
+ * id inexistente) y listado completo, sin comprimir y en gzip. El listado
+ * serializado con Jackson en cada llamada sirve de referencia del costo que
+ * se evita al pre-serializar.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MockDataControllerBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final MockDataController controller = new MockDataController(mapper);
+
+    // Campos no finales para que el JIT no trate los ids como constantes
+    private long firstId = 1L;
+    private long lastId = 5L;
+    private long missingId = 999L;
+    private String identity = null;
+    private String gzip = "gzip, deflate, br";
+
+    // Mismo listado como List<Map> (la representación anterior), para serializarlo en cada llamada
+    private List<Map<String, Object>> legacyListing;
+
+    @Setup
+    public void setUp() throws IOException {
+        DataBuffer body = controller.getAllProducts(identity).getBody();
+        legacyListing = mapper.readValue(body.asInputStream(), new TypeReference<List<Map<String, Object>>>() { });
+    }
+
+    @Benchmark
+    public ResponseEntity<DataBuffer> firstProduct() {
+        return controller.getProductById(firstId, identity);
+    }
+
+    @Benchmark
+    public ResponseEntity<DataBuffer> lastProduct() {
+        return controller.getProductById(lastId, identity);
+    }
+
+    @Benchmark
+    public ResponseEntity<DataBuffer> missingProduct() {
+        return controller.getProductById(missingId, identity);
+    }
+
+    @Benchmark
+    public ResponseEntity<DataBuffer> listing() {
+        return controller.getAllProducts(identity);
+    }
+
+    @Benchmark
+    public ResponseEntity<DataBuffer> listingGzip() {
+        return controller.getAllProducts(gzip);
+    }
+
+    @Benchmark
+    public byte[] listingJackson() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(legacyListing);
+    }
+}
@@ -0,0 +1,80 @@
+package pe.edu.cibertec.apigateway.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pe.edu.cibertec.apigateway.security.PublicPathMatcher;
+
+/**
+ * Trie compilado frente al recorrido lineal con {@code startsWith} que hacía
+ * antes {@code JwtAuthenticationFilter.isPublicPath}, con cientos de reglas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicPathMatcherBenchmark {
+
+    @Param({ "11", "200", "800" })
+    public int rules;
+
+    private PublicPathMatcher matcher;
+    private List<String> prefixes;
+    private String[] paths;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<String> publicPrefixes = new ArrayList<>();
+        List<String> protectedPrefixes = new ArrayList<>();
+        for (int i = 0; i < rules; i++) {
+            String service = "/api/service-" + i;
+            if (i % 4 == 0) {
+                protectedPrefixes.add(service + "/admin");
+            }
+            publicPrefixes.add(service + "/public");
+        }
+        matcher = new PublicPathMatcher(publicPrefixes, protectedPrefixes);
+        prefixes = publicPrefixes;
+
+        paths = new String[] {
+                "/api/service-" + (rules - 1) + "/public/catalog/42",
+                "/api/service-" + (rules / 2) + "/admin/users",
+                "/api/orders/user/1",
+                "/api/service-0/public",
+                "/unknown/path/that/matches/nothing"
+        };
+    }
+
+    @Benchmark
+    public boolean compiledTrie() {
+        return matcher.isPublic(nextPath());
+    }
+
+    @Benchmark
+    public boolean linearStartsWith() {
+        String path = nextPath();
+        return prefixes.stream().anyMatch(path::startsWith);
+    }
+
+    private String nextPath() {
+        String path = paths[next];
+        next = next + 1 == paths.length ? 0 : next + 1;
+        return path;
+    }
+}
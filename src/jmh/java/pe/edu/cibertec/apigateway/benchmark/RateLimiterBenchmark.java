@@ -0,0 +1,83 @@
+package pe.edu.cibertec.apigateway.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pe.edu.cibertec.apigateway.ratelimit.TokenBuckets;
+
+/**
+ * Token buckets sin bloqueos (un CAS por petición) frente a un mapa con
+ * bloqueo global, con hasta un millón de claves distintas y 4 hilos.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    @Param({ "1000", "1000000" })
+    public int keys;
+
+    private String[] ids;
+    private TokenBuckets buckets;
+    private Map<String, long[]> locked;
+
+    @Setup
+    public void setUp() {
+        ids = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            ids[i] = "user:cliente" + i + "@example.com";
+        }
+        buckets = new TokenBuckets(100, 50);
+        locked = new HashMap<>();
+        long now = System.nanoTime();
+        // Todas las claves ya tienen bucket: se mide el camino habitual, no la creación
+        for (String id : ids) {
+            buckets.tryConsume(id, now);
+            locked.put(id, new long[] {now});
+        }
+    }
+
+    @Benchmark
+    public boolean lockFree() {
+        return buckets.tryConsume(nextKey(), System.nanoTime()).allowed();
+    }
+
+    @Benchmark
+    public boolean globalLock() {
+        String key = nextKey();
+        long now = System.nanoTime();
+        long interval = 20_000_000L;
+        synchronized (locked) {
+            long[] bucket = locked.computeIfAbsent(key, k -> new long[] {now});
+            long next = Math.max(bucket[0], now) + interval;
+            if (next - now > interval * 100) {
+                return false;
+            }
+            bucket[0] = next;
+            return true;
+        }
+    }
+
+    private String nextKey() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
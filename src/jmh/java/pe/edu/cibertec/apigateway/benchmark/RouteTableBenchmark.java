@@ -0,0 +1,101 @@
+package pe.edu.cibertec.apigateway.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import pe.edu.cibertec.apigateway.routing.RouteTable;
+
+/**
+ * Selección de ruta con la tabla compilada frente al recorrido lineal de
+ * {@code PathPattern} que hace el gateway por defecto, con hasta 1.000 rutas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteTableBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int routes;
+
+    private RouteTable table;
+    private PathPattern[] linear;
+    private Map<String, PathPattern> patternsById;
+    private PathContainer[] paths;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        List<Route> ordered = new ArrayList<>();
+        Map<String, List<String>> patterns = new HashMap<>();
+        patternsById = new HashMap<>();
+        linear = new PathPattern[routes];
+        for (int i = 0; i < routes; i++) {
+            String id = "route-" + i;
+            String pattern = i % 2 == 0 ? "/svc" + i + "/**" : "/api/v" + i + "/items/{id}";
+            ordered.add(Route.async().id(id).uri("http://localhost").predicate(exchange -> true).build());
+            patterns.put(id, List.of(pattern));
+            linear[i] = parser.parse(pattern);
+            patternsById.put(id, linear[i]);
+        }
+        table = new RouteTable(1, ordered, patterns);
+
+        int last = routes - 1;
+        paths = new PathContainer[] {
+                PathContainer.parsePath("/svc0/catalog/42"),
+                PathContainer.parsePath("/api/v" + (last % 2 == 1 ? last : last - 1) + "/items/7"),
+                PathContainer.parsePath("/svc" + (routes / 2 & ~1) + "/a/b/c"),
+                PathContainer.parsePath("/unknown/path/that/matches/nothing")
+        };
+    }
+
+    @Benchmark
+    public String compiledTable() {
+        PathContainer path = nextPath();
+        for (Route candidate : table.candidates(path)) {
+            if (patternsById.get(candidate.getId()).matches(path)) {
+                return candidate.getId();
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String linearPathPattern() {
+        PathContainer path = nextPath();
+        for (int i = 0; i < linear.length; i++) {
+            if (linear[i].matches(path)) {
+                return "route-" + i;
+            }
+        }
+        return null;
+    }
+
+    private PathContainer nextPath() {
+        PathContainer path = paths[next];
+        next = next + 1 == paths.length ? 0 : next + 1;
+        return path;
+    }
+}
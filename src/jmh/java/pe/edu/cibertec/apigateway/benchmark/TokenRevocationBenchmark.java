@@ -0,0 +1,60 @@
+package pe.edu.cibertec.apigateway.benchmark;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pe.edu.cibertec.apigateway.security.TokenRevocationList;
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+
+/**
+ * Costo de la consulta de revocación con 100.000 entradas revocadas; el
+ * objetivo es un p99 por debajo de un microsegundo.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenRevocationBenchmark {
+
+    private TokenRevocationList revocations;
+    private VerifiedPrincipal validPrincipal;
+    private VerifiedPrincipal revokedPrincipal;
+
+    @Setup
+    public void setUp() {
+        revocations = new TokenRevocationList("", Duration.ofHours(24), Duration.ofMinutes(5), 100_000);
+        String lastRevoked = null;
+        for (int i = 0; i < 100_000; i++) {
+            lastRevoked = UUID.randomUUID().toString();
+            revocations.revokeId(lastRevoked, null);
+        }
+        Instant now = Instant.now();
+        validPrincipal = new VerifiedPrincipal("cliente@ios.app", UUID.randomUUID().toString(), now, now.plusSeconds(3600));
+        revokedPrincipal = new VerifiedPrincipal("cliente@ios.app", lastRevoked, now, now.plusSeconds(3600));
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return revocations.isRevoked(validPrincipal);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revocations.isRevoked(revokedPrincipal);
+    }
+}
@@ -0,0 +1,119 @@
+package pe.edu.cibertec.apigateway.accesslog;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formato binario del access log. Cada archivo de la rotación empieza con
+ * una cabecera del mismo tamaño que una entrada, seguida de entradas fijas
+ * de 64 bytes (little-endian):
+ *
+ * <pre>
+ *  0  long   timestamp epoch ms (0 = slot vacío o en escritura; se publica al final)
+ *  8  int    latencia en microsegundos
+ * 12  short  estado HTTP
+ * 14  byte   método (índice en METHODS)
+ * 15  byte   longitud del id de ruta
+ * 16  long   bytes recibidos (Content-Length, -1 si se desconoce)
+ * 24  long   bytes enviados (Content-Length, -1 si se desconoce)
+ * 32  long   hash del usuario del JWT (0 = anónimo)
+ * 40  byte[24] id de ruta en ASCII (truncado)
+ * </pre>
+ */
+final class AccessLogFormat {
+
+    static final int ENTRY_SIZE = 64;
+    static final int ROUTE_BYTES = 24;
+    static final int MAGIC = 0x4757414c; // "GWAL"
+    static final int VERSION = 1;
+
+    static final String[] METHODS = { "OTHER", "GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS", "TRACE" };
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private AccessLogFormat() {
+    }
+
+    static void writeHeader(ByteBuffer buffer, long createdAtMillis) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, ENTRY_SIZE);
+        buffer.putLong(16, createdAtMillis);
+    }
+
+    static boolean validHeader(ByteBuffer buffer) {
+        return buffer.capacity() >= ENTRY_SIZE
+                && buffer.getInt(0) == MAGIC
+                && buffer.getInt(4) == VERSION
+                && buffer.getInt(8) == ENTRY_SIZE;
+    }
+
+    /** Escribe una entrada; el timestamp se publica al final para no exponer entradas a medias. */
+    static void write(ByteBuffer buffer, int offset, long timestampMillis, String routeId, int method,
+            int status, long latencyMicros, long bytesIn, long bytesOut, long userHash) {
+        LONGS.setRelease(buffer, offset, 0L);
+        buffer.putInt(offset + 8, (int) Math.min(latencyMicros, Integer.MAX_VALUE));
+        buffer.putShort(offset + 12, (short) status);
+        buffer.put(offset + 14, (byte) method);
+        int length = routeId == null ? 0 : Math.min(routeId.length(), ROUTE_BYTES);
+        buffer.put(offset + 15, (byte) length);
+        buffer.putLong(offset + 16, bytesIn);
+        buffer.putLong(offset + 24, bytesOut);
+        buffer.putLong(offset + 32, userHash);
+        for (int i = 0; i < ROUTE_BYTES; i++) {
+            char c = i < length ? routeId.charAt(i) : 0;
+            buffer.put(offset + 40 + i, (byte) (c < 0x80 ? c : '?'));
+        }
+        LONGS.setRelease(buffer, offset, timestampMillis);
+    }
+
+    static long timestamp(ByteBuffer buffer, int offset) {
+        return (long) LONGS.getAcquire(buffer, offset);
+    }
+
+    static Entry read(ByteBuffer buffer, int offset) {
+        long timestamp = timestamp(buffer, offset);
+        int length = Math.min(buffer.get(offset + 15) & 0xff, ROUTE_BYTES);
+        byte[] route = new byte[length];
+        buffer.get(offset + 40, route);
+        int method = buffer.get(offset + 14) & 0xff;
+        return new Entry(
+                timestamp,
+                new String(route, StandardCharsets.US_ASCII),
+                method < METHODS.length ? METHODS[method] : METHODS[0],
+                buffer.getShort(offset + 12) & 0xffff,
+                buffer.getInt(offset + 8) & 0xffffffffL,
+                buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24),
+                buffer.getLong(offset + 32));
+    }
+
+    static int methodIndex(String method) {
+        for (int i = 1; i < METHODS.length; i++) {
+            if (METHODS[i].equals(method)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /** FNV-1a de 64 bits del sujeto; el lector lo recalcula para filtrar por usuario. */
+    static long userHash(String subject) {
+        if (subject == null) {
+            return 0;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < subject.length(); i++) {
+            hash ^= subject.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    record Entry(long timestampMillis, String route, String method, int status, long latencyMicros,
+            long bytesIn, long bytesOut, long userHash) {
+    }
+}
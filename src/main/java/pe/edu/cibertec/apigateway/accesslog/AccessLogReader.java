@@ -0,0 +1,160 @@
+package pe.edu.cibertec.apigateway.accesslog;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lector de línea de comandos del access log binario:
+ *
+ * <pre>
+ * java -cp target/classes pe.edu.cibertec.apigateway.accesslog.AccessLogReader \
+ *     [--dir data/access-log] [--from 2025-08-20T10:00:00Z] [--to ...] \
+ *     [--route product-service] [--status 503|5xx] [--user admin@admin.com]
+ * </pre>
+ *
+ * Imprime las entradas que cumplen todos los filtros, ordenadas por tiempo.
+ */
+public final class AccessLogReader {
+
+    private Path directory = Paths.get("data/access-log");
+    private long from = Long.MIN_VALUE;
+    private long to = Long.MAX_VALUE;
+    private String route;
+    private int statusMin = 0;
+    private int statusMax = Integer.MAX_VALUE;
+    private Long userHash;
+
+    public static void main(String[] args) {
+        AccessLogReader reader = new AccessLogReader();
+        try {
+            reader.parse(args);
+            reader.print(System.out);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Uso: AccessLogReader [--dir DIR] [--from INSTANTE] [--to INSTANTE] "
+                    + "[--route ID] [--status CODIGO|Nxx] [--user SUJETO]");
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("No se pudo leer el access log: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--dir" -> directory = Paths.get(value);
+                case "--from" -> from = parseTime(value);
+                case "--to" -> to = parseTime(value);
+                // El id de ruta se guarda truncado
+                case "--route" -> route = value.length() > AccessLogFormat.ROUTE_BYTES
+                        ? value.substring(0, AccessLogFormat.ROUTE_BYTES)
+                        : value;
+                case "--status" -> parseStatus(value);
+                case "--user" -> userHash = AccessLogFormat.userHash(value);
+                default -> throw new IllegalArgumentException("Opción desconocida: " + option);
+            }
+        }
+    }
+
+    List<AccessLogFormat.Entry> read() throws IOException {
+        List<AccessLogFormat.Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "access-*.bin")) {
+            for (Path file : files) {
+                readFile(file, entries);
+            }
+        }
+        entries.sort(Comparator.comparingLong(AccessLogFormat.Entry::timestampMillis));
+        return entries;
+    }
+
+    void print(PrintStream out) throws IOException {
+        for (AccessLogFormat.Entry entry : read()) {
+            out.printf("%s %-7s %3d %10.3fms in=%d out=%d route=%s user=%s%n",
+                    Instant.ofEpochMilli(entry.timestampMillis()),
+                    entry.method(),
+                    entry.status(),
+                    entry.latencyMicros() / 1000.0,
+                    entry.bytesIn(),
+                    entry.bytesOut(),
+                    entry.route().isEmpty() ? "-" : entry.route(),
+                    entry.userHash() == 0 ? "-" : Long.toHexString(entry.userHash()));
+        }
+    }
+
+    private void readFile(Path file, List<AccessLogFormat.Entry> entries) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (!AccessLogFormat.validHeader(buffer)) {
+                System.err.println("Se omite " + file + ": cabecera inválida");
+                return;
+            }
+            for (int offset = AccessLogFormat.ENTRY_SIZE; offset + AccessLogFormat.ENTRY_SIZE <= buffer.capacity();
+                    offset += AccessLogFormat.ENTRY_SIZE) {
+                long timestamp = AccessLogFormat.timestamp(buffer, offset);
+                if (timestamp == 0 || timestamp < from || timestamp > to) {
+                    continue;
+                }
+                AccessLogFormat.Entry entry = AccessLogFormat.read(buffer, offset);
+                if (matches(entry)) {
+                    entries.add(entry);
+                }
+            }
+        }
+    }
+
+    private boolean matches(AccessLogFormat.Entry entry) {
+        return entry.status() >= statusMin && entry.status() <= statusMax
+                && (route == null || route.equals(entry.route()))
+                && (userHash == null || userHash == entry.userHash());
+    }
+
+    private void parseStatus(String value) {
+        if (value.length() == 3 && (value.endsWith("xx") || value.endsWith("XX"))) {
+            int family = Character.digit(value.charAt(0), 10);
+            if (family < 1 || family > 5) {
+                throw new IllegalArgumentException("Estado inválido: " + value);
+            }
+            statusMin = family * 100;
+            statusMax = family * 100 + 99;
+            return;
+        }
+        try {
+            statusMin = statusMax = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Estado inválido: " + value);
+        }
+    }
+
+    // Instante ISO-8601 (2025-08-20T10:00:00Z) o epoch en milisegundos
+    private static long parseTime(String value) {
+        try {
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException ignored) {
+                throw new IllegalArgumentException("Instante inválido: " + value);
+            }
+        }
+    }
+}
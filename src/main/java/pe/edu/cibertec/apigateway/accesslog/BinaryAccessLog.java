@@ -0,0 +1,132 @@
+package pe.edu.cibertec.apigateway.accesslog;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Access log binario sobre una rotación de archivos mapeados en memoria
+ * ({@code access-0.bin} ... {@code access-N.bin}). Los productores reservan
+ * un slot con un único {@code getAndIncrement} y escriben la entrada fija
+ * directamente en el mapa, sin locks, sin formatear texto y sin llamadas al
+ * sistema; al completar una vuelta se sobrescriben las entradas más antiguas.
+ * Se lee con {@link AccessLogReader}.
+ */
+@Component
+public class BinaryAccessLog implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryAccessLog.class);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int files;
+    private final int entriesPerFile;
+
+    private final AtomicLong position = new AtomicLong();
+    private final LongAdder written = new LongAdder();
+    private MappedByteBuffer[] buffers;
+    private volatile boolean open;
+
+    public BinaryAccessLog(
+            @Value("${gateway.access-log.format:TEXT}") String format,
+            @Value("${gateway.access-log.directory:data/access-log}") String directory,
+            @Value("${gateway.access-log.file-size:64MB}") DataSize fileSize,
+            @Value("${gateway.access-log.files:4}") int files) {
+        this.enabled = "BINARY".equalsIgnoreCase(format);
+        this.directory = Paths.get(directory);
+        this.files = Math.max(1, files);
+        // El primer slot de cada archivo es la cabecera
+        this.entriesPerFile = (int) Math.min(Integer.MAX_VALUE / AccessLogFormat.ENTRY_SIZE,
+                fileSize.toBytes() / AccessLogFormat.ENTRY_SIZE) - 1;
+    }
+
+    /** {@code true} si LoggingFilter debe escribir aquí en lugar de las líneas de texto. */
+    public boolean isEnabled() {
+        return open;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        buffers = new MappedByteBuffer[files];
+        long now = System.currentTimeMillis();
+        long latestSlot = -1;
+        long latestTimestamp = 0;
+        for (int i = 0; i < files; i++) {
+            Path file = directory.resolve("access-" + i + ".bin");
+            long size = (long) (entriesPerFile + 1) * AccessLogFormat.ENTRY_SIZE;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                if (!AccessLogFormat.validHeader(buffer)) {
+                    AccessLogFormat.writeHeader(buffer, now);
+                }
+                buffers[i] = buffer;
+                // Se continúa después de la entrada más reciente de una ejecución anterior
+                for (int e = 0; e < entriesPerFile; e++) {
+                    long timestamp = AccessLogFormat.timestamp(buffer, (e + 1) * AccessLogFormat.ENTRY_SIZE);
+                    if (timestamp > latestTimestamp) {
+                        latestTimestamp = timestamp;
+                        latestSlot = (long) i * entriesPerFile + e;
+                    }
+                }
+            }
+        }
+        position.set(latestSlot + 1);
+        open = true;
+        log.info("Access log binario en {} ({} archivos de {} entradas)", directory, files, entriesPerFile);
+    }
+
+    @PreDestroy
+    public void stop() {
+        open = false;
+        if (buffers != null) {
+            for (MappedByteBuffer buffer : buffers) {
+                buffer.force();
+            }
+        }
+    }
+
+    public void record(long timestampMillis, String routeId, String method, int status, long latencyMicros,
+            long bytesIn, long bytesOut, String user) {
+        if (!open) {
+            return;
+        }
+        long slot = position.getAndIncrement() % ((long) files * entriesPerFile);
+        int file = (int) (slot / entriesPerFile);
+        int offset = (int) (slot % entriesPerFile + 1) * AccessLogFormat.ENTRY_SIZE;
+        AccessLogFormat.write(buffers[file], offset, timestampMillis, routeId, AccessLogFormat.methodIndex(method),
+                status, latencyMicros, bytesIn, bytesOut, AccessLogFormat.userHash(user));
+        written.increment();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.accesslog.entries", written, LongAdder::sum)
+                .description("Entradas escritas en el access log binario")
+                .register(registry);
+    }
+}
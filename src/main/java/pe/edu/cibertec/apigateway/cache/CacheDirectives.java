@@ -0,0 +1,54 @@
+package pe.edu.cibertec.apigateway.cache;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Directivas de {@code Cache-Control} relevantes para una caché compartida.
+ * Las edades ausentes o inválidas valen {@code -1}.
+ */
+record CacheDirectives(boolean noStore, boolean noCache, boolean isPrivate, long maxAge, long sharedMaxAge) {
+
+    static final CacheDirectives NONE = new CacheDirectives(false, false, false, -1, -1);
+
+    static CacheDirectives parse(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return NONE;
+        }
+        boolean noStore = false;
+        boolean noCache = false;
+        boolean isPrivate = false;
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                String token = directive.trim().toLowerCase(Locale.ROOT);
+                if (token.equals("no-store")) {
+                    noStore = true;
+                } else if (token.startsWith("no-cache")) {
+                    noCache = true;
+                } else if (token.startsWith("private")) {
+                    isPrivate = true;
+                } else if (token.startsWith("max-age=")) {
+                    maxAge = seconds(token.substring(8));
+                } else if (token.startsWith("s-maxage=")) {
+                    sharedMaxAge = seconds(token.substring(9));
+                }
+            }
+        }
+        return new CacheDirectives(noStore, noCache, isPrivate, maxAge, sharedMaxAge);
+    }
+
+    /** Edad máxima para una caché compartida: {@code s-maxage} antes que {@code max-age}. */
+    long sharedFreshness() {
+        return sharedMaxAge >= 0 ? sharedMaxAge : maxAge;
+    }
+
+    private static long seconds(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value.replace("\"", "").trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
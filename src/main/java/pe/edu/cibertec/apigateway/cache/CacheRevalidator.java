@@ -0,0 +1,74 @@
+package pe.edu.cibertec.apigateway.cache;
+
+import java.net.URI;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Refresca en segundo plano las entradas vencidas dentro de la ventana
+ * stale-while-revalidate. La petición vuelve a entrar al propio gateway con
+ * {@code Cache-Control: no-cache}, de modo que recorre la misma cadena de
+ * filtros y {@link ResponseCacheFilter} guarda la respuesta nueva.
+ */
+@Component
+public class CacheRevalidator implements ApplicationListener<WebServerInitializedEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheRevalidator.class);
+
+    private final WebClient client;
+    private final ResponseCache cache;
+    private final Duration timeout;
+    private final String scheme;
+    private volatile int port = -1;
+
+    public CacheRevalidator(WebClient.Builder builder, ResponseCache cache, ResponseCacheProperties properties,
+            @Value("${server.ssl.enabled:false}") boolean ssl) {
+        this.client = builder.build();
+        this.cache = cache;
+        this.timeout = properties.getRevalidateTimeout();
+        this.scheme = ssl ? "https" : "http";
+    }
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        // Solo interesa el servidor principal, no el de management
+        if (event.getApplicationContext().getServerNamespace() == null) {
+            port = event.getWebServer().getPort();
+        }
+    }
+
+    /**
+     * Lanza el refresco salvo que ya haya uno en curso para la entrada. El
+     * {@code Accept-Encoding} original hace que se refresque la misma variante.
+     */
+    public void revalidate(String pathAndQuery, String acceptEncoding, CachedResponse entry) {
+        int current = port;
+        if (current <= 0 || !entry.startRevalidation()) {
+            return;
+        }
+        cache.recordRevalidation();
+        client.get()
+                .uri(URI.create(scheme + "://127.0.0.1:" + current + pathAndQuery))
+                .headers(headers -> {
+                    headers.setCacheControl(CacheControl.noCache());
+                    if (acceptEncoding != null) {
+                        headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+                    }
+                })
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(timeout)
+                .doFinally(signal -> entry.finishRevalidation())
+                .subscribe(response -> { },
+                        e -> log.debug("No se pudo revalidar {}: {}", pathAndQuery, e.getMessage()));
+    }
+}
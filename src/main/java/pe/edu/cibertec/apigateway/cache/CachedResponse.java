@@ -0,0 +1,152 @@
+package pe.edu.cibertec.apigateway.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Respuesta almacenada: cabeceras ya filtradas, cuerpo completo y un ETag
+ * fuerte calculado una sola vez al guardarla.
+ */
+public final class CachedResponse {
+
+    // Costo aproximado de la entrada, la clave y los objetos auxiliares
+    private static final int OVERHEAD_BYTES = 256;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final HttpStatusCode status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final String etag;
+    private final long storedAtMillis;
+    private final long freshUntilMillis;
+    private final long staleUntilMillis;
+    private final int size;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+    private volatile long lastAccessMillis;
+
+    CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body,
+            long storedAtMillis, long ttlMillis, long staleMillis) {
+        this.status = status;
+        String upstreamEtag = headers.getETag();
+        this.etag = upstreamEtag != null && upstreamEtag.startsWith("\"") ? upstreamEtag : strongEtag(body);
+        this.headers = HttpHeaders.readOnlyHttpHeaders(storableHeaders(headers, body.length, etag));
+        this.body = body;
+        this.storedAtMillis = storedAtMillis;
+        this.freshUntilMillis = storedAtMillis + ttlMillis;
+        this.staleUntilMillis = freshUntilMillis + staleMillis;
+        this.size = body.length + headerBytes(this.headers) + OVERHEAD_BYTES;
+        this.lastAccessMillis = storedAtMillis;
+    }
+
+    public HttpStatusCode status() {
+        return status;
+    }
+
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    public byte[] body() {
+        return body;
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFresh(long nowMillis) {
+        return nowMillis < freshUntilMillis;
+    }
+
+    /** Expirada pero todavía dentro de la ventana stale-while-revalidate. */
+    public boolean isServableStale(long nowMillis) {
+        return nowMillis < staleUntilMillis;
+    }
+
+    public long ageSeconds(long nowMillis) {
+        return Math.max(0, (nowMillis - storedAtMillis) / 1000);
+    }
+
+    /** Compara contra {@code If-None-Match} (lista de ETags o {@code *}). */
+    public boolean matches(List<String> ifNoneMatch) {
+        for (String candidate : ifNoneMatch) {
+            if (candidate.equals("*") || candidate.equals(etag) || candidate.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long lastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    void touch(long nowMillis) {
+        if (lastAccessMillis != nowMillis) {
+            lastAccessMillis = nowMillis;
+        }
+    }
+
+    /** Garantiza una sola revalidación en curso por entrada. */
+    boolean startRevalidation() {
+        return revalidating.compareAndSet(false, true);
+    }
+
+    void finishRevalidation() {
+        revalidating.set(false);
+    }
+
+    // Solo se guardan cabeceras de representación: nada de conexión, cookies
+    // ni CORS (CorsGlobalFilter las escribe en cada respuesta según el origen)
+    private static HttpHeaders storableHeaders(HttpHeaders source, int length, String etag) {
+        HttpHeaders copy = new HttpHeaders();
+        for (Map.Entry<String, List<String>> header : source.entrySet()) {
+            String name = header.getKey();
+            if (name.regionMatches(true, 0, "Access-Control-", 0, 15)
+                    || name.equalsIgnoreCase(HttpHeaders.CONNECTION)
+                    || name.equalsIgnoreCase(HttpHeaders.TRANSFER_ENCODING)
+                    || name.equalsIgnoreCase("Keep-Alive")
+                    || name.equalsIgnoreCase(HttpHeaders.SET_COOKIE)
+                    || name.equalsIgnoreCase(HttpHeaders.DATE)
+                    || name.equalsIgnoreCase(HttpHeaders.AGE)
+                    || name.equalsIgnoreCase(ResponseCacheFilter.CACHE_STATUS_HEADER)) {
+                continue;
+            }
+            copy.put(name, List.copyOf(header.getValue()));
+        }
+        copy.setContentLength(length);
+        copy.setETag(etag);
+        return copy;
+    }
+
+    private static String strongEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HEX.formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static int headerBytes(HttpHeaders headers) {
+        int bytes = 0;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            for (String value : header.getValue()) {
+                bytes += header.getKey().length() + value.length() + 4;
+            }
+        }
+        return bytes;
+    }
+}
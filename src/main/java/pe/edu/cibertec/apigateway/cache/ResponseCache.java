@@ -0,0 +1,207 @@
+package pe.edu.cibertec.apigateway.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Almacén de respuestas con presupuesto en bytes. Las lecturas no toman
+ * locks; al superar el presupuesto se descartan las entradas menos usadas
+ * recientemente hasta bajar al 90%, para amortizar el barrido entre muchas
+ * inserciones.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+
+    public enum Result {
+        HIT, STALE, MISS, BYPASS
+    }
+
+    private final ConcurrentHashMap<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final List<Rule> rules;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    public ResponseCache(ResponseCacheProperties properties) {
+        this.enabled = properties.isEnabled() && properties.getMaxBytes().toBytes() > 0;
+        this.maxBytes = properties.getMaxBytes().toBytes();
+        this.maxEntryBytes = properties.getMaxEntryBytes().toBytes();
+        List<Rule> configured = new ArrayList<>();
+        for (ResponseCacheProperties.Route route : properties.getRoutes().values()) {
+            if (route.getPathPrefix() != null && !route.getPathPrefix().isBlank() && route.getTtl().toMillis() > 0) {
+                configured.add(new Rule(route.getPathPrefix(), route.getTtl().toMillis(),
+                        route.getStaleWhileRevalidate().toMillis()));
+            }
+        }
+        configured.sort(Comparator.comparingInt((Rule rule) -> rule.pathPrefix().length()).reversed());
+        this.rules = List.copyOf(configured);
+    }
+
+    public boolean isEnabled() {
+        return enabled && !rules.isEmpty();
+    }
+
+    public long maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /** Regla del prefijo más largo que cubre la ruta, o {@code null}. */
+    public Rule ruleFor(String path) {
+        for (Rule rule : rules) {
+            if (rule.covers(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    public CachedResponse get(String key, long nowMillis) {
+        CachedResponse entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.isServableStale(nowMillis)) {
+            remove(key, entry);
+            return null;
+        }
+        entry.touch(nowMillis);
+        return entry;
+    }
+
+    /** Guarda la entrada si cabe en el presupuesto por entrada. */
+    public boolean put(String key, CachedResponse entry) {
+        if (entry.size() > maxEntryBytes || entry.size() > maxBytes) {
+            return false;
+        }
+        CachedResponse previous = entries.put(key, entry);
+        long total = bytes.addAndGet(entry.size() - (previous == null ? 0 : previous.size()));
+        if (total > maxBytes) {
+            makeRoom();
+        }
+        return true;
+    }
+
+    public void invalidate(String key) {
+        CachedResponse entry = entries.get(key);
+        if (entry != null) {
+            remove(key, entry);
+        }
+    }
+
+    public void clear() {
+        entries.keySet().forEach(this::invalidate);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    public void record(Result result) {
+        switch (result) {
+            case HIT -> hits.increment();
+            case STALE -> staleHits.increment();
+            case MISS -> misses.increment();
+            case BYPASS -> bypasses.increment();
+        }
+    }
+
+    void recordNotModified() {
+        notModified.increment();
+    }
+
+    void recordRevalidation() {
+        revalidations.increment();
+    }
+
+    private synchronized void makeRoom() {
+        long target = maxBytes - maxBytes / 10;
+        if (bytes.get() <= maxBytes) {
+            return;
+        }
+        List<Map.Entry<String, CachedResponse>> candidates = new ArrayList<>(entries.entrySet());
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastAccessMillis()));
+        for (Map.Entry<String, CachedResponse> candidate : candidates) {
+            if (bytes.get() <= target) {
+                break;
+            }
+            if (remove(candidate.getKey(), candidate.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private boolean remove(String key, CachedResponse entry) {
+        if (entries.remove(key, entry)) {
+            bytes.addAndGet(-entry.size());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, hits, "hit");
+        counter(registry, staleHits, "stale");
+        counter(registry, misses, "miss");
+        counter(registry, bypasses, "bypass");
+        FunctionCounter.builder("gateway.cache.not-modified", notModified, LongAdder::sum)
+                .description("Respuestas 304 por If-None-Match")
+                .register(registry);
+        FunctionCounter.builder("gateway.cache.evictions", evictions, LongAdder::sum)
+                .description("Entradas descartadas por el presupuesto de memoria")
+                .register(registry);
+        FunctionCounter.builder("gateway.cache.revalidations", revalidations, LongAdder::sum)
+                .description("Refrescos en segundo plano de entradas vencidas")
+                .register(registry);
+        Gauge.builder("gateway.cache.bytes", bytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("gateway.cache.entries", entries, Map::size)
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, LongAdder adder, String result) {
+        FunctionCounter.builder("gateway.cache.requests", adder, LongAdder::sum)
+                .description("GET cacheables según el resultado de la consulta a la caché")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public record Rule(String pathPrefix, long ttlMillis, long staleMillis) {
+
+        boolean covers(String path) {
+            if (!path.startsWith(pathPrefix)) {
+                return false;
+            }
+            // Coincidencia por segmento: /api/products no cubre /api/productsX
+            return path.length() == pathPrefix.length()
+                    || pathPrefix.endsWith("/")
+                    || path.charAt(pathPrefix.length()) == '/';
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package pe.edu.cibertec.apigateway.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import pe.edu.cibertec.apigateway.security.PublicPathMatcher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caché de respuestas para GET públicos ({@code /api/products} y
+ * {@code /api/products/{id}} por defecto). Corre como WebFilter para cubrir
+ * tanto los controladores locales como las rutas públicas hacia microservicios.
+ * <ul>
+ * <li>Acierto vigente: se responde desde memoria sin tocar el destino.</li>
+ * <li>Acierto vencido dentro de stale-while-revalidate: se responde la copia
+ * vieja y se refresca en segundo plano con {@link CacheRevalidator}.</li>
+ * <li>Fallo: solo entonces se decora la respuesta para copiar, mientras
+ * llega al cliente, el cuerpo de un 200 que el destino permita guardar y
+ * que no supere {@code max-entry-bytes}.</li>
+ * </ul>
+ * Toda respuesta servida desde caché lleva un ETag fuerte; un
+ * {@code If-None-Match} que coincide recibe 304 sin cuerpo. La respuesta que
+ * llena la caché sale sin él, porque sus cabeceras se envían antes de
+ * conocer el cuerpo completo. Solo se aplica a rutas públicas, cuya
+ * respuesta no depende de quién la pide; las rutas autenticadas hacia
+ * microservicios (p. ej. {@code /product/**}) nunca se guardan.
+ */
+@Component
+public class ResponseCacheFilter implements WebFilter, Ordered {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCache cache;
+    private final CacheRevalidator revalidator;
+    private final PublicPathMatcher pathMatcher;
+
+    public ResponseCacheFilter(ResponseCache cache, CacheRevalidator revalidator, PublicPathMatcher pathMatcher) {
+        this.cache = cache;
+        this.revalidator = revalidator;
+        this.pathMatcher = pathMatcher;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET || !cache.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        String path = request.getPath().pathWithinApplication().value();
+        ResponseCache.Rule rule = cache.ruleFor(path);
+        if (rule == null || pathMatcher.access(path) != PublicPathMatcher.Access.PUBLIC) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(request);
+        CacheDirectives requested = CacheDirectives.parse(request.getHeaders().get(HttpHeaders.CACHE_CONTROL));
+        if (requested.noStore()) {
+            cache.record(ResponseCache.Result.BYPASS);
+            return chain.filter(exchange);
+        }
+        // no-cache o max-age=0 del cliente (y la revalidación en segundo plano) van al destino
+        if (!requested.noCache() && requested.maxAge() != 0) {
+            long now = System.currentTimeMillis();
+            CachedResponse entry = cache.get(key, now);
+            if (entry != null && entry.isFresh(now)) {
+                cache.record(ResponseCache.Result.HIT);
+                return serve(exchange, entry, now, ResponseCache.Result.HIT);
+            }
+            if (entry != null) {
+                cache.record(ResponseCache.Result.STALE);
+                revalidator.revalidate(pathAndQuery(request), request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING),
+                        entry);
+                return serve(exchange, entry, now, ResponseCache.Result.STALE);
+            }
+        }
+        cache.record(ResponseCache.Result.MISS);
+        ServerHttpResponse capturing = new CapturingResponse(exchange.getResponse(), key, rule);
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse entry, long now, ResponseCache.Result result) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(entry.headers());
+        headers.set(HttpHeaders.AGE, Long.toString(entry.ageSeconds(now)));
+        headers.set(CACHE_STATUS_HEADER, result.name());
+        if (entry.matches(exchange.getRequest().getHeaders().getIfNoneMatch())) {
+            return notModified(response);
+        }
+        response.setStatusCode(entry.status());
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(entry.body())));
+    }
+
+    private Mono<Void> notModified(ServerHttpResponse response) {
+        cache.recordNotModified();
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        return response.setComplete();
+    }
+
+    // Ruta y query sin decodificar más el Accept-Encoding normalizado, para
+    // que las variantes comprimidas y sin comprimir no se mezclen
+    private static String key(ServerHttpRequest request) {
+        String acceptEncoding = request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+        String encoding = acceptEncoding == null ? "" : acceptEncoding.replace(" ", "").toLowerCase(Locale.ROOT);
+        return pathAndQuery(request) + "\n" + encoding;
+    }
+
+    private static String pathAndQuery(ServerHttpRequest request) {
+        String path = request.getURI().getRawPath();
+        String query = request.getURI().getRawQuery();
+        return query == null ? path : path + "?" + query;
+    }
+
+    // Un 200 se guarda salvo no-store, private, no-cache, Set-Cookie o un Vary
+    // distinto de Origin (CorsGlobalFilter lo añade en cada respuesta) y
+    // Accept-Encoding (forma parte de la clave)
+    private static boolean storable(HttpStatusCode status, HttpHeaders headers, CacheDirectives directives) {
+        if (status == null || status.value() != HttpStatus.OK.value()) {
+            return false;
+        }
+        if (directives.noStore() || directives.isPrivate() || directives.noCache()
+                || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        for (String vary : headers.getVary()) {
+            if (!vary.equalsIgnoreCase(HttpHeaders.ORIGIN) && !vary.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getOrder() {
+        // Después de Spring Security (-100), antes de los controladores y del enrutamiento
+        return 0;
+    }
+
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final ResponseCache.Rule rule;
+        private boolean copying = true;
+
+        CapturingResponse(ServerHttpResponse delegate, String key, ResponseCache.Rule rule) {
+            super(delegate);
+            this.key = key;
+            this.rule = rule;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            CacheDirectives directives = CacheDirectives.parse(headers.get(HttpHeaders.CACHE_CONTROL));
+            if (!storable(getStatusCode(), headers, directives) || headers.getContentLength() > cache.maxEntryBytes()) {
+                return super.writeWith(body);
+            }
+            long ttl = rule.ttlMillis();
+            if (directives.sharedFreshness() >= 0) {
+                ttl = Math.min(ttl, directives.sharedFreshness() * 1000);
+            }
+            long ttlMillis = ttl;
+            headers.set(CACHE_STATUS_HEADER, ResponseCache.Result.MISS.name());
+            // El cuerpo llega al cliente según se recibe; se guarda una copia solo hasta max-entry-bytes
+            // (sin Content-Length no se sabe de antemano) y al superarlo se deja de copiar
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(buffer -> {
+                        if (copying) {
+                            copying = copy(buffer, copy);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (copying && ttlMillis > 0) {
+                            cache.put(key, new CachedResponse(getStatusCode(), headers, copy.toByteArray(),
+                                    System.currentTimeMillis(), ttlMillis, rule.staleMillis()));
+                        }
+                    }));
+        }
+
+        private boolean copy(DataBuffer buffer, ByteArrayOutputStream copy) {
+            int length = buffer.readableByteCount();
+            if (copy.size() + (long) length > cache.maxEntryBytes()) {
+                copy.reset();
+                return false;
+            }
+            byte[] bytes = new byte[length];
+            int position = buffer.readPosition();
+            buffer.read(bytes);
+            buffer.readPosition(position);
+            copy.write(bytes, 0, length);
+            return true;
+        }
+    }
+}
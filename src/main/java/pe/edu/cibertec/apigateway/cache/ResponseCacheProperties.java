@@ -0,0 +1,114 @@
+package pe.edu.cibertec.apigateway.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Caché de respuestas del gateway para GET públicos
+ * ({@code gateway.response-cache.*}). Cada regla cubre un prefijo de ruta con
+ * su propio TTL; solo se aplica a prefijos que la tabla de acceso declara
+ * públicos.
+ */
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    // Presupuesto total de memoria (cuerpos y cabeceras de todas las entradas)
+    private DataSize maxBytes = DataSize.ofMegabytes(32);
+
+    // Las respuestas más grandes se entregan sin cachear
+    private DataSize maxEntryBytes = DataSize.ofMegabytes(1);
+
+    // Tiempo máximo de la petición de revalidación en segundo plano
+    private Duration revalidateTimeout = Duration.ofSeconds(10);
+
+    // Nombre de la regla -> prefijo y TTL (gana el prefijo más largo)
+    private Map<String, Route> routes = new LinkedHashMap<>(Map.of("catalog", new Route("/api/products")));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(DataSize maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public DataSize getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public void setMaxEntryBytes(DataSize maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    public Duration getRevalidateTimeout() {
+        return revalidateTimeout;
+    }
+
+    public void setRevalidateTimeout(Duration revalidateTimeout) {
+        this.revalidateTimeout = revalidateTimeout;
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    public static class Route {
+
+        private String pathPrefix;
+
+        // Vida de la entrada; un max-age/s-maxage menor del servicio destino tiene prioridad
+        private Duration ttl = Duration.ofSeconds(30);
+
+        // Ventana tras expirar en la que se sirve la copia vieja mientras se refresca en segundo plano
+        private Duration staleWhileRevalidate = Duration.ofSeconds(60);
+
+        public Route() {
+        }
+
+        public Route(String pathPrefix) {
+            this.pathPrefix = pathPrefix;
+        }
+
+        public String getPathPrefix() {
+            return pathPrefix;
+        }
+
+        public void setPathPrefix(String pathPrefix) {
+            this.pathPrefix = pathPrefix;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+    }
+}
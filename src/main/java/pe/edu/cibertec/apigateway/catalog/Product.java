@@ -0,0 +1,9 @@
+package pe.edu.cibertec.apigateway.catalog;
+
+/**
+ * Producto del catálogo público; el orden de los componentes es el orden de
+ * los campos en el JSON.
+ */
+public record Product(int id, String nombre, double precio, String descripcion, String categoria, int stock,
+        String imagen) {
+}
@@ -0,0 +1,124 @@
+package pe.edu.cibertec.apigateway.catalog;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Catálogo indexado por id primitivo. Cada producto y el listado completo se
+ * serializan al publicar los datos, no al responder; un cambio publica una
+ * instantánea nueva y reutiliza los cuerpos de los productos que no cambiaron.
+ * Las lecturas no toman locks: leen la instantánea vigente y buscan el id por
+ * búsqueda binaria sobre un {@code int[]} ordenado.
+ */
+public class ProductCatalog {
+
+    private final ObjectMapper mapper;
+    private volatile Snapshot snapshot;
+
+    public ProductCatalog(ObjectMapper mapper, Collection<Product> products) {
+        this.mapper = mapper;
+        this.snapshot = build(products.toArray(Product[]::new), null);
+    }
+
+    /** Cuerpo del listado completo, en orden de id. */
+    public SerializedBody listing() {
+        return snapshot.listing;
+    }
+
+    /** Cuerpo del producto o {@code null} si no existe. */
+    public SerializedBody body(long id) {
+        Snapshot current = snapshot;
+        int index = current.indexOf(id);
+        return index < 0 ? null : current.bodies[index];
+    }
+
+    public Product product(long id) {
+        Snapshot current = snapshot;
+        int index = current.indexOf(id);
+        return index < 0 ? null : current.products[index];
+    }
+
+    public List<Product> products() {
+        return List.of(snapshot.products);
+    }
+
+    /**
+     * Hasta {@code limit} productos con id mayor que {@code afterId}, en orden
+     * de id. Es una vista sobre la instantánea vigente: O(log n) sin copiar.
+     */
+    public List<Product> page(long afterId, int limit) {
+        Snapshot current = snapshot;
+        int from;
+        if (afterId < Integer.MIN_VALUE) {
+            from = 0;
+        } else if (afterId >= Integer.MAX_VALUE) {
+            from = current.ids.length;
+        } else {
+            int position = Arrays.binarySearch(current.ids, (int) afterId);
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+        int to = (int) Math.min(current.ids.length, (long) from + limit);
+        return Collections.unmodifiableList(Arrays.asList(current.products).subList(from, to));
+    }
+
+    /** Reemplaza el catálogo completo. */
+    public synchronized void replaceAll(Collection<Product> products) {
+        snapshot = build(products.toArray(Product[]::new), snapshot);
+    }
+
+    /** Inserta o actualiza un producto; solo se vuelven a serializar ese producto y el listado. */
+    public synchronized void upsert(Product product) {
+        Snapshot current = snapshot;
+        int index = current.indexOf(product.id());
+        Product[] products;
+        if (index >= 0) {
+            products = current.products.clone();
+            products[index] = product;
+        } else {
+            products = Arrays.copyOf(current.products, current.products.length + 1);
+            products[products.length - 1] = product;
+        }
+        snapshot = build(products, current);
+    }
+
+    private Snapshot build(Product[] products, Snapshot previous) {
+        Arrays.sort(products, Comparator.comparingInt(Product::id));
+        int[] ids = new int[products.length];
+        SerializedBody[] bodies = new SerializedBody[products.length];
+        for (int i = 0; i < products.length; i++) {
+            if (i > 0 && products[i].id() == ids[i - 1]) {
+                throw new IllegalArgumentException("Id de producto duplicado: " + products[i].id());
+            }
+            ids[i] = products[i].id();
+            int reused = previous != null ? previous.indexOf(ids[i]) : -1;
+            bodies[i] = reused >= 0 && previous.products[reused].equals(products[i])
+                    ? previous.bodies[reused]
+                    : serialize(products[i]);
+        }
+        return new Snapshot(ids, products, bodies, serialize(products));
+    }
+
+    private SerializedBody serialize(Object value) {
+        try {
+            return new SerializedBody(mapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo", e);
+        }
+    }
+
+    private record Snapshot(int[] ids, Product[] products, SerializedBody[] bodies, SerializedBody listing) {
+
+        int indexOf(long id) {
+            if (id < Integer.MIN_VALUE || id > Integer.MAX_VALUE) {
+                return -1;
+            }
+            return Arrays.binarySearch(ids, (int) id);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package pe.edu.cibertec.apigateway.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+/**
+ * Cuerpo JSON serializado una sola vez, con su variante gzip y un ETag fuerte
+ * por representación. Los bytes viven en buffers de solo lectura compartidos:
+ * cada respuesta recibe una vista propia sin copiar el contenido.
+ */
+public final class SerializedBody {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final ByteBuffer identity;
+    // null cuando comprimir no reduce el tamaño
+    private final ByteBuffer gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    SerializedBody(byte[] json) {
+        this.identity = ByteBuffer.wrap(json).asReadOnlyBuffer();
+        byte[] compressed = gzip(json);
+        this.gzip = compressed.length < json.length ? ByteBuffer.wrap(compressed).asReadOnlyBuffer() : null;
+        String hash = hash(json);
+        this.etag = "\"" + hash + "\"";
+        this.gzipEtag = "\"" + hash + "-gz\"";
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    public int length() {
+        return identity.remaining();
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    public String gzipEtag() {
+        return gzipEtag;
+    }
+
+    public DataBuffer identity() {
+        return DefaultDataBufferFactory.sharedInstance.wrap(identity.duplicate());
+    }
+
+    public DataBuffer gzip() {
+        return DefaultDataBufferFactory.sharedInstance.wrap(gzip.duplicate());
+    }
+
+    /** {@code true} si {@code Accept-Encoding} admite gzip; una entrada gzip explícita gana a {@code *}. */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().toLowerCase(Locale.ROOT).split(";");
+            String name = parts[0].trim();
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                if (isZeroQuality(parts[i].trim())) {
+                    accepted = false;
+                }
+            }
+            if (name.equals("gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return wildcard;
+    }
+
+    // q=0, q=0.0, q=0.00...
+    private static boolean isZeroQuality(String parameter) {
+        if (!parameter.startsWith("q=") || parameter.length() == 2) {
+            return false;
+        }
+        for (int i = 2; i < parameter.length(); i++) {
+            char c = parameter.charAt(i);
+            if (c != '0' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String hash(byte[] json) {
+        try {
+            return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(json), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -1,36 +1,111 @@
 package pe.edu.cibertec.apigateway.config;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import pe.edu.cibertec.apigateway.filter.AdaptiveConcurrencyFilter;
+import pe.edu.cibertec.apigateway.filter.CoalescingFilter;
+import pe.edu.cibertec.apigateway.filter.HedgingFilter;
+import pe.edu.cibertec.apigateway.ratelimit.ClientKeyResolver;
+import pe.edu.cibertec.apigateway.ratelimit.LocalRateLimiter;
 
 @Configuration
 public class GatewayConfigStandalone {
 
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, CoalescingFilter coalescing,
+            @Value("${gateway.coalescing.vary-headers:Accept,Accept-Encoding,Accept-Language}") List<String> varyHeaders,
+            @Value("${gateway.coalescing.max-waiters:1000}") int maxWaiters,
+            @Value("${gateway.coalescing.max-body-size:1MB}") DataSize maxBodySize,
+            @Value("${gateway.circuit-breaker.status-codes:500,502,503,504}") Set<String> breakerStatusCodes,
+            AdaptiveConcurrencyFilter concurrency,
+            @Value("${gateway.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${gateway.concurrency-limit.min-limit:5}") int minLimit,
+            @Value("${gateway.concurrency-limit.max-limit:1000}") int maxLimit,
+            LocalRateLimiter rateLimiter, ClientKeyResolver rateLimitKey,
+            HedgingFilter hedging,
+            @Value("${gateway.hedging.percentile:95}") double hedgePercentile,
+            @Value("${gateway.hedging.budget-percent:10}") double hedgeBudgetPercent,
+            @Value("${gateway.hedging.max-delay:1s}") Duration hedgeMaxDelay) {
         return builder.routes()
                 // Ruta de prueba simple (para debugging)
                 .route("test-route", r -> r
                         .path("/test")
                         .uri("http://httpbin.org:80"))
 
-                // Ruta para Product Service (datos reales)
+                // Ruta para Product Service (datos reales); los GET idénticos concurrentes del mismo usuario se agrupan
+                // y solo el líder pasa por el circuit breaker. En las rutas lb:// el rate limit por
+                // usuario (o IP) va primero: es el rechazo más barato. El hedging va al final porque hace
+                // él mismo la llamada al servicio
                 .route("product-service", r -> r
                         .path("/product/**")
+                        .filters(f -> f
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(rateLimitKey))
+                                .filter(coalescing.apply(c -> {
+                                    c.setVaryHeaders(varyHeaders);
+                                    c.setMaxWaiters(maxWaiters);
+                                    c.setMaxBodySize(maxBodySize);
+                                }))
+                                .filter(concurrency.apply(concurrencyLimit("product-service", "product",
+                                        initialLimit, minLimit, maxLimit)))
+                                .circuitBreaker(c -> c
+                                        .setName("product-service")
+                                        .setFallbackUri("forward:/fallback/product")
+                                        .setStatusCodes(breakerStatusCodes))
+                                .filter(hedging.apply(c -> {
+                                    c.setRouteId("product-service");
+                                    c.setPercentile(hedgePercentile);
+                                    c.setBudgetPercent(hedgeBudgetPercent);
+                                    c.setMaxDelay(hedgeMaxDelay);
+                                })))
                         .uri("lb://product-service"))
 
                 // Ruta para User Service (autenticación real)
                 .route("user-service", r -> r
                         .path("/user/**")
+                        .filters(f -> f
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(rateLimitKey))
+                                .filter(concurrency.apply(concurrencyLimit("user-service", "user",
+                                        initialLimit, minLimit, maxLimit)))
+                                .circuitBreaker(c -> c
+                                        .setName("user-service")
+                                        .setFallbackUri("forward:/fallback/user")
+                                        .setStatusCodes(breakerStatusCodes)))
                         .uri("lb://user-service"))
 
                 // Ruta para Order Service
                 .route("order-service", r -> r
                         .path("/order/**")
+                        .filters(f -> f
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(rateLimitKey))
+                                .filter(concurrency.apply(concurrencyLimit("order-service", "order",
+                                        initialLimit, minLimit, maxLimit)))
+                                .circuitBreaker(c -> c
+                                        .setName("order-service")
+                                        .setFallbackUri("forward:/fallback/order")
+                                        .setStatusCodes(breakerStatusCodes)))
                         .uri("lb://order-service"))
                 
                 .build();
     }
+
+    // Límite de concurrencia adaptativo; lo que lo supera recibe el fallback del servicio
+    private static AdaptiveConcurrencyFilter.Config concurrencyLimit(String routeId, String fallback,
+            int initialLimit, int minLimit, int maxLimit) {
+        AdaptiveConcurrencyFilter.Config config = new AdaptiveConcurrencyFilter.Config();
+        config.setRouteId(routeId);
+        config.setInitialLimit(initialLimit);
+        config.setMinLimit(minLimit);
+        config.setMaxLimit(maxLimit);
+        config.setFallbackUri("forward:/fallback/" + fallback);
+        return config;
+    }
 }
@@ -0,0 +1,19 @@
+package pe.edu.cibertec.apigateway.config;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+import pe.edu.cibertec.apigateway.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import pe.edu.cibertec.apigateway.loadbalancer.RegistrySnapshotConfiguration;
+
+/**
+ * Configuración de Spring Cloud LoadBalancer para todos los servicios
+ * {@code lb://} (product-service, user-service, order-service):
+ * {@code PeakEwmaLoadBalancer} en lugar del round-robin por defecto y listas
+ * de instancias respaldadas por el snapshot local del registro.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = { RegistrySnapshotConfiguration.class,
+        PeakEwmaLoadBalancerConfiguration.class })
+public class LoadBalancerConfig {
+}
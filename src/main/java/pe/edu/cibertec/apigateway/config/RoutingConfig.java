@@ -0,0 +1,29 @@
+package pe.edu.cibertec.apigateway.config;
+
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import pe.edu.cibertec.apigateway.routing.FileRouteSource;
+import pe.edu.cibertec.apigateway.routing.RouteTableHandlerMapping;
+
+/**
+ * Sustituye el handler mapping del gateway para consultar primero la tabla de
+ * rutas del archivo ({@code gateway.routes.file}); sin archivo se comporta
+ * igual que el original.
+ */
+@Configuration
+public class RoutingConfig {
+
+    @Bean
+    public RoutePredicateHandlerMapping routePredicateHandlerMapping(FilteringWebHandler webHandler,
+            RouteLocator routeLocator, GlobalCorsProperties globalCorsProperties, Environment environment,
+            FileRouteSource fileRouteSource) {
+        return new RouteTableHandlerMapping(webHandler, routeLocator, globalCorsProperties, environment,
+                fileRouteSource);
+    }
+}
@@ -7,27 +7,49 @@ import org.springframework.security.config.annotation.web.reactive.EnableWebFlux
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
-import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher.MatchResult;
+import org.springframework.web.server.ServerWebExchange;
+import pe.edu.cibertec.apigateway.diagnostics.RequestLog;
 import pe.edu.cibertec.apigateway.filter.JwtAuthenticationFilter;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import pe.edu.cibertec.apigateway.security.JwtVerificationExecutor;
+import pe.edu.cibertec.apigateway.security.PublicPathMatcher;
+import pe.edu.cibertec.apigateway.security.SigningKeyRing;
+import pe.edu.cibertec.apigateway.security.TokenRejectionTracker;
+import pe.edu.cibertec.apigateway.security.TokenRevocationList;
+import pe.edu.cibertec.apigateway.security.VerifiedTokenCache;
+import reactor.core.publisher.Mono;
 
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
     @Autowired
-    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    private PublicPathMatcher publicPathMatcher;
 
+    // El filtro JWT se crea aquí y no como bean: todo WebFilter del contexto se registra
+    // además en la cadena de WebFlux y se ejecutaría dos veces por petición
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, SigningKeyRing keyRing,
+            VerifiedTokenCache tokenCache, JwtVerificationExecutor verificationExecutor,
+            TokenRejectionTracker rejections, TokenRevocationList revocations, LatencyRecorder latency,
+            RequestLog requestLog) {
+        JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(keyRing, tokenCache,
+                verificationExecutor, rejections, publicPathMatcher, revocations, latency, requestLog);
         return http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .authorizeExchange(exchange -> exchange
-                        .pathMatchers("/api/auth/**").permitAll()
-                        .pathMatchers("/api/usuarios/**").permitAll()
-                        .pathMatchers("/api/products/**").permitAll()
-                        .pathMatchers("/api/orders/**").permitAll()
-                        .anyExchange().permitAll())
+                        // Misma tabla de rutas que usa JwtAuthenticationFilter: lo que no es público ni de
+                        // autenticación opcional exige la identidad que el filtro deja en el contexto
+                        .matchers(this::isPublicPath).permitAll()
+                        .anyExchange().authenticated())
                 .addFilterAt(jwtAuthenticationFilter, SecurityWebFiltersOrder.FIRST)
                 .build();
     }
+
+    private Mono<MatchResult> isPublicPath(ServerWebExchange exchange) {
+        return publicPathMatcher.access(exchange.getRequest().getPath().value()) != PublicPathMatcher.Access.PROTECTED
+                ? MatchResult.match()
+                : MatchResult.notMatch();
+    }
 }
@@ -0,0 +1,16 @@
+package pe.edu.cibertec.apigateway.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipalArgumentResolver;
+
+@Configuration
+public class WebFluxConfig implements WebFluxConfigurer {
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new VerifiedPrincipalArgumentResolver());
+    }
+}
@@ -0,0 +1,82 @@
+package pe.edu.cibertec.apigateway.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Paginación por cursor opaco para los listados en streaming NDJSON. El
+ * cursor codifica el último id entregado y los listados se ordenan por id,
+ * así que una página no repite ni salta elementos aunque cambien los datos.
+ * La página siguiente se anuncia en {@code X-Next-Cursor} y en
+ * {@code Link: <...>; rel="next"}; sin esas cabeceras no hay más páginas.
+ */
+final class CursorPagination {
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Sin cursor se empieza por el id más bajo
+    static final long START = Long.MIN_VALUE;
+
+    private static final String PREFIX = "id:";
+
+    private CursorPagination() {
+    }
+
+    /** Último id entregado según el cursor, {@link #START} sin cursor o {@code null} si es inválido. */
+    static Long after(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return decoded.startsWith(PREFIX) ? Long.parseLong(decoded.substring(PREFIX.length())) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(MAX_LIMIT, requested));
+    }
+
+    static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Responde la página en NDJSON. {@code window} trae hasta {@code limit + 1}
+     * elementos: el sobrante solo indica que existe una página siguiente.
+     */
+    static <T> ResponseEntity<Flux<T>> ndjson(ServerHttpRequest request, List<T> window, int limit,
+            ToLongFunction<T> id) {
+        boolean more = window.size() > limit;
+        List<T> page = more ? window.subList(0, limit) : window;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (more) {
+            String next = encode(id.applyAsLong(page.get(page.size() - 1)));
+            String link = UriComponentsBuilder.fromPath(request.getURI().getRawPath())
+                    .query(request.getURI().getRawQuery())
+                    .replaceQueryParam("cursor", next)
+                    .build(true)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, next)
+                    .header(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return response.body(Flux.fromIterable(page));
+    }
+}
@@ -1,41 +1,82 @@
 package pe.edu.cibertec.apigateway.controller;
 
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.PutMapping;
-import org.springframework.web.bind.annotation.DeleteMapping;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import reactor.core.publisher.Mono;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import pe.edu.cibertec.apigateway.filter.AdaptiveConcurrencyFilter.ConcurrencyLimitExceededException;
 
+/**
+ * Respuestas de los filtros CircuitBreaker y AdaptiveConcurrencyFilter de las
+ * rutas (forward:/fallback/*).
+ * Sin método en el mapeo: el forward conserva el método de la petición
+ * original. Los cuerpos se serializan una sola vez.
+ */
 @RestController
 @RequestMapping("/fallback")
 public class FallbackController {
 
-    @GetMapping("/user")
-    @PostMapping("/user")
-    @PutMapping("/user")
-    @DeleteMapping("/user")
-    public Mono<String> userServiceFallback() {
-        return Mono.just("{\"error\":\"User service is temporarily unavailable\",\"status\":503,\"timestamp\":\"" + 
-                         System.currentTimeMillis() + "\",\"message\":\"Please try again later\"}");
+    /** Motivo del fallback: circuit-open, bulkhead-full, concurrency-limit, timeout o error. */
+    public static final String FALLBACK_REASON_HEADER = "X-Fallback-Reason";
+
+    private static final byte[] USER = body("User");
+    private static final byte[] PRODUCT = body("Product");
+    private static final byte[] ORDER = body("Order");
+
+    @RequestMapping("/user")
+    public ResponseEntity<DataBuffer> userServiceFallback(ServerWebExchange exchange) {
+        return fallback(USER, exchange);
+    }
+
+    @RequestMapping("/product")
+    public ResponseEntity<DataBuffer> productServiceFallback(ServerWebExchange exchange) {
+        return fallback(PRODUCT, exchange);
+    }
+
+    @RequestMapping("/order")
+    public ResponseEntity<DataBuffer> orderServiceFallback(ServerWebExchange exchange) {
+        return fallback(ORDER, exchange);
+    }
+
+    private static ResponseEntity<DataBuffer> fallback(byte[] body, ServerWebExchange exchange) {
+        Throwable cause = exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .header(FALLBACK_REASON_HEADER, reason(cause))
+                .body(DefaultDataBufferFactory.sharedInstance.wrap(body));
     }
 
-    @GetMapping("/product")
-    @PostMapping("/product")
-    @PutMapping("/product")
-    @DeleteMapping("/product")
-    public Mono<String> productServiceFallback() {
-        return Mono.just("{\"error\":\"Product service is temporarily unavailable\",\"status\":503,\"timestamp\":\"" + 
-                         System.currentTimeMillis() + "\",\"message\":\"Please try again later\"}");
+    static String reason(Throwable cause) {
+        if (cause instanceof CallNotPermittedException) {
+            return "circuit-open";
+        }
+        if (cause instanceof BulkheadFullException) {
+            return "bulkhead-full";
+        }
+        if (cause instanceof ConcurrencyLimitExceededException) {
+            return "concurrency-limit";
+        }
+        if (cause instanceof TimeoutException) {
+            return "timeout";
+        }
+        return "error";
     }
 
-    @GetMapping("/order")
-    @PostMapping("/order")
-    @PutMapping("/order")
-    @DeleteMapping("/order")
-    public Mono<String> orderServiceFallback() {
-        return Mono.just("{\"error\":\"Order service is temporarily unavailable\",\"status\":503,\"timestamp\":\"" + 
-                         System.currentTimeMillis() + "\",\"message\":\"Please try again later\"}");
+    private static byte[] body(String service) {
+        return ("{\"error\":\"" + service + " service is temporarily unavailable\",\"status\":503,"
+                + "\"message\":\"Please try again later\"}").getBytes(StandardCharsets.UTF_8);
     }
 }
@@ -1,37 +1,48 @@
 package pe.edu.cibertec.apigateway.controller;
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
-import javax.crypto.SecretKey;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import pe.edu.cibertec.apigateway.security.SigningKeyRing;
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/auth")
-@CrossOrigin(origins = "*")
 public class MockAuthController {
 
-    @Value("${jwt.secret:MiClaveSecretaSuperSeguraParaJWTEnMicroserviciosQueDebeSerMuyLarga}")
-    private String jwtSecret;
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Productos mock, en orden de id
+    private static final List<Map<String, Object>> PRODUCTS = List.of(
+        Map.of("id", 12, "name", "Laptop X", "description", "Laptop de alta performance", "price", 2499, "portada", "laptop.jpg", "stock", 25),
+        Map.of("id", 33, "name", "Mouse Óptico", "description", "Mouse ergonómico inalámbrico", "price", 59, "portada", "mouse.jpg", "stock", 100),
+        Map.of("id", 45, "name", "Teclado Mecánico", "description", "Teclado gaming RGB", "price", 189, "portada", "keyboard.jpg", "stock", 50),
+        Map.of("id", 67, "name", "Monitor 24\"", "description", "Monitor Full HD IPS", "price", 799, "portada", "monitor.jpg", "stock", 15),
+        Map.of("id", 89, "name", "Webcam HD", "description", "Cámara web 1080p", "price", 129, "portada", "webcam.jpg", "stock", 75)
+    );
+
+    private final SigningKeyRing keyRing;
+    private final Duration tokenLifetime;
+
+    public MockAuthController(SigningKeyRing keyRing, @Value("${jwt.expiration:24h}") Duration tokenLifetime) {
+        this.keyRing = keyRing;
+        this.tokenLifetime = tokenLifetime;
     }
 
     @PostMapping("/login")
@@ -39,12 +50,15 @@ public class MockAuthController {
         // Validar credenciales mock (para demo)
         if ("admin@admin.com".equals(request.getEmail()) && "123456".equals(request.getPassword())) {
             
-            // Generar JWT token
+            // Generar JWT token con la clave activa del anillo
+            SigningKeyRing.KeyEntry signingKey = keyRing.signingKey();
             String token = Jwts.builder()
+                    .header().keyId(signingKey.kid()).and()
+                    .id(UUID.randomUUID().toString()) // jti para poder revocarlo
                     .subject(request.getEmail())
                     .issuedAt(new Date())
-                    .expiration(new Date(System.currentTimeMillis() + 86400000)) // 24 horas
-                    .signWith(getSigningKey())
+                    .expiration(new Date(System.currentTimeMillis() + tokenLifetime.toMillis()))
+                    .signWith(signingKey.key())
                     .compact();
 
             // Crear respuesta mock
@@ -92,36 +106,40 @@ public class MockAuthController {
     }
 
     @GetMapping("/validate")
-    public ResponseEntity<Map<String, Object>> validateToken(@RequestHeader("Authorization") String authorization) {
-        try {
-            String token = authorization.replace("Bearer ", "");
-            String email = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("valid", true);
-            response.put("email", email);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
+    public ResponseEntity<Map<String, Object>> validateToken(VerifiedPrincipal principal) {
+        // Ruta de autenticación opcional: el filtro solo publica la identidad si el token es válido
+        if (principal == null) {
             return ResponseEntity.status(401).body(Map.of("valid", false, "message", "Token inválido"));
         }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("valid", true);
+        response.put("email", principal.subject());
+        return ResponseEntity.ok(response);
     }
 
     // Endpoints de Productos (públicos - sin autenticación)
     @GetMapping("/products")
     public ResponseEntity<List<Map<String, Object>>> getProducts() {
-        List<Map<String, Object>> products = List.of(
-            Map.of("id", 12, "name", "Laptop X", "description", "Laptop de alta performance", "price", 2499, "portada", "laptop.jpg", "stock", 25),
-            Map.of("id", 33, "name", "Mouse Óptico", "description", "Mouse ergonómico inalámbrico", "price", 59, "portada", "mouse.jpg", "stock", 100),
-            Map.of("id", 45, "name", "Teclado Mecánico", "description", "Teclado gaming RGB", "price", 189, "portada", "keyboard.jpg", "stock", 50),
-            Map.of("id", 67, "name", "Monitor 24\"", "description", "Monitor Full HD IPS", "price", 799, "portada", "monitor.jpg", "stock", 15),
-            Map.of("id", 89, "name", "Webcam HD", "description", "Cámara web 1080p", "price", 129, "portada", "webcam.jpg", "stock", 75)
-        );
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok(PRODUCTS);
+    }
+
+    // Listado en streaming NDJSON, paginado por cursor (?cursor=...&limit=...)
+    @GetMapping(value = "/products/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<Map<String, Object>>> streamProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            ServerHttpRequest request) {
+        Long after = CursorPagination.after(cursor);
+        if (after == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = CursorPagination.limit(limit);
+        List<Map<String, Object>> window = PRODUCTS.stream()
+                .filter(product -> ((Number) product.get("id")).longValue() > after)
+                .limit(pageSize + 1L)
+                .toList();
+        return CursorPagination.ndjson(request, window, pageSize, product -> ((Number) product.get("id")).longValue());
     }
 
     @GetMapping("/products/{id}")
@@ -144,28 +162,24 @@ public class MockAuthController {
 
     // Endpoints de Órdenes (requieren autenticación)
     @GetMapping("/orders/user/{userId}")
-    public ResponseEntity<List<Map<String, Object>>> getOrdersByUser(@PathVariable int userId, @RequestHeader("Authorization") String authorization) {
-        try {
-            // Validar token
-            String token = authorization.replace("Bearer ", "");
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token);
-
-            // Órdenes mock para el usuario
-            List<Map<String, Object>> orders = List.of(
-                Map.of("id", 101, "orderDate", "2025-08-25T15:43:10.123", "userId", userId,
-                       "items", List.of(
-                           Map.of("id", 1, "productId", 12, "productName", "Laptop X", "productPrice", 2499, "quantity", 1),
-                           Map.of("id", 2, "productId", 33, "productName", "Mouse Óptico", "productPrice", 59, "quantity", 2)
-                       )),
-                Map.of("id", 102, "orderDate", "2025-08-20T10:30:45.456", "userId", userId,
-                       "items", List.of(
-                           Map.of("id", 3, "productId", 45, "productName", "Teclado Mecánico", "productPrice", 189, "quantity", 1)
-                       ))
-            );
-            return ResponseEntity.ok(orders);
-        } catch (Exception e) {
+    public ResponseEntity<List<Map<String, Object>>> getOrdersByUser(@PathVariable int userId, VerifiedPrincipal principal) {
+        if (principal == null) {
             return ResponseEntity.status(401).body(null);
         }
+
+        // Órdenes mock para el usuario
+        List<Map<String, Object>> orders = List.of(
+            Map.of("id", 101, "orderDate", "2025-08-25T15:43:10.123", "userId", userId,
+                   "items", List.of(
+                       Map.of("id", 1, "productId", 12, "productName", "Laptop X", "productPrice", 2499, "quantity", 1),
+                       Map.of("id", 2, "productId", 33, "productName", "Mouse Óptico", "productPrice", 59, "quantity", 2)
+                   )),
+            Map.of("id", 102, "orderDate", "2025-08-20T10:30:45.456", "userId", userId,
+                   "items", List.of(
+                       Map.of("id", 3, "productId", 45, "productName", "Teclado Mecánico", "productPrice", 189, "quantity", 1)
+                   ))
+        );
+        return ResponseEntity.ok(orders);
     }
 
     // Clases internas para los requests
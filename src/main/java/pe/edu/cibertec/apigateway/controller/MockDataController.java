@@ -5,99 +5,134 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import pe.edu.cibertec.apigateway.catalog.Product;
+import pe.edu.cibertec.apigateway.catalog.ProductCatalog;
+import pe.edu.cibertec.apigateway.catalog.SerializedBody;
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+import reactor.core.publisher.Flux;
+
 @RestController
-@CrossOrigin(origins = "*")
 public class MockDataController {
 
     // Mock data para productos
-    private static final List<Map<String, Object>> MOCK_PRODUCTS = Arrays.asList(
-        Map.of(
-            "id", 1,
-            "nombre", "iPhone 14 Pro",
-            "precio", 1299.99,
-            "descripcion", "Smartphone Apple con chip A16 Bionic",
-            "categoria", "Smartphones",
-            "stock", 25,
-            "imagen", "https://via.placeholder.com/300x300/007ACC/FFFFFF?text=iPhone+14"
-        ),
-        Map.of(
-            "id", 2,
-            "nombre", "Samsung Galaxy S23",
-            "precio", 899.99,
-            "descripcion", "Smartphone Samsung con cámara de 200MP",
-            "categoria", "Smartphones", 
-            "stock", 15,
-            "imagen", "https://via.placeholder.com/300x300/FF6B35/FFFFFF?text=Galaxy+S23"
-        ),
-        Map.of(
-            "id", 3,
-            "nombre", "MacBook Pro M2",
-            "precio", 1999.99,
-            "descripcion", "Laptop Apple con chip M2 de alto rendimiento",
-            "categoria", "Laptops",
-            "stock", 10,
-            "imagen", "https://via.placeholder.com/300x300/28A745/FFFFFF?text=MacBook+Pro"
-        ),
-        Map.of(
-            "id", 4,
-            "nombre", "Dell XPS 13",
-            "precio", 1299.99,
-            "descripcion", "Laptop ultrabook con pantalla InfinityEdge",
-            "categoria", "Laptops",
-            "stock", 8,
-            "imagen", "https://via.placeholder.com/300x300/6C757D/FFFFFF?text=Dell+XPS"
-        ),
-        Map.of(
-            "id", 5,
-            "nombre", "AirPods Pro",
-            "precio", 249.99,
-            "descripcion", "Audífonos inalámbricos con cancelación de ruido",
-            "categoria", "Accesorios",
-            "stock", 50,
-            "imagen", "https://via.placeholder.com/300x300/DC3545/FFFFFF?text=AirPods+Pro"
-        )
+    private static final List<Product> MOCK_PRODUCTS = List.of(
+        new Product(1, "iPhone 14 Pro", 1299.99, "Smartphone Apple con chip A16 Bionic", "Smartphones", 25,
+            "https://via.placeholder.com/300x300/007ACC/FFFFFF?text=iPhone+14"),
+        new Product(2, "Samsung Galaxy S23", 899.99, "Smartphone Samsung con cámara de 200MP", "Smartphones", 15,
+            "https://via.placeholder.com/300x300/FF6B35/FFFFFF?text=Galaxy+S23"),
+        new Product(3, "MacBook Pro M2", 1999.99, "Laptop Apple con chip M2 de alto rendimiento", "Laptops", 10,
+            "https://via.placeholder.com/300x300/28A745/FFFFFF?text=MacBook+Pro"),
+        new Product(4, "Dell XPS 13", 1299.99, "Laptop ultrabook con pantalla InfinityEdge", "Laptops", 8,
+            "https://via.placeholder.com/300x300/6C757D/FFFFFF?text=Dell+XPS"),
+        new Product(5, "AirPods Pro", 249.99, "Audífonos inalámbricos con cancelación de ruido", "Accesorios", 50,
+            "https://via.placeholder.com/300x300/DC3545/FFFFFF?text=AirPods+Pro")
     );
 
+    // Listado y productos ya serializados (con variante gzip); se responden sin pasar por Jackson
+    private final ProductCatalog catalog;
+
+    public MockDataController(ObjectMapper mapper) {
+        this.catalog = new ProductCatalog(mapper, MOCK_PRODUCTS);
+    }
+
     // Endpoints de productos (públicos)
     @GetMapping("/api/products")
-    public ResponseEntity<List<Map<String, Object>>> getAllProducts() {
-        return ResponseEntity.ok(MOCK_PRODUCTS);
+    public ResponseEntity<DataBuffer> getAllProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serialized(catalog.listing(), acceptEncoding);
     }
 
     @GetMapping("/api/products/{id}")
-    public ResponseEntity<Map<String, Object>> getProductById(@PathVariable Long id) {
-        Optional<Map<String, Object>> product = MOCK_PRODUCTS.stream()
-                .filter(p -> p.get("id").equals(id.intValue()))
-                .findFirst();
-        
-        if (product.isPresent()) {
-            return ResponseEntity.ok(product.get());
+    public ResponseEntity<DataBuffer> getProductById(
+            @PathVariable long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        SerializedBody product = catalog.body(id);
+        if (product == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return serialized(product, acceptEncoding);
+    }
+
+    // Listado en streaming NDJSON, paginado por cursor (?cursor=...&limit=...)
+    @GetMapping(value = "/api/products/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<Product>> streamProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            ServerHttpRequest request) {
+        Long after = CursorPagination.after(cursor);
+        if (after == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = CursorPagination.limit(limit);
+        return CursorPagination.ndjson(request, catalog.page(after, pageSize + 1), pageSize, Product::id);
+    }
+
+    // Con ETag en la respuesta WebFlux contesta 304 a un If-None-Match coincidente
+    private static ResponseEntity<DataBuffer> serialized(SerializedBody body, String acceptEncoding) {
+        boolean gzip = body.hasGzip() && SerializedBody.acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(gzip ? body.gzipEtag() : body.etag());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
-        return ResponseEntity.notFound().build();
+        return response.body(gzip ? body.gzip() : body.identity());
     }
 
     // Endpoints de órdenes (requieren autenticación)
     @GetMapping("/api/orders/user/{userId}")
     public ResponseEntity<List<Map<String, Object>>> getUserOrders(
             @PathVariable Long userId,
-            @RequestHeader(value = "Authorization", required = false) String authorization) {
+            VerifiedPrincipal principal) {
         
-        // Verificar que hay token (validación básica)
-        if (authorization == null || !authorization.startsWith("Bearer ")) {
+        // Identidad verificada por JwtAuthenticationFilter
+        if (principal == null) {
             return ResponseEntity.status(401).body(null);
         }
 
-        // Mock data de órdenes para el usuario
-        List<Map<String, Object>> orders = Arrays.asList(
+        return ResponseEntity.ok(mockOrders(userId));
+    }
+
+    @GetMapping(value = "/api/orders/user/{userId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<Map<String, Object>>> streamUserOrders(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            VerifiedPrincipal principal,
+            ServerHttpRequest request) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+        Long after = CursorPagination.after(cursor);
+        if (after == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = CursorPagination.limit(limit);
+        List<Map<String, Object>> window = mockOrders(userId).stream()
+                .filter(order -> orderId(order) > after)
+                .limit(pageSize + 1L)
+                .toList();
+        return CursorPagination.ndjson(request, window, pageSize, MockDataController::orderId);
+    }
+
+    // Mock data de órdenes para el usuario, en orden de id
+    private static List<Map<String, Object>> mockOrders(Long userId) {
+        return Arrays.asList(
             Map.of(
                 "id", 1,
                 "userId", userId,
@@ -120,8 +155,10 @@ public class MockDataController {
                 )
             )
         );
+    }
 
-        return ResponseEntity.ok(orders);
+    private static long orderId(Map<String, Object> order) {
+        return ((Number) order.get("id")).longValue();
     }
 
     // Endpoint de salud para verificar que el servicio funciona
@@ -0,0 +1,80 @@
+package pe.edu.cibertec.apigateway.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import pe.edu.cibertec.apigateway.security.TokenRevocationList;
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+
+@RestController
+@RequestMapping("/api/admin/revocations")
+public class RevocationController {
+
+    private final TokenRevocationList revocations;
+    private final List<String> adminSubjects;
+
+    public RevocationController(TokenRevocationList revocations,
+            @Value("${gateway.admin.subjects:admin@admin.com}") List<String> adminSubjects) {
+        this.revocations = revocations;
+        this.adminSubjects = adminSubjects;
+    }
+
+    // Ruta protegida: JwtAuthenticationFilter ya verificó el token y publicó la identidad
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> revoke(@RequestBody RevocationRequest request,
+            VerifiedPrincipal principal) {
+        if (principal == null || !adminSubjects.contains(principal.subject())) {
+            return ResponseEntity.status(403).body(Map.of("message", "Solo un administrador puede revocar tokens"));
+        }
+        if (isBlank(request.getJti()) && isBlank(request.getSubject())) {
+            return ResponseEntity.status(400).body(Map.of("message", "Debe indicar jti o subject"));
+        }
+
+        try {
+            if (!isBlank(request.getJti())) {
+                revocations.revokeId(request.getJti(), request.getExpiresAt());
+            }
+            if (!isBlank(request.getSubject())) {
+                revocations.revokeSubject(request.getSubject());
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(Map.of("message", e.getMessage()));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("revoked", true);
+        response.put("jti", request.getJti());
+        response.put("subject", request.getSubject());
+        response.put("entries", revocations.size());
+        return ResponseEntity.ok(response);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    public static class RevocationRequest {
+        private String jti;
+        private String subject;
+        // Epoch en milisegundos; si falta se asume la vida máxima del token
+        private Long expiresAt;
+
+        // Getters y setters
+        public String getJti() { return jti; }
+        public void setJti(String jti) { this.jti = jti; }
+
+        public String getSubject() { return subject; }
+        public void setSubject(String subject) { this.subject = subject; }
+
+        public Long getExpiresAt() { return expiresAt; }
+        public void setExpiresAt(Long expiresAt) { this.expiresAt = expiresAt; }
+    }
+}
@@ -0,0 +1,96 @@
+package pe.edu.cibertec.apigateway.cors;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import pe.edu.cibertec.apigateway.metrics.LatencyHistogram;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import pe.edu.cibertec.apigateway.metrics.StageTimer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Único punto de CORS del gateway. Corre como WebFilter, antes de Spring
+ * Security, para cubrir tanto las rutas hacia microservicios como los
+ * controladores locales.
+ * <ul>
+ * <li>Preflight: se responde aquí con la decisión cacheada de {@link CorsPolicy}.</li>
+ * <li>Petición con {@code Origin}: justo antes de enviar las cabeceras se
+ * descartan las cabeceras CORS del servicio destino y se escriben las de la
+ * política, sin decorar la respuesta.</li>
+ * <li>Petición sin {@code Origin}: pasa sin ningún trabajo extra.</li>
+ * </ul>
+ */
+@Component
+public class CorsGlobalFilter implements WebFilter, Ordered {
+
+    private final CorsPolicy policy;
+    private final LatencyRecorder latency;
+    private final LatencyHistogram stageLatency;
+
+    public CorsGlobalFilter(CorsPolicy policy, LatencyRecorder latency) {
+        this.policy = policy;
+        this.latency = latency;
+        this.stageLatency = latency.stage(LatencyRecorder.STAGE_CORS);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String origin = exchange.getRequest().getHeaders().getOrigin();
+        if (origin == null) {
+            return chain.filter(exchange);
+        }
+        StageTimer timer = latency.start(stageLatency);
+        if (timer == null) {
+            return applyCors(exchange, chain, origin);
+        }
+        return applyCors(exchange, timer.wrap(chain), origin).doFinally(signal -> timer.stop());
+    }
+
+    private Mono<Void> applyCors(ServerWebExchange exchange, WebFilterChain chain, String origin) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders requestHeaders = request.getHeaders();
+
+        String requestedMethod = requestHeaders.getFirst(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD);
+        if (request.getMethod() == HttpMethod.OPTIONS && requestedMethod != null) {
+            CorsPolicy.Preflight preflight = policy.preflight(origin, requestedMethod,
+                    requestHeaders.getFirst(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS));
+            if (preflight.allowed()) {
+                preflight.applyTo(response.getHeaders());
+                response.setStatusCode(HttpStatus.OK);
+            } else {
+                response.setStatusCode(HttpStatus.FORBIDDEN);
+            }
+            return response.setComplete();
+        }
+
+        boolean allowed = policy.isAllowedOrigin(origin);
+        response.beforeCommit(() -> {
+            HttpHeaders headers = response.getHeaders();
+            if (allowed) {
+                policy.applyResponseHeaders(origin, headers);
+            } else {
+                // Origen no permitido: tampoco valen las cabeceras CORS que envíe el servicio destino
+                for (String name : CorsPolicy.CORS_RESPONSE_HEADERS) {
+                    headers.remove(name);
+                }
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        // Justo después de RequestLogFilter y antes de Spring Security (-100)
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
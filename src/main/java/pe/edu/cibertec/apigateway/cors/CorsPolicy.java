@@ -0,0 +1,156 @@
+package pe.edu.cibertec.apigateway.cors;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Política CORS compilada a partir de {@link CorsProperties}: matcher de
+ * orígenes, bloques de cabeceras precalculados para preflight y para
+ * respuestas normales, y una caché de decisiones de preflight por
+ * (origen, método, cabeceras solicitadas).
+ */
+@Component
+public class CorsPolicy {
+
+    static final List<String> CORS_RESPONSE_HEADERS = List.of(
+            HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN,
+            HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS,
+            HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS,
+            HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS,
+            HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
+            HttpHeaders.ACCESS_CONTROL_MAX_AGE);
+
+    private static final Preflight REJECTED = new Preflight(false, null);
+
+    private final OriginMatcher origins;
+    private final Set<String> allowedMethods = new HashSet<>();
+    private final boolean anyHeader;
+    private final Set<String> allowedHeaders = new HashSet<>();
+    private final String allowedHeadersValue;
+    private final String allowMethodsValue;
+    private final String allowCredentialsValue;
+    private final String maxAgeValue;
+
+    // Parte fija de cada respuesta normal; Allow-Origin se copia del origen de la petición
+    private final HeaderBlock responseBlock;
+
+    private final ConcurrentHashMap<PreflightKey, Preflight> preflights = new ConcurrentHashMap<>();
+    private final int preflightCacheSize;
+
+    public CorsPolicy(CorsProperties properties) {
+        this.origins = new OriginMatcher(properties.getAllowedOrigins());
+        // Se devuelve el origen de la petición, así que "*" con credenciales
+        // abriría las respuestas autenticadas a cualquier sitio
+        if (origins.matchesAny() && properties.isAllowCredentials()) {
+            throw new IllegalStateException(
+                    "gateway.cors.allowed-origins no puede contener '*' con gateway.cors.allow-credentials=true");
+        }
+        for (String method : properties.getAllowedMethods()) {
+            allowedMethods.add(method.trim().toUpperCase(Locale.ROOT));
+        }
+        this.anyHeader = properties.getAllowedHeaders().stream().anyMatch(h -> h.trim().equals("*"));
+        for (String header : properties.getAllowedHeaders()) {
+            allowedHeaders.add(header.trim().toLowerCase(Locale.ROOT));
+        }
+        this.allowedHeadersValue = String.join(", ", properties.getAllowedHeaders());
+        this.allowMethodsValue = String.join(", ", properties.getAllowedMethods());
+        this.allowCredentialsValue = properties.isAllowCredentials() ? "true" : null;
+        this.maxAgeValue = Long.toString(properties.getMaxAge().toSeconds());
+        this.preflightCacheSize = properties.getPreflightCacheSize();
+
+        this.responseBlock = HeaderBlock.builder()
+                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, allowCredentialsValue)
+                .header(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, String.join(", ", properties.getExposedHeaders()))
+                .build();
+    }
+
+    boolean isAllowedOrigin(String origin) {
+        return origins.matches(origin);
+    }
+
+    /**
+     * Decide un preflight; el resultado (aceptado o no) queda en caché para
+     * la misma combinación de origen, método y cabeceras.
+     */
+    Preflight preflight(String origin, String method, String requestHeaders) {
+        PreflightKey key = new PreflightKey(origin, method, requestHeaders);
+        Preflight cached = preflights.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Preflight decision = evaluate(origin, method, requestHeaders);
+        if (preflights.size() >= preflightCacheSize) {
+            // Caché acotada: se vacía en lugar de llevar un orden de uso
+            preflights.clear();
+        }
+        preflights.put(key, decision);
+        return decision;
+    }
+
+    /** Cabeceras CORS de una respuesta normal para un origen ya aceptado. */
+    void applyResponseHeaders(String origin, HttpHeaders headers) {
+        for (String name : CORS_RESPONSE_HEADERS) {
+            headers.remove(name);
+        }
+        // Con credenciales el navegador no acepta "*": siempre se devuelve el origen concreto
+        headers.set(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+        responseBlock.applyTo(headers);
+        addVaryOrigin(headers);
+    }
+
+    int preflightCacheEntries() {
+        return preflights.size();
+    }
+
+    private Preflight evaluate(String origin, String method, String requestHeaders) {
+        if (!origins.matches(origin) || !allowedMethods.contains(method.toUpperCase(Locale.ROOT))) {
+            return REJECTED;
+        }
+        String allowHeaders = null;
+        if (requestHeaders != null && !requestHeaders.isBlank()) {
+            if (anyHeader) {
+                allowHeaders = requestHeaders;
+            } else {
+                for (String header : requestHeaders.split(",")) {
+                    String name = header.trim().toLowerCase(Locale.ROOT);
+                    if (!name.isEmpty() && !allowedHeaders.contains(name)) {
+                        return REJECTED;
+                    }
+                }
+                allowHeaders = allowedHeadersValue;
+            }
+        }
+        return new Preflight(true, HeaderBlock.builder()
+                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin)
+                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, allowMethodsValue)
+                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, allowHeaders)
+                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, allowCredentialsValue)
+                .header(HttpHeaders.ACCESS_CONTROL_MAX_AGE, maxAgeValue)
+                .build());
+    }
+
+    private static void addVaryOrigin(HttpHeaders headers) {
+        List<String> vary = headers.getVary();
+        if (!vary.contains(HttpHeaders.ORIGIN)) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+        }
+    }
+
+    private record PreflightKey(String origin, String method, String headers) {
+    }
+
+    /** Decisión de preflight con su bloque de cabeceras ya armado. */
+    record Preflight(boolean allowed, HeaderBlock headers) {
+
+        void applyTo(HttpHeaders target) {
+            headers.applyTo(target);
+            addVaryOrigin(target);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package pe.edu.cibertec.apigateway.cors;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Política CORS única del gateway ({@code gateway.cors.*}); la aplican por
+ * igual las rutas hacia microservicios y los controladores locales.
+ */
+@ConfigurationProperties(prefix = "gateway.cors")
+public class CorsProperties {
+
+    // Orígenes exactos, comodines de subdominio (https://*.midominio.com) o "*"
+    private List<String> allowedOrigins = new ArrayList<>(List.of("http://localhost:4200"));
+
+    private List<String> allowedMethods = new ArrayList<>(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
+
+    // "*" devuelve en el preflight las cabeceras solicitadas por el navegador
+    private List<String> allowedHeaders = new ArrayList<>(List.of("*"));
+
+    private List<String> exposedHeaders = new ArrayList<>();
+
+    private boolean allowCredentials = true;
+
+    private Duration maxAge = Duration.ofHours(1);
+
+    // Respuestas de preflight cacheadas por (origen, método, cabeceras)
+    private int preflightCacheSize = 1024;
+
+    public List<String> getAllowedOrigins() {
+        return allowedOrigins;
+    }
+
+    public void setAllowedOrigins(List<String> allowedOrigins) {
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    public List<String> getAllowedMethods() {
+        return allowedMethods;
+    }
+
+    public void setAllowedMethods(List<String> allowedMethods) {
+        this.allowedMethods = allowedMethods;
+    }
+
+    public List<String> getAllowedHeaders() {
+        return allowedHeaders;
+    }
+
+    public void setAllowedHeaders(List<String> allowedHeaders) {
+        this.allowedHeaders = allowedHeaders;
+    }
+
+    public List<String> getExposedHeaders() {
+        return exposedHeaders;
+    }
+
+    public void setExposedHeaders(List<String> exposedHeaders) {
+        this.exposedHeaders = exposedHeaders;
+    }
+
+    public boolean isAllowCredentials() {
+        return allowCredentials;
+    }
+
+    public void setAllowCredentials(boolean allowCredentials) {
+        this.allowCredentials = allowCredentials;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public int getPreflightCacheSize() {
+        return preflightCacheSize;
+    }
+
+    public void setPreflightCacheSize(int preflightCacheSize) {
+        this.preflightCacheSize = preflightCacheSize;
+    }
+}
@@ -0,0 +1,49 @@
+package pe.edu.cibertec.apigateway.cors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Bloque inmutable de cabeceras precalculado; aplicarlo es una serie de
+ * {@code set} sin formatear valores por petición.
+ */
+final class HeaderBlock {
+
+    private final String[] names;
+    private final String[] values;
+
+    private HeaderBlock(List<String> names, List<String> values) {
+        this.names = names.toArray(String[]::new);
+        this.values = values.toArray(String[]::new);
+    }
+
+    void applyTo(HttpHeaders headers) {
+        for (int i = 0; i < names.length; i++) {
+            headers.set(names[i], values[i]);
+        }
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static final class Builder {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+
+        Builder header(String name, String value) {
+            if (value != null && !value.isEmpty()) {
+                names.add(name);
+                values.add(value);
+            }
+            return this;
+        }
+
+        HeaderBlock build() {
+            return new HeaderBlock(names, values);
+        }
+    }
+}
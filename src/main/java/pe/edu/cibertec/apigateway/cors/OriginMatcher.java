@@ -0,0 +1,74 @@
+package pe.edu.cibertec.apigateway.cors;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lista de orígenes permitidos compilada en tablas hash: los orígenes
+ * exactos se resuelven con un lookup y los comodines de subdominio con uno
+ * por etiqueta del host ({@code https://a.b.ejemplo.com} prueba
+ * {@code .b.ejemplo.com} y {@code .ejemplo.com}).
+ */
+final class OriginMatcher {
+
+    private final boolean any;
+    private final Set<String> exact = new HashSet<>();
+    // Sufijo ".dominio[:puerto]" -> esquemas permitidos ("https://")
+    private final Map<String, Set<String>> wildcards = new HashMap<>();
+
+    OriginMatcher(List<String> patterns) {
+        boolean matchAll = false;
+        for (String raw : patterns) {
+            String pattern = raw.trim().toLowerCase(Locale.ROOT);
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            if (pattern.equals("*")) {
+                matchAll = true;
+                continue;
+            }
+            int schemeEnd = pattern.indexOf("://");
+            if (schemeEnd > 0 && pattern.startsWith("*.", schemeEnd + 3)) {
+                String scheme = pattern.substring(0, schemeEnd + 3);
+                wildcards.computeIfAbsent(pattern.substring(schemeEnd + 4), k -> new HashSet<>()).add(scheme);
+            } else {
+                exact.add(pattern);
+            }
+        }
+        this.any = matchAll;
+    }
+
+    /** {@code true} si la lista incluye {@code *}, es decir, cualquier origen. */
+    boolean matchesAny() {
+        return any;
+    }
+
+    boolean matches(String origin) {
+        if (any) {
+            return true;
+        }
+        String candidate = origin.toLowerCase(Locale.ROOT);
+        if (exact.contains(candidate)) {
+            return true;
+        }
+        if (wildcards.isEmpty()) {
+            return false;
+        }
+        int schemeEnd = candidate.indexOf("://");
+        if (schemeEnd <= 0) {
+            return false;
+        }
+        int hostStart = schemeEnd + 3;
+        for (int dot = candidate.indexOf('.', hostStart); dot > hostStart; dot = candidate.indexOf('.', dot + 1)) {
+            Set<String> schemes = wildcards.get(candidate.substring(dot));
+            if (schemes != null && schemes.contains(candidate.substring(0, hostStart))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
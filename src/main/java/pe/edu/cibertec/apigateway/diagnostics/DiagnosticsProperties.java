@@ -0,0 +1,74 @@
+package pe.edu.cibertec.apigateway.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Modo de logging por petición ({@code gateway.diagnostics.*}).
+ */
+@ConfigurationProperties(prefix = "gateway.diagnostics")
+public class DiagnosticsProperties {
+
+    public enum Mode {
+        // Un log.info por paso en cada filtro, síncrono (útil en desarrollo)
+        VERBOSE,
+        // Un único evento estructurado por petición, muestreado y asíncrono
+        SAMPLED
+    }
+
+    private Mode mode = Mode.VERBOSE;
+
+    // Fracción de peticiones registradas cuando la ruta no tiene tasa propia (0.0 - 1.0)
+    private double sampleRate = 0.01;
+
+    // Tasa por id de ruta del gateway (p. ej. product-service=0.1)
+    private Map<String, Double> routeSampleRates = new LinkedHashMap<>();
+
+    // Las respuestas con este estado o superior (y los errores) se registran siempre
+    private int alwaysLogStatus = 500;
+
+    // Capacidad del buffer circular; se redondea a potencia de dos
+    private int bufferSize = 8192;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public Map<String, Double> getRouteSampleRates() {
+        return routeSampleRates;
+    }
+
+    public void setRouteSampleRates(Map<String, Double> routeSampleRates) {
+        this.routeSampleRates = routeSampleRates;
+    }
+
+    public int getAlwaysLogStatus() {
+        return alwaysLogStatus;
+    }
+
+    public void setAlwaysLogStatus(int alwaysLogStatus) {
+        this.alwaysLogStatus = alwaysLogStatus;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+}
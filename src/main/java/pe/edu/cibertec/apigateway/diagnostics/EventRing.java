@@ -0,0 +1,71 @@
+package pe.edu.cibertec.apigateway.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular acotado de varios productores y un consumidor. Cada slot
+ * lleva un número de secuencia que indica si está libre para el productor o
+ * listo para el consumidor; {@link #offer} nunca bloquea y devuelve
+ * {@code false} si el buffer está lleno.
+ */
+final class EventRing<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final int mask;
+    // Solo lo modifica el hilo consumidor
+    private long head;
+
+    EventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(T event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long delta = sequences.get(index) - position;
+            if (delta == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (delta < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    T poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        T event = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return event;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
@@ -0,0 +1,155 @@
+package pe.edu.cibertec.apigateway.diagnostics;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Logging por petición en modo muestreado: los filtros publican un
+ * {@link RequestLogEvent} en un buffer circular acotado y un hilo propio lo
+ * escribe en el logger {@code gateway.requests}. Si el buffer está lleno el
+ * evento se descarta y se cuenta, nunca se bloquea el event loop.
+ */
+@Component
+public class RequestLog implements MeterBinder {
+
+    /** Resultado de la autenticación (public, cached, verified o el motivo de rechazo). */
+    public static final String AUTH_ATTRIBUTE = RequestLog.class.getName() + ".auth";
+
+    private static final Logger requests = LoggerFactory.getLogger("gateway.requests");
+
+    private final boolean sampled;
+    private final double defaultRate;
+    private final Map<String, Double> routeRates;
+    private final int alwaysLogStatus;
+    private final EventRing<RequestLogEvent> ring;
+
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    public RequestLog(DiagnosticsProperties properties) {
+        this.sampled = properties.getMode() == DiagnosticsProperties.Mode.SAMPLED;
+        this.defaultRate = properties.getSampleRate();
+        this.routeRates = Map.copyOf(properties.getRouteSampleRates());
+        this.alwaysLogStatus = properties.getAlwaysLogStatus();
+        this.ring = new EventRing<>(sampled ? properties.getBufferSize() : 2);
+    }
+
+    /** {@code true} si los filtros deben mantener sus log.info por paso. */
+    public boolean verbose() {
+        return !sampled;
+    }
+
+    public boolean sampled() {
+        return sampled;
+    }
+
+    /**
+     * Decide si la petición se registra: siempre ante errores o estados
+     * iguales o superiores a {@code always-log-status}; si no, según la tasa
+     * de la ruta.
+     */
+    public boolean shouldLog(String routeId, int status, boolean failed) {
+        if (failed || status >= alwaysLogStatus) {
+            return true;
+        }
+        double rate = routeId != null ? routeRates.getOrDefault(routeId, defaultRate) : defaultRate;
+        if (rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate)) {
+            return true;
+        }
+        skipped.increment();
+        return false;
+    }
+
+    public boolean publish(RequestLogEvent event) {
+        if (ring.offer(event)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!sampled) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::drain, "request-log-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void drain() {
+        while (running) {
+            if (!writeAvailable()) {
+                // Sin eventos pendientes: espera breve en lugar de un wait/notify en el camino caliente
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        writeAvailable();
+    }
+
+    private boolean writeAvailable() {
+        boolean wrote = false;
+        RequestLogEvent event;
+        while ((event = ring.poll()) != null) {
+            requests.info(event.toJson());
+            emitted.increment();
+            wrote = true;
+        }
+        return wrote;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.requestlog.emitted", emitted, LongAdder::sum)
+                .description("Eventos de petición escritos")
+                .register(registry);
+        FunctionCounter.builder("gateway.requestlog.dropped", dropped, LongAdder::sum)
+                .description("Eventos descartados por buffer lleno")
+                .register(registry);
+        FunctionCounter.builder("gateway.requestlog.sampled-out", skipped, LongAdder::sum)
+                .description("Peticiones no registradas por el muestreo")
+                .register(registry);
+        Gauge.builder("gateway.requestlog.buffer", ring, EventRing::size)
+                .description("Eventos pendientes de escribir en el buffer")
+                .register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package pe.edu.cibertec.apigateway.diagnostics;
+
+/**
+ * Resumen de una petición: se construye una sola vez al completarse y el
+ * hilo escritor lo serializa como una línea JSON.
+ */
+public record RequestLogEvent(
+        long timestampMillis,
+        String method,
+        String path,
+        String route,
+        int status,
+        long durationMicros,
+        String user,
+        String auth,
+        String error) {
+
+    String toJson() {
+        StringBuilder json = new StringBuilder(192);
+        json.append("{\"ts\":").append(timestampMillis);
+        field(json, "method", method);
+        field(json, "path", path);
+        field(json, "route", route);
+        json.append(",\"status\":").append(status);
+        json.append(",\"durationUs\":").append(durationMicros);
+        field(json, "user", user);
+        field(json, "auth", auth);
+        field(json, "error", error);
+        return json.append('}').toString();
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
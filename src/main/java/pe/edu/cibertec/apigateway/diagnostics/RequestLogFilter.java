@@ -0,0 +1,72 @@
+package pe.edu.cibertec.apigateway.diagnostics;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Emite un {@link RequestLogEvent} al completarse cada petición cuando el
+ * modo de diagnóstico es SAMPLED. Va primero en la cadena para incluir las
+ * respuestas de seguridad (401/503) y el enrutamiento.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLogFilter implements WebFilter {
+
+    private static final String ERROR_ATTRIBUTE = RequestLogFilter.class.getName() + ".error";
+
+    private final RequestLog requestLog;
+
+    public RequestLogFilter(RequestLog requestLog) {
+        this.requestLog = requestLog;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!requestLog.sampled()) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnError(error -> exchange.getAttributes().put(ERROR_ATTRIBUTE, error))
+                .doFinally(signal -> complete(exchange, start, signal));
+    }
+
+    private void complete(ServerWebExchange exchange, long start, SignalType signal) {
+        long durationMicros = (System.nanoTime() - start) / 1000;
+        Throwable error = exchange.getAttribute(ERROR_ATTRIBUTE);
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        int status = statusCode != null ? statusCode.value() : (error != null ? 500 : 200);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+
+        boolean failed = error != null || signal == SignalType.CANCEL;
+        if (!requestLog.shouldLog(routeId, status, failed)) {
+            return;
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        VerifiedPrincipal principal = exchange.getAttribute(VerifiedPrincipal.ATTRIBUTE);
+        requestLog.publish(new RequestLogEvent(
+                System.currentTimeMillis(),
+                request.getMethod().name(),
+                request.getPath().value(),
+                routeId,
+                status,
+                durationMicros,
+                principal != null ? principal.subject() : null,
+                exchange.getAttribute(RequestLog.AUTH_ATTRIBUTE),
+                error != null ? error.getClass().getSimpleName() : (signal == SignalType.CANCEL ? "cancelled" : null)));
+    }
+}
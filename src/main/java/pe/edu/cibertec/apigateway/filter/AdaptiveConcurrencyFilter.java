@@ -0,0 +1,251 @@
+package pe.edu.cibertec.apigateway.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.DispatcherHandler;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Limita las peticiones en curso de una ruta con un límite que se aprende de
+ * la RTT observada ({@link ConcurrencyLimiter}). Por encima del límite la
+ * petición se rechaza al instante con 503, o se envía a {@code fallbackUri}
+ * ({@code forward:/fallback/...}) si está configurado, en lugar de quedar
+ * esperando a un servicio saturado hasta el response-timeout.
+ * <p>
+ * Las respuestas 5xx y las que terminaron en el fallback del circuit breaker
+ * cuentan como señal de sobrecarga.
+ */
+@Component
+public class AdaptiveConcurrencyFilter extends AbstractGatewayFilterFactory<AdaptiveConcurrencyFilter.Config>
+        implements MeterBinder {
+
+    private final ObjectProvider<DispatcherHandler> dispatcherHandler;
+    private final Map<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private MeterRegistry registry;
+
+    public AdaptiveConcurrencyFilter(ObjectProvider<DispatcherHandler> dispatcherHandler) {
+        super(Config.class);
+        this.dispatcherHandler = dispatcherHandler;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new Limiting(limiter(config), config.getFallbackUri());
+    }
+
+    // Un limitador por ruta: si la ruta se reconstruye (recarga de rutas) conserva el límite aprendido
+    private synchronized ConcurrencyLimiter limiter(Config config) {
+        if (config.getRouteId() == null) {
+            return newLimiter(config);
+        }
+        return limiters.computeIfAbsent(config.getRouteId(), route -> {
+            ConcurrencyLimiter limiter = newLimiter(config);
+            if (registry != null) {
+                bind(route, limiter, registry);
+            }
+            return limiter;
+        });
+    }
+
+    private static ConcurrencyLimiter newLimiter(Config config) {
+        return new ConcurrencyLimiter(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                config.getSmoothing(), config.getTolerance(), config.getLongWindow(), config.getBackoffRatio(),
+                System::nanoTime);
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        limiters.forEach((route, limiter) -> bind(route, limiter, registry));
+    }
+
+    private static void bind(String route, ConcurrencyLimiter limiter, MeterRegistry registry) {
+        Gauge.builder("gateway.concurrency.limit", limiter, ConcurrencyLimiter::limit)
+                .description("Límite de peticiones en curso aprendido para la ruta")
+                .tag("route", route)
+                .register(registry);
+        Gauge.builder("gateway.concurrency.in-flight", limiter, ConcurrencyLimiter::inFlight)
+                .description("Peticiones en curso en la ruta")
+                .tag("route", route)
+                .register(registry);
+        FunctionCounter.builder("gateway.concurrency.rejected", limiter, ConcurrencyLimiter::rejected)
+                .description("Peticiones rechazadas por superar el límite de concurrencia")
+                .tag("route", route)
+                .register(registry);
+    }
+
+    private final class Limiting implements GatewayFilter {
+
+        private final ConcurrencyLimiter limiter;
+        private final String fallbackPath;
+
+        Limiting(ConcurrencyLimiter limiter, String fallbackUri) {
+            this.limiter = limiter;
+            this.fallbackPath = fallbackUri == null || fallbackUri.isBlank()
+                    ? null : fallbackUri.replaceFirst("^forward:", "");
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            return Mono.defer(() -> {
+                int inFlightAtStart = limiter.tryAcquire();
+                if (inFlightAtStart < 0) {
+                    return reject(exchange);
+                }
+                long start = System.nanoTime();
+                return chain.filter(exchange).doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limiter.release();
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean dropped = signal == SignalType.ON_ERROR
+                            || (status != null && status.is5xxServerError())
+                            || exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null;
+                    limiter.complete(System.nanoTime() - start, inFlightAtStart, dropped);
+                });
+            });
+        }
+
+        private Mono<Void> reject(ServerWebExchange exchange) {
+            if (fallbackPath == null) {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                return response.setComplete();
+            }
+            // Igual que el fallback del circuit breaker: el motivo queda en el mismo atributo
+            exchange.getAttributes().put(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR, new ConcurrencyLimitExceededException());
+            ServerWebExchangeUtils.reset(exchange);
+            return dispatcherHandler.getObject().handle(exchange.mutate()
+                    .request(request -> request.path(fallbackPath))
+                    .build());
+        }
+    }
+
+    /** Motivo del fallback cuando la ruta supera su límite de concurrencia. */
+    public static class ConcurrencyLimitExceededException extends RuntimeException {
+
+        public ConcurrencyLimitExceededException() {
+            super("Límite de concurrencia de la ruta superado", null, false, false);
+        }
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        // Límite inicial y rango en el que se mueve
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 1000;
+
+        // Peso de cada ajuste sobre el límite actual
+        private double smoothing = 0.2;
+
+        // Cuántas veces la RTT media se tolera antes de bajar el límite
+        private double tolerance = 1.5;
+
+        // Ventanas de un segundo que abarca la media larga de RTT
+        private int longWindow = 600;
+
+        // Factor aplicado al límite ante un error, 5xx o fallback
+        private double backoffRatio = 0.9;
+
+        // forward:/fallback/... para las peticiones rechazadas; vacío = 503 sin cuerpo
+        private String fallbackUri;
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public void setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+        }
+
+        public int getLongWindow() {
+            return longWindow;
+        }
+
+        public void setLongWindow(int longWindow) {
+            this.longWindow = longWindow;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public String getFallbackUri() {
+            return fallbackUri;
+        }
+
+        public void setFallbackUri(String fallbackUri) {
+            this.fallbackUri = fallbackUri;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package pe.edu.cibertec.apigateway.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Agrupa GET idénticos y concurrentes hacia el servicio destino: el primero
+ * (líder) hace la petición real y los que llegan mientras está en curso
+ * esperan su respuesta y la reciben copiada, sin generar tráfico propio.
+ * <p>
+ * La clave combina método, ruta, query, la identidad del llamante y las
+ * cabeceras configuradas en {@code varyHeaders}; toda cabecera que cambie la
+ * respuesta del servicio debe figurar ahí. La identidad es el sujeto del
+ * {@link VerifiedPrincipal} o, si el token no se verificó en el gateway, la
+ * cabecera {@code Authorization}: solo se agrupan peticiones del mismo usuario. Si la respuesta del líder no se puede compartir (supera
+ * {@code maxBodySize}, trae {@code Set-Cookie} o el líder se cancela) cada
+ * seguidor hace su propia petición. Por encima de {@code maxWaiters}
+ * seguidores por clave las peticiones van directamente al destino.
+ */
+@Component
+public class CoalescingFilter extends AbstractGatewayFilterFactory<CoalescingFilter.Config> implements MeterBinder {
+
+    private static final Shared UNSHAREABLE = new Shared(null, null, null);
+
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public CoalescingFilter() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new Coalescing(config);
+    }
+
+    public long collapsedCount() {
+        return collapsed.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.coalescing.leaders", leaders, LongAdder::sum)
+                .description("Peticiones que llegaron al servicio destino en nombre de su grupo")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalescing.collapsed", collapsed, LongAdder::sum)
+                .description("Peticiones respondidas con la respuesta de otra idéntica en curso")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalescing.overflows", overflows, LongAdder::sum)
+                .description("Peticiones enviadas al destino por superar el límite de espera por clave")
+                .register(registry);
+        FunctionCounter.builder("gateway.coalescing.fallbacks", fallbacks, LongAdder::sum)
+                .description("Seguidores que repitieron la petición porque la respuesta no era compartible")
+                .register(registry);
+        Gauge.builder("gateway.coalescing.in-flight", inFlight, AtomicInteger::get)
+                .description("Claves con una petición de líder en curso")
+                .register(registry);
+    }
+
+    private final class Coalescing implements GatewayFilter {
+
+        private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+        private final List<String> varyHeaders;
+        private final int maxWaiters;
+        private final long maxBodyBytes;
+
+        Coalescing(Config config) {
+            this.varyHeaders = List.copyOf(config.getVaryHeaders());
+            this.maxWaiters = config.getMaxWaiters();
+            this.maxBodyBytes = config.getMaxBodySize().toBytes();
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            // El registro en el mapa ocurre al suscribirse, junto con su limpieza
+            return Mono.defer(() -> {
+                String key = key(exchange);
+                Flight created = new Flight();
+                Flight flight = flights.putIfAbsent(key, created);
+                if (flight == null) {
+                    return lead(key, created, exchange, chain);
+                }
+                if (!flight.join(maxWaiters)) {
+                    overflows.increment();
+                    return chain.filter(exchange);
+                }
+                return flight.result()
+                        .flatMap(shared -> {
+                            if (shared == UNSHAREABLE) {
+                                fallbacks.increment();
+                                return chain.filter(exchange);
+                            }
+                            collapsed.increment();
+                            return shared.writeTo(exchange.getResponse());
+                        })
+                        .doFinally(signal -> flight.leave());
+            });
+        }
+
+        private Mono<Void> lead(String key, Flight flight, ServerWebExchange exchange, GatewayFilterChain chain) {
+            leaders.increment();
+            inFlight.incrementAndGet();
+            ServerHttpResponse capturing = new CapturingResponse(exchange.getResponse(), flight, maxBodyBytes);
+            return chain.filter(exchange.mutate().response(capturing).build())
+                    .doFinally(signal -> {
+                        flights.remove(key, flight);
+                        inFlight.decrementAndGet();
+                        // Error, cancelación o respuesta sin cuerpo: los seguidores van por su cuenta
+                        flight.publish(UNSHAREABLE);
+                    });
+        }
+
+        private String key(ServerWebExchange exchange) {
+            ServerHttpRequest request = exchange.getRequest();
+            StringBuilder key = new StringBuilder(128)
+                    .append(request.getMethod().name()).append(' ')
+                    .append(request.getURI().getRawPath());
+            String query = request.getURI().getRawQuery();
+            if (query != null) {
+                key.append('?').append(query);
+            }
+            HttpHeaders headers = request.getHeaders();
+            VerifiedPrincipal principal = exchange.getAttribute(VerifiedPrincipal.ATTRIBUTE);
+            if (principal != null) {
+                key.append("\nsub:").append(principal.subject());
+            } else {
+                String authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+                key.append("\nauth:").append(authorization != null ? authorization : "");
+            }
+            for (String name : varyHeaders) {
+                List<String> values = headers.get(name);
+                key.append('\n').append(name).append(':');
+                if (values != null) {
+                    key.append(String.join(",", values));
+                }
+            }
+            return key.toString();
+        }
+    }
+
+    private static final class Flight {
+
+        private final Sinks.One<Shared> sink = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        boolean join(int maxWaiters) {
+            if (waiters.incrementAndGet() > maxWaiters) {
+                waiters.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        void leave() {
+            waiters.decrementAndGet();
+        }
+
+        Mono<Shared> result() {
+            return sink.asMono();
+        }
+
+        // Solo cuenta la primera publicación; las siguientes se ignoran
+        void publish(Shared shared) {
+            sink.tryEmitValue(shared);
+        }
+    }
+
+    private record Shared(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+        static Shared capture(HttpStatusCode status, HttpHeaders source, byte[] body) {
+            HttpHeaders copy = new HttpHeaders();
+            for (Map.Entry<String, List<String>> header : source.entrySet()) {
+                String name = header.getKey();
+                // CORS y conexión se escriben por cada respuesta, no se copian
+                if (name.regionMatches(true, 0, "Access-Control-", 0, 15)
+                        || name.equalsIgnoreCase(HttpHeaders.CONNECTION)
+                        || name.equalsIgnoreCase(HttpHeaders.TRANSFER_ENCODING)
+                        || name.equalsIgnoreCase("Keep-Alive")
+                        || name.equalsIgnoreCase(HttpHeaders.DATE)) {
+                    continue;
+                }
+                copy.put(name, new ArrayList<>(header.getValue()));
+            }
+            copy.setContentLength(body.length);
+            return new Shared(status, HttpHeaders.readOnlyHttpHeaders(copy), body);
+        }
+
+        Mono<Void> writeTo(ServerHttpResponse response) {
+            response.setStatusCode(status);
+            response.getHeaders().putAll(headers);
+            if (body.length == 0) {
+                return response.setComplete();
+            }
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+        }
+    }
+
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final Flight flight;
+        private final long maxBodyBytes;
+        private boolean copying = true;
+
+        CapturingResponse(ServerHttpResponse delegate, Flight flight, long maxBodyBytes) {
+            super(delegate);
+            this.flight = flight;
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (headers.containsKey(HttpHeaders.SET_COOKIE) || headers.getContentLength() > maxBodyBytes) {
+                flight.publish(UNSHAREABLE);
+                return super.writeWith(body);
+            }
+            // El cuerpo llega al cliente según se recibe; se guarda una copia solo hasta maxBodySize
+            // (sin Content-Length no se sabe de antemano) y al superarlo se deja de copiar
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(buffer -> {
+                        if (copying) {
+                            copying = copy(buffer, copy);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (copying) {
+                            flight.publish(Shared.capture(getStatusCode(), headers, copy.toByteArray()));
+                        }
+                    }));
+        }
+
+        private boolean copy(DataBuffer buffer, ByteArrayOutputStream copy) {
+            int length = buffer.readableByteCount();
+            if (copy.size() + (long) length > maxBodyBytes) {
+                copy.reset();
+                flight.publish(UNSHAREABLE);
+                return false;
+            }
+            byte[] bytes = new byte[length];
+            int position = buffer.readPosition();
+            buffer.read(bytes);
+            buffer.readPosition(position);
+            copy.write(bytes, 0, length);
+            return true;
+        }
+    }
+
+    public static class Config {
+
+        // Cabeceras de la petición que cambian la respuesta del servicio destino
+        private List<String> varyHeaders = new ArrayList<>(List.of(
+                HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE));
+
+        // Seguidores por clave; el resto va directamente al destino
+        private int maxWaiters = 1000;
+
+        // Respuestas más grandes no se comparten
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+        public List<String> getVaryHeaders() {
+            return varyHeaders;
+        }
+
+        public void setVaryHeaders(List<String> varyHeaders) {
+            this.varyHeaders = varyHeaders;
+        }
+
+        public int getMaxWaiters() {
+            return maxWaiters;
+        }
+
+        public void setMaxWaiters(int maxWaiters) {
+            this.maxWaiters = maxWaiters;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package pe.edu.cibertec.apigateway.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de concurrencia adaptativo de una ruta, al estilo Gradient2 de
+ * Netflix concurrency-limits, sin bloqueos.
+ * <p>
+ * Las muestras se acumulan en ventanas de un segundo; al cerrar una ventana
+ * (la cierra un único hilo, el que gana el CAS) se compara su RTT media con
+ * una media larga de {@code longWindow} ventanas. Mientras la RTT reciente no
+ * supere {@code tolerance} veces la media larga el límite crece hasta
+ * sqrt(límite) por encima; si la supera baja en proporción, como máximo a la
+ * mitad. Una ventana con errores o fallbacks reduce el límite por
+ * {@code backoffRatio}. Si la ruta no llegó a usar la mitad del límite este no
+ * crece, para que no se infle con poca carga.
+ */
+final class ConcurrencyLimiter {
+
+    static final long WINDOW_NANOS = 1_000_000_000L;
+    static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double longWindow;
+    private final double backoffRatio;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    // Ventana en curso
+    private final AtomicLong windowEnd;
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder windowDrops = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+
+    // Solo los escribe el hilo que cierra la ventana
+    private volatile double limit;
+    private volatile double longRtt;
+
+    ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance,
+            int longWindow, double backoffRatio, LongSupplier clock) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.longWindow = Math.max(1, longWindow);
+        this.backoffRatio = backoffRatio;
+        this.clock = clock;
+        this.limit = clamp(initialLimit);
+        this.windowEnd = new AtomicLong(clock.getAsLong() + WINDOW_NANOS);
+    }
+
+    /** Reserva un lugar; devuelve las peticiones en curso al entrar o -1 si se supera el límite. */
+    int tryAcquire() {
+        int current = limit();
+        while (true) {
+            int taken = inFlight.get();
+            if (taken >= current) {
+                rejected.increment();
+                return -1;
+            }
+            if (inFlight.compareAndSet(taken, taken + 1)) {
+                return taken + 1;
+            }
+        }
+    }
+
+    /** Libera el lugar sin muestra (petición cancelada). */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /** Libera el lugar y anota la RTT en la ventana en curso. */
+    void complete(long rttNanos, int inFlightAtStart, boolean dropped) {
+        inFlight.decrementAndGet();
+        windowRttSum.add(Math.max(1, rttNanos));
+        windowSamples.increment();
+        windowMaxInFlight.accumulateAndGet(inFlightAtStart, Math::max);
+        if (dropped) {
+            windowDrops.increment();
+        }
+        long now = clock.getAsLong();
+        long end = windowEnd.get();
+        if (now >= end && windowSamples.sum() >= MIN_WINDOW_SAMPLES && windowEnd.compareAndSet(end, now + WINDOW_NANOS)) {
+            long samples = windowSamples.sumThenReset();
+            long rttSum = windowRttSum.sumThenReset();
+            boolean drops = windowDrops.sumThenReset() > 0;
+            int maxInFlight = windowMaxInFlight.getAndSet(0);
+            update((double) rttSum / Math.max(1, samples), maxInFlight, drops);
+        }
+    }
+
+    private void update(double shortRtt, int maxInFlight, boolean dropped) {
+        double average = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / longWindow;
+        // Tras un periodo de carga alta la media larga queda alta: se deja bajar más rápido
+        if (average / shortRtt > 2) {
+            average *= 0.95;
+        }
+        longRtt = average;
+        double current = limit;
+        if (dropped) {
+            limit = clamp(current * backoffRatio);
+            return;
+        }
+        if (maxInFlight < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * average / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        limit = clamp(current * (1 - smoothing) + target * smoothing);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    long rejected() {
+        return rejected.sum();
+    }
+}
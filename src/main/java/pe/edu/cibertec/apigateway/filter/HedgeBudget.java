@@ -0,0 +1,49 @@
+package pe.edu.cibertec.apigateway.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presupuesto de hedges de una ruta: cada petición elegible deposita
+ * {@code percent}/100 de token y cada hedge gasta uno entero, así que a la
+ * larga los hedges no superan ese porcentaje del tráfico. El saldo tiene tope
+ * para que una racha lenta tras un periodo tranquilo no dispare una ráfaga.
+ */
+final class HedgeBudget {
+
+    // El saldo se lleva en milésimas de token para admitir porcentajes fraccionarios
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance = new AtomicLong();
+
+    HedgeBudget(double percent, int maxTokens) {
+        this.deposit = Math.round(percent * TOKEN / 100);
+        this.capacity = Math.max(1, maxTokens) * TOKEN;
+    }
+
+    void deposit() {
+        balance.updateAndGet(current -> Math.min(capacity, current + deposit));
+    }
+
+    boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    /** Devuelve un token retirado para un hedge que al final no se envió. */
+    void refund() {
+        balance.updateAndGet(current -> Math.min(capacity, current + TOKEN));
+    }
+
+    double tokens() {
+        return balance.get() / (double) TOKEN;
+    }
+}
@@ -0,0 +1,568 @@
+package pe.edu.cibertec.apigateway.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.DelegatingServiceInstance;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import pe.edu.cibertec.apigateway.loadbalancer.PeakEwmaLoadBalancer;
+import pe.edu.cibertec.apigateway.metrics.LatencyHistogram;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import pe.edu.cibertec.apigateway.upstream.UpstreamHttpClients;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hedging de GET idempotentes en rutas {@code lb://}: si el primer intento no
+ * recibió las cabeceras de respuesta dentro del percentil {@code percentile}
+ * de la latencia observada en la ruta, se lanza un segundo intento contra
+ * otra instancia y gana la primera respuesta; la otra llamada se cancela. Un
+ * {@link HedgeBudget} limita los hedges a {@code budgetPercent} del tráfico.
+ * <p>
+ * Debe ser el último filtro de la ruta: hace la llamada al servicio por su
+ * cuenta, con el cliente y pool de la ruta (NettyRoutingFilter no admite dos
+ * llamadas en paralelo sobre un mismo exchange), fija estado y cabeceras de
+ * la respuesta ganadora y deja el cuerpo, sin leerlo, para que
+ * {@link ResponseWriter} lo transmita al cliente; así los filtros anteriores
+ * (circuit breaker incluido) ven la respuesta igual que con una llamada
+ * normal. Si ningún intento responde se propaga el error del primero, como
+ * haría NettyRoutingFilter; nunca se repite la llamada por la cadena normal.
+ * <p>
+ * Como la llamada no pasa por NettyRoutingFilter, la latencia de la etapa
+ * {@code upstream} y la de la instancia (PeakEwmaLoadBalancer) se registran
+ * aquí en lugar de en {@code RouteLatencyFilter.Upstream} e
+ * {@code InstanceLatencyFilter}; la latencia total de la ruta la sigue
+ * midiendo {@code RouteLatencyFilter}.
+ */
+@Component
+public class HedgingFilter extends AbstractGatewayFilterFactory<HedgingFilter.Config> implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingFilter.class);
+
+    /** Cuerpo, aún sin leer, de la respuesta ganadora. */
+    static final String PENDING_BODY_ATTR = HedgingFilter.class.getName() + ".pendingBody";
+
+    // Ventana del histograma de la ruta (6 x 10s) y cada cuánto se recalcula el umbral
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int INTERVALS = 6;
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Intentos de elegir una instancia distinta de la del primer intento
+    private static final int CHOOSE_ATTEMPTS = 3;
+
+    private final LoadBalancerClientFactory clientFactory;
+    private final UpstreamHttpClients httpClients;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final LatencyRecorder recorder;
+    private final LatencyHistogram upstreamLatency;
+    private final Map<String, RouteHedging> routes = new ConcurrentHashMap<>();
+    private MeterRegistry registry;
+
+    public HedgingFilter(LoadBalancerClientFactory clientFactory, UpstreamHttpClients httpClients,
+            ObjectProvider<List<HttpHeadersFilter>> headersFilters, LatencyRecorder recorder) {
+        super(Config.class);
+        this.clientFactory = clientFactory;
+        this.httpClients = httpClients;
+        this.headersFilters = headersFilters;
+        this.recorder = recorder;
+        this.upstreamLatency = recorder.stage(LatencyRecorder.STAGE_UPSTREAM);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new Hedging(route(config));
+    }
+
+    // Estado por ruta: si la ruta se reconstruye conserva latencias y presupuesto
+    private synchronized RouteHedging route(Config config) {
+        if (config.getRouteId() == null) {
+            return new RouteHedging(config);
+        }
+        return routes.computeIfAbsent(config.getRouteId(), route -> {
+            RouteHedging hedging = new RouteHedging(config);
+            if (registry != null) {
+                bind(route, hedging, registry);
+            }
+            return hedging;
+        });
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        routes.forEach((route, hedging) -> bind(route, hedging, registry));
+    }
+
+    private static void bind(String route, RouteHedging hedging, MeterRegistry registry) {
+        FunctionCounter.builder("gateway.hedging.requests", hedging.requests, LongAdder::sum)
+                .description("Peticiones elegibles para hedging")
+                .tag("route", route)
+                .register(registry);
+        FunctionCounter.builder("gateway.hedging.sent", hedging.sent, LongAdder::sum)
+                .description("Segundos intentos enviados a otra instancia")
+                .tag("route", route)
+                .register(registry);
+        FunctionCounter.builder("gateway.hedging.won", hedging.won, LongAdder::sum)
+                .description("Peticiones respondidas por el segundo intento")
+                .tag("route", route)
+                .register(registry);
+        FunctionCounter.builder("gateway.hedging.budget-exhausted", hedging.exhausted, LongAdder::sum)
+                .description("Hedges no enviados por falta de presupuesto")
+                .tag("route", route)
+                .register(registry);
+        FunctionCounter.builder("gateway.hedging.failures", hedging.failures, LongAdder::sum)
+                .description("Peticiones sin respuesta de ningún intento")
+                .tag("route", route)
+                .register(registry);
+        Gauge.builder("gateway.hedging.delay", hedging, h -> h.delayNanos / 1_000_000.0)
+                .description("Espera actual antes de enviar el segundo intento, en milisegundos")
+                .tag("route", route)
+                .register(registry);
+    }
+
+    /**
+     * Ejecuta {@code primary} y, si no emitió nada tras {@code delay}, también
+     * {@code backup}; gana el primer valor y el otro se cancela. Si
+     * {@code backup} devuelve vacío solo cuenta el primer intento, y si ninguno
+     * emite se propaga el error de {@code primary}. Un valor que llega cuando
+     * ya hay ganador se entrega a {@code discard}.
+     */
+    static <T> Mono<Hedged<T>> race(Mono<T> primary, Duration delay, Supplier<Mono<T>> backup,
+            Consumer<T> discard) {
+        return Mono.defer(() -> {
+            AtomicBoolean decided = new AtomicBoolean();
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            // firstWithValue descarta en silencio el valor perdedor; aquí se reclama antes de emitir
+            Predicate<T> claim = value -> {
+                if (decided.compareAndSet(false, true)) {
+                    return true;
+                }
+                discard.accept(value);
+                return false;
+            };
+            Mono<Hedged<T>> first = primary
+                    .doOnError(primaryError::set)
+                    .filter(claim)
+                    .map(value -> new Hedged<>(value, false));
+            Mono<Hedged<T>> second = Mono.delay(delay)
+                    .flatMap(tick -> backup.get())
+                    .filter(claim)
+                    .map(value -> new Hedged<>(value, true));
+            return Mono.firstWithValue(first, second)
+                    .onErrorMap(e -> primaryError.get() != null ? primaryError.get() : e);
+        });
+    }
+
+    record Hedged<T>(T value, boolean hedge) {
+    }
+
+    private final class RouteHedging {
+
+        private final LatencyHistogram latency = new LatencyHistogram(INTERVAL_NANOS, INTERVALS, 8);
+        private final HedgeBudget budget;
+        private volatile WebClient client;
+        private final double percentile;
+        private final long minSamples;
+        private final long minDelayNanos;
+        private final long maxDelayNanos;
+        private final AtomicLong refreshAt = new AtomicLong(System.nanoTime());
+        private volatile long delayNanos;
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder won = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        RouteHedging(Config config) {
+            this.budget = new HedgeBudget(config.getBudgetPercent(), config.getMaxBurst());
+            this.percentile = config.getPercentile();
+            this.minSamples = config.getMinSamples();
+            this.minDelayNanos = config.getMinDelay().toNanos();
+            this.maxDelayNanos = config.getMaxDelay().toNanos();
+            this.delayNanos = config.getInitialDelay().toNanos();
+        }
+
+        // Mismo cliente (y pool) que usaría NettyRoutingFilter para la ruta; se crea con la primera petición
+        WebClient client(Route route) {
+            WebClient current = client;
+            if (current == null) {
+                current = WebClient.builder()
+                        .clientConnector(new ReactorClientHttpConnector(httpClients.client(route)))
+                        .build();
+                client = current;
+            }
+            return current;
+        }
+
+        // El percentil es caro de calcular: se recalcula como mucho una vez por segundo
+        Duration delay() {
+            long now = System.nanoTime();
+            long at = refreshAt.get();
+            if (now - at >= 0 && refreshAt.compareAndSet(at, now + REFRESH_NANOS)) {
+                LatencyHistogram.Snapshot snapshot = latency.snapshot(INTERVALS);
+                if (snapshot.total() >= minSamples) {
+                    long observed = (long) (snapshot.percentile(percentile) * 1000);
+                    delayNanos = Math.min(maxDelayNanos, Math.max(minDelayNanos, observed));
+                }
+            }
+            return Duration.ofNanos(delayNanos);
+        }
+    }
+
+    private final class Hedging implements GatewayFilter {
+
+        private final RouteHedging hedging;
+
+        Hedging(RouteHedging hedging) {
+            this.hedging = hedging;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            ServerHttpRequest request = exchange.getRequest();
+            if (route == null || request.getMethod() != HttpMethod.GET
+                    || !"lb".equalsIgnoreCase(route.getUri().getScheme())) {
+                return chain.filter(exchange);
+            }
+            return Mono.defer(() -> {
+                hedging.requests.increment();
+                hedging.budget.deposit();
+                String serviceId = route.getUri().getHost();
+                ReactiveLoadBalancer<ServiceInstance> balancer = clientFactory.getInstance(serviceId);
+                if (balancer == null) {
+                    return chain.filter(exchange);
+                }
+                boolean encoded = ServerWebExchangeUtils.containsEncodedParts(request.getURI());
+                URI url = UriComponentsBuilder.fromUri(request.getURI()).uri(route.getUri()).build(encoded).toUri();
+                Request<RequestDataContext> lbRequest = new DefaultRequest<>(new RequestDataContext(
+                        new RequestData(request),
+                        clientFactory.getProperties(serviceId).getHint().getOrDefault(serviceId, "default")));
+                HttpHeaders headers = requestHeaders(exchange);
+                WebClient client = hedging.client(route);
+
+                // Sin instancias no se llama a nadie: la cadena normal responde 503 como siempre
+                return choose(balancer, lbRequest, null)
+                        .flatMap(primary -> {
+                            long start = System.nanoTime();
+                            return race(
+                                    call(client, primary, url, headers),
+                                    hedging.delay(),
+                                    () -> hedge(client, balancer, lbRequest, primary.getServer(), url, headers),
+                                    Attempt::discard)
+                                    .doOnError(e -> {
+                                        hedging.failures.increment();
+                                        log.debug("Hedging sin respuesta en {}: {}", route.getId(), e.toString());
+                                    })
+                                    .flatMap(winner -> {
+                                        if (recorder.isEnabled()) {
+                                            upstreamLatency.record(System.nanoTime() - start);
+                                        }
+                                        if (winner.hedge()) {
+                                            hedging.won.increment();
+                                        }
+                                        return respond(exchange, winner.value()).thenReturn(true);
+                                    });
+                        })
+                        .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(true)))
+                        .then();
+            });
+        }
+
+        private Mono<Attempt> hedge(WebClient client, ReactiveLoadBalancer<ServiceInstance> balancer,
+                Request<?> lbRequest, ServiceInstance avoid, URI url, HttpHeaders headers) {
+            if (!hedging.budget.tryWithdraw()) {
+                hedging.exhausted.increment();
+                return Mono.empty();
+            }
+            return choose(balancer, lbRequest, avoid)
+                    .switchIfEmpty(Mono.fromRunnable(hedging.budget::refund))
+                    .flatMap(other -> {
+                        hedging.sent.increment();
+                        return call(client, other, url, headers);
+                    });
+        }
+
+        // Con avoid, reintenta hasta dar con otra instancia; vacío si solo hay una
+        private Mono<Response<ServiceInstance>> choose(ReactiveLoadBalancer<ServiceInstance> balancer,
+                Request<?> lbRequest, ServiceInstance avoid) {
+            return Flux.range(0, avoid == null ? 1 : CHOOSE_ATTEMPTS)
+                    .concatMap(i -> Mono.from(balancer.choose(lbRequest)))
+                    .filter(response -> response.hasServer()
+                            && (avoid == null || !sameInstance(response.getServer(), avoid)))
+                    .next();
+        }
+
+        private Mono<Attempt> call(WebClient client, Response<ServiceInstance> choice, URI url, HttpHeaders headers) {
+            ServiceInstance instance = choice.getServer();
+            URI target = LoadBalancerUriTools.reconstructURI(
+                    new DelegatingServiceInstance(instance, instance.isSecure() ? "https" : "http"), url);
+            PeakEwmaLoadBalancer.Choice tracked = choice instanceof PeakEwmaLoadBalancer.Choice c ? c : null;
+            return Mono.defer(() -> {
+                long lbStart = tracked != null ? tracked.start() : 0;
+                long start = System.nanoTime();
+                // Solo se esperan las cabeceras; los 4xx/5xx se devuelven tal cual, sin convertirlos en error
+                return client.get()
+                        .uri(target)
+                        .headers(h -> h.addAll(headers))
+                        .retrieve()
+                        .onStatus(status -> true, response -> Mono.empty())
+                        .toEntityFlux(DataBuffer.class)
+                        .doOnSuccess(entity -> {
+                            hedging.latency.record(System.nanoTime() - start);
+                            if (tracked != null) {
+                                tracked.complete(lbStart, entity.getStatusCode().is5xxServerError());
+                            }
+                        })
+                        .doOnError(e -> {
+                            if (tracked != null) {
+                                tracked.complete(lbStart, true);
+                            }
+                        })
+                        .doOnCancel(() -> {
+                            if (tracked != null) {
+                                tracked.cancel();
+                            }
+                        })
+                        .map(entity -> new Attempt(target, entity));
+            });
+        }
+
+        private HttpHeaders requestHeaders(ServerWebExchange exchange) {
+            HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(List::of), exchange);
+            if (!exchange.getAttributeOrDefault(PRESERVE_HOST_HEADER_ATTRIBUTE, false)) {
+                headers.remove(HttpHeaders.HOST);
+            }
+            return headers;
+        }
+
+        // Estado y cabeceras como NettyRoutingFilter; el cuerpo lo transmite ResponseWriter
+        private Mono<Void> respond(ServerWebExchange exchange, Attempt attempt) {
+            ServerHttpResponse response = exchange.getResponse();
+            ResponseEntity<Flux<DataBuffer>> entity = attempt.entity();
+            HttpHeaders headers = HttpHeadersFilter.filter(headersFilters.getIfAvailable(List::of),
+                    entity.getHeaders(), exchange, HttpHeadersFilter.Type.RESPONSE);
+            if (headers.containsKey(HttpHeaders.TRANSFER_ENCODING) && headers.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+                headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            }
+            response.setStatusCode(entity.getStatusCode());
+            response.getHeaders().putAll(headers);
+            exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, headers.keySet());
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, attempt.target());
+            exchange.getAttributes().put(PENDING_BODY_ATTR, new PendingBody(response, attempt.body()));
+            ServerWebExchangeUtils.setAlreadyRouted(exchange);
+            return Mono.empty();
+        }
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        if (a.getInstanceId() != null && b.getInstanceId() != null) {
+            return a.getInstanceId().equals(b.getInstanceId());
+        }
+        return Objects.equals(a.getHost(), b.getHost()) && a.getPort() == b.getPort();
+    }
+
+    private record Attempt(URI target, ResponseEntity<Flux<DataBuffer>> entity) {
+
+        Flux<DataBuffer> body() {
+            return entity.getBody() != null ? entity.getBody() : Flux.empty();
+        }
+
+        // Cancelar el cuerpo sin leerlo cierra la conexión en lugar de dejarla ocupada
+        void discard() {
+            body().take(0).subscribe();
+        }
+    }
+
+    // Respuesta (la que vio el filtro, con los decoradores de la ruta) y cuerpo por transmitir
+    private record PendingBody(ServerHttpResponse response, Flux<DataBuffer> body) {
+
+        Mono<Void> write() {
+            return response.writeWith(body);
+        }
+
+        void discard() {
+            body.take(0).subscribe();
+        }
+    }
+
+    /**
+     * Transmite el cuerpo de una respuesta obtenida por hedging al final de la
+     * cadena, en el mismo punto que NettyWriteResponseFilter. Si un fallback
+     * ya respondió otra cosa, o la cadena terminó con error, el cuerpo se
+     * descarta sin leerlo.
+     */
+    @Component
+    public static class ResponseWriter implements GlobalFilter, Ordered {
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            return chain.filter(exchange)
+                    .then(Mono.defer(() -> {
+                        PendingBody pending = take(exchange);
+                        if (pending == null) {
+                            return Mono.empty();
+                        }
+                        if (exchange.getResponse().isCommitted()) {
+                            pending.discard();
+                            return Mono.empty();
+                        }
+                        return pending.write();
+                    }))
+                    .doFinally(signal -> {
+                        PendingBody pending = take(exchange);
+                        if (pending != null) {
+                            pending.discard();
+                        }
+                    });
+        }
+
+        private static PendingBody take(ServerWebExchange exchange) {
+            return (PendingBody) exchange.getAttributes().remove(PENDING_BODY_ATTR);
+        }
+
+        @Override
+        public int getOrder() {
+            return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER;
+        }
+    }
+
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        // Percentil de la latencia de la ruta tras el cual se envía el segundo intento
+        private double percentile = 95;
+
+        // Hedges permitidos como porcentaje de las peticiones, y ráfaga máxima acumulable
+        private double budgetPercent = 10;
+        private int maxBurst = 10;
+
+        // Límites del umbral; initialDelay rige mientras haya menos de minSamples muestras
+        private Duration minDelay = Duration.ofMillis(5);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private Duration initialDelay = Duration.ofMillis(100);
+        private long minSamples = 50;
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public double getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+
+        public int getMaxBurst() {
+            return maxBurst;
+        }
+
+        public void setMaxBurst(int maxBurst) {
+            this.maxBurst = maxBurst;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public Duration getInitialDelay() {
+            return initialDelay;
+        }
+
+        public void setInitialDelay(Duration initialDelay) {
+            this.initialDelay = initialDelay;
+        }
+
+        public long getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(long minSamples) {
+            this.minSamples = minSamples;
+        }
+    }
+}
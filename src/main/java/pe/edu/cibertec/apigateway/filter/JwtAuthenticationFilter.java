@@ -1,106 +1,244 @@
 package pe.edu.cibertec.apigateway.filter;
 
-import java.nio.charset.StandardCharsets;
 import java.util.List;
-
-import javax.crypto.SecretKey;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
 import org.springframework.http.server.reactive.ServerHttpResponse;
-import org.springframework.stereotype.Component;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.netty.channel.EventLoop;
+import pe.edu.cibertec.apigateway.diagnostics.RequestLog;
+import pe.edu.cibertec.apigateway.metrics.LatencyHistogram;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import pe.edu.cibertec.apigateway.metrics.StageTimer;
+import pe.edu.cibertec.apigateway.security.JwtVerificationExecutor;
+import pe.edu.cibertec.apigateway.security.PublicPathMatcher;
+import pe.edu.cibertec.apigateway.security.RejectionReason;
+import pe.edu.cibertec.apigateway.security.SigningKeyRing;
+import pe.edu.cibertec.apigateway.security.TokenDigest;
+import pe.edu.cibertec.apigateway.security.TokenPrecheck;
+import pe.edu.cibertec.apigateway.security.TokenRejectionTracker;
+import pe.edu.cibertec.apigateway.security.TokenRevocationList;
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+import pe.edu.cibertec.apigateway.security.VerifiedTokenCache;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.Connection;
 
-@Component
+/**
+ * Autenticación JWT del gateway. Solo se registra en la cadena de Spring
+ * Security (ver SecurityConfig), no como bean, para ejecutarse una vez por
+ * petición.
+ */
 public class JwtAuthenticationFilter implements WebFilter {
 
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
-    @Value("${jwt.secret:MiClaveSecretaSuperSeguraParaJWTEnMicroserviciosQueDebeSerMuyLarga}")
-    private String jwtSecret;
+    // Un Scheduler por event loop de Netty (son pocos y fijos), creado en la primera verificación delegada
+    private static final Map<EventLoop, Scheduler> EVENT_LOOP_SCHEDULERS = new ConcurrentHashMap<>();
+
+    private final SigningKeyRing keyRing;
+    private final VerifiedTokenCache tokenCache;
+    private final JwtVerificationExecutor verificationExecutor;
+    private final TokenRejectionTracker rejections;
+    private final PublicPathMatcher publicPaths;
+    private final TokenRevocationList revocations;
+    private final LatencyRecorder latency;
+    private final LatencyHistogram stageLatency;
+    private final boolean verbose;
+
+    public JwtAuthenticationFilter(SigningKeyRing keyRing, VerifiedTokenCache tokenCache,
+            JwtVerificationExecutor verificationExecutor, TokenRejectionTracker rejections,
+            PublicPathMatcher publicPaths, TokenRevocationList revocations, LatencyRecorder latency,
+            RequestLog requestLog) {
+        this.keyRing = keyRing;
+        this.tokenCache = tokenCache;
+        this.verificationExecutor = verificationExecutor;
+        this.rejections = rejections;
+        this.publicPaths = publicPaths;
+        this.revocations = revocations;
+        this.latency = latency;
+        this.stageLatency = latency.stage(LatencyRecorder.STAGE_JWT);
+        // En modo SAMPLED la petición se resume en un único evento de RequestLogFilter
+        this.verbose = requestLog.verbose();
+        // Si una clave sale del anillo o cambia su material, sus tokens en caché dejan de ser válidos
+        keyRing.onKeysRemoved(removed -> tokenCache.clear());
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        StageTimer timer = latency.start(stageLatency);
+        if (timer == null) {
+            return authenticate(exchange, chain);
+        }
+        return authenticate(exchange, timer.wrap(chain)).doFinally(signal -> timer.stop());
+    }
+
+    private Mono<Void> authenticate(ServerWebExchange exchange, WebFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getURI().getPath();
 
-        log.info("=== JWT Filter - Procesando ruta: {} ===", path);
+        if (verbose) {
+            log.info("=== JWT Filter - Procesando ruta: {} ===", path);
+        }
 
         // Rutas públicas que no requieren autenticación
-        if (isPublicPath(path)) {
-            log.info("Ruta pública detectada, permitiendo acceso: {}", path);
+        PublicPathMatcher.Access access = publicPaths.access(path);
+        if (access == PublicPathMatcher.Access.PUBLIC) {
+            if (verbose) {
+                log.info("Ruta pública detectada, permitiendo acceso: {}", path);
+            }
+            exchange.getAttributes().put(RequestLog.AUTH_ATTRIBUTE, "public");
             return chain.filter(exchange);
         }
+        boolean optional = access == PublicPathMatcher.Access.OPTIONAL;
 
         // Extraer token del header Authorization
         String token = extractToken(request);
         if (token == null) {
-            log.error("Token JWT no encontrado en el header Authorization para ruta: {}", path);
+            exchange.getAttributes().put(RequestLog.AUTH_ATTRIBUTE, RejectionReason.MISSING.tag());
+            if (optional) {
+                return chain.filter(exchange);
+            }
+            rejections.record(RejectionReason.MISSING);
             return onError(exchange, "Token JWT no encontrado", HttpStatus.UNAUTHORIZED);
         }
 
-        log.info("Token JWT encontrado: {}...", token.substring(0, Math.min(20, token.length())));
+        // Tokens ya verificados: sin parseo ni verificación de firma
+        long now = System.currentTimeMillis();
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedPrincipal cached = tokenCache.get(digest, now);
+        if (cached != null) {
+            exchange.getAttributes().put(RequestLog.AUTH_ATTRIBUTE, "cached");
+            return authenticated(exchange, chain, optional, token, cached, digest, now);
+        }
 
-        try {
-            // Validar token
-            if (!validateToken(token)) {
-                log.error("Token JWT inválido para ruta: {}", path);
-                return onError(exchange, "Token JWT inválido", HttpStatus.UNAUTHORIZED);
+        // Reintentos con un token rechazado hace poco
+        RejectionReason recent = rejections.recentlyRejected(digest, now);
+        if (recent != null) {
+            exchange.getAttributes().put(RequestLog.AUTH_ATTRIBUTE, recent.tag());
+            return optional ? chain.filter(exchange) : onError(exchange, "Token JWT inválido", HttpStatus.UNAUTHORIZED);
+        }
+
+        // Descarte estructural sin excepciones antes de cualquier trabajo criptográfico
+        TokenPrecheck.Result precheck = TokenPrecheck.check(token, now);
+        if (!precheck.accepted()) {
+            return reject(exchange, chain, optional, digest, precheck.rejection(), now);
+        }
+
+        SigningKeyRing.KeyEntry key = keyRing.byKid(precheck.kid());
+        if (key == null) {
+            return reject(exchange, chain, optional, digest, RejectionReason.UNKNOWN_KID, now);
+        }
+        if (!TokenPrecheck.algorithmMatches(precheck.alg(), key)) {
+            return reject(exchange, chain, optional, digest, RejectionReason.UNSUPPORTED_ALG, now);
+        }
+
+        // RSA/ECDSA es costoso: se verifica en el pool dedicado para no bloquear el event loop
+        if (key.asymmetric() && verificationExecutor.isOffloadEnabled()) {
+            Mono<VerifiedPrincipal> verification = verificationExecutor.submit(
+                    () -> VerifiedPrincipal.from(key.parser().parseSignedClaims(token).getPayload()));
+            // El resto de la cadena vuelve al event loop de la conexión en lugar de seguir en jwt-verify
+            Scheduler eventLoop = eventLoop(request);
+            if (eventLoop != null) {
+                verification = verification.publishOn(eventLoop);
             }
+            return verification
+                    .materialize()
+                    .flatMap(signal -> {
+                        if (signal.hasValue()) {
+                            tokenCache.put(digest, signal.get(), now);
+                            exchange.getAttributes().put(RequestLog.AUTH_ATTRIBUTE, "verified");
+                            return authenticated(exchange, chain, optional, token, signal.get(), digest, now);
+                        }
+                        if (signal.getThrowable() instanceof RejectedExecutionException) {
+                            if (verbose) {
+                                log.warn("Pool de verificación JWT saturado, rechazando ruta: {}", path);
+                            }
+                            exchange.getAttributes().put(RequestLog.AUTH_ATTRIBUTE, "saturated");
+                            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                            return onError(exchange, "Verificación JWT saturada", HttpStatus.SERVICE_UNAVAILABLE);
+                        }
+                        return reject(exchange, chain, optional, digest, RejectionReason.from(signal.getThrowable()), now);
+                    });
+        }
 
-            log.info("Token JWT validado correctamente para ruta: {}", path);
+        VerifiedPrincipal principal;
+        try {
+            principal = VerifiedPrincipal.from(key.parser().parseSignedClaims(token).getPayload());
+        } catch (Exception e) {
+            return reject(exchange, chain, optional, digest, RejectionReason.from(e), now);
+        }
+        tokenCache.put(digest, principal, now);
+        exchange.getAttributes().put(RequestLog.AUTH_ATTRIBUTE, "verified");
+        return authenticated(exchange, chain, optional, token, principal, digest, now);
+    }
 
-            // Extraer información del usuario del token
-            Claims claims = getClaimsFromToken(token);
-            String email = claims.getSubject();
+    private Mono<Void> authenticated(ServerWebExchange exchange, WebFilterChain chain, boolean optional, String token,
+            VerifiedPrincipal principal, TokenDigest digest, long now) {
+        // Revocación: se consulta también en aciertos de caché
+        if (revocations.isRevoked(principal)) {
+            tokenCache.invalidate(digest);
+            return reject(exchange, chain, optional, digest, RejectionReason.REVOKED, now);
+        }
 
-            log.info("Usuario extraído del token: {}", email);
+        // Extraer información del usuario del token
+        String email = principal.subject();
 
-            // Agregar headers para los microservicios downstream
-            ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-User-Email", email)
-                    .header("Authorization", "Bearer " + token)
-                    .build();
+        if (verbose) {
+            log.info("Token JWT validado correctamente para ruta: {}", exchange.getRequest().getURI().getPath());
+            log.info("Usuario extraído del token: {}", email);
+        }
 
-            ServerWebExchange modifiedExchange = exchange.mutate()
-                    .request(modifiedRequest)
-                    .build();
+        // Agregar headers para los microservicios downstream
+        ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
+                .header("X-User-Email", email)
+                .header("Authorization", "Bearer " + token)
+                .build();
 
-            log.info("Petición modificada con headers JWT, enviando a microservicio downstream");
+        ServerWebExchange modifiedExchange = exchange.mutate()
+                .request(modifiedRequest)
+                .build();
 
-            return chain.filter(modifiedExchange);
+        // Identidad verificada para los controladores locales (sin volver a parsear el token)
+        modifiedExchange.getAttributes().put(VerifiedPrincipal.ATTRIBUTE, principal);
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(email, null, List.of());
+        authentication.setDetails(principal);
 
-        } catch (Exception e) {
-            log.error("Error al validar JWT para ruta {}: ", path, e);
-            return onError(exchange, "Error al validar token", HttpStatus.UNAUTHORIZED);
+        if (verbose) {
+            log.info("Petición modificada con headers JWT, enviando a microservicio downstream");
         }
+
+        return chain.filter(modifiedExchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
     }
 
-    private boolean isPublicPath(String path) {
-        List<String> publicPaths = List.of(
-                "/api/auth/login",
-                "/api/auth/register", 
-                "/api/auth/validate",
-                "/api/auth/check-email",
-                "/api/products",  // Acceso público a productos
-                "/api/products/portadas",
-                "/api/health",    // Endpoint de salud público
-                "/portadas",
-                "/uploads",
-                "/actuator",
-                "/eureka");
-
-        return publicPaths.stream().anyMatch(path::startsWith);
+    // Event loop de Netty que atiende la conexión; null fuera de Reactor Netty (tests, benchmarks)
+    private static Scheduler eventLoop(ServerHttpRequest request) {
+        Object nativeRequest;
+        try {
+            nativeRequest = ServerHttpRequestDecorator.getNativeRequest(request);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return null;
+        }
+        if (nativeRequest instanceof Connection connection) {
+            return EVENT_LOOP_SCHEDULERS.computeIfAbsent(connection.channel().eventLoop(), Schedulers::fromExecutor);
+        }
+        return null;
     }
 
     private String extractToken(ServerHttpRequest request) {
@@ -111,33 +249,22 @@ public class JwtAuthenticationFilter implements WebFilter {
         return null;
     }
 
-    private boolean validateToken(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            log.error("Error validando token JWT: ", e);
-            return false;
+    // Los rechazos se cuentan por motivo en lugar de registrarse uno por uno; en rutas
+    // de autenticación opcional la petición continúa sin identidad
+    private Mono<Void> reject(ServerWebExchange exchange, WebFilterChain chain, boolean optional,
+            TokenDigest digest, RejectionReason reason, long now) {
+        rejections.reject(digest, reason, now);
+        exchange.getAttributes().put(RequestLog.AUTH_ATTRIBUTE, reason.tag());
+        if (optional) {
+            return chain.filter(exchange);
         }
-    }
-
-    private Claims getClaimsFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return onError(exchange, "Token JWT inválido", HttpStatus.UNAUTHORIZED);
     }
 
     private Mono<Void> onError(ServerWebExchange exchange, String message, HttpStatus status) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(status);
-        log.error("Error de autenticación: {}", message);
+        log.debug("Error de autenticación: {}", message);
         return response.setComplete();
     }
 }
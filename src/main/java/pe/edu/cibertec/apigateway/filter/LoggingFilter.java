@@ -1,11 +1,23 @@
 package pe.edu.cibertec.apigateway.filter;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pe.edu.cibertec.apigateway.accesslog.BinaryAccessLog;
+import pe.edu.cibertec.apigateway.diagnostics.RequestLog;
+import pe.edu.cibertec.apigateway.metrics.LatencyHistogram;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import pe.edu.cibertec.apigateway.metrics.StageTimer;
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
 import reactor.core.publisher.Mono;
 
 @Component
@@ -13,20 +25,40 @@ public class LoggingFilter extends AbstractGatewayFilterFactory<LoggingFilter.Co
     
     private final Logger logger = LoggerFactory.getLogger(LoggingFilter.class);
     
-    public LoggingFilter() {
+    private final LatencyRecorder latency;
+    private final LatencyHistogram stageLatency;
+    // En modo SAMPLED la petición se resume en un único evento de RequestLogFilter
+    private final boolean verbose;
+    // Con gateway.access-log.format=BINARY reemplaza las dos líneas de texto por petición
+    private final BinaryAccessLog accessLog;
+    
+    public LoggingFilter(LatencyRecorder latency, RequestLog requestLog, BinaryAccessLog accessLog) {
         super(Config.class);
+        this.latency = latency;
+        this.accessLog = accessLog;
+        this.verbose = requestLog.verbose();
+        this.stageLatency = latency.stage(LatencyRecorder.STAGE_LOGGING);
     }
     
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
+            StageTimer timer = latency.start(stageLatency);
+            GatewayFilterChain next = timer != null ? timer.wrap(chain) : chain;
+            if (accessLog.isEnabled()) {
+                long start = System.nanoTime();
+                return next.filter(exchange).doFinally(signal -> recordAccess(exchange, start));
+            }
+            if (!verbose) {
+                return next.filter(exchange);
+            }
             ServerHttpRequest request = exchange.getRequest();
             logger.info("Gateway Request: {} {} from {}", 
                        request.getMethod(), 
                        request.getURI(), 
                        request.getRemoteAddress());
             
-            return chain.filter(exchange).then(
+            return next.filter(exchange).then(
                 Mono.fromRunnable(() -> {
                     logger.info("Gateway Response: {} {} completed with status {}", 
                                request.getMethod(), 
@@ -37,6 +69,23 @@ public class LoggingFilter extends AbstractGatewayFilterFactory<LoggingFilter.Co
         };
     }
     
+    private void recordAccess(ServerWebExchange exchange, long startNanos) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        VerifiedPrincipal principal = exchange.getAttribute(VerifiedPrincipal.ATTRIBUTE);
+        HttpStatusCode status = response.getStatusCode();
+        accessLog.record(
+                System.currentTimeMillis(),
+                route != null ? route.getId() : null,
+                request.getMethod().name(),
+                status != null ? status.value() : 0,
+                (System.nanoTime() - startNanos) / 1000,
+                request.getHeaders().getContentLength(),
+                response.getHeaders().getContentLength(),
+                principal != null ? principal.subject() : null);
+    }
+    
     public static class Config {
         // Configuración del filtro si es necesaria
         private String message;
@@ -0,0 +1,44 @@
+package pe.edu.cibertec.apigateway.loadbalancer;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Mide la latencia de cada llamada a una instancia elegida por
+ * {@link PeakEwmaLoadBalancer}: desde justo después de la elección hasta que
+ * NettyRoutingFilter recibe las cabeceras de la respuesta.
+ */
+@Component
+public class InstanceLatencyFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!(exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR) instanceof PeakEwmaLoadBalancer.Choice choice)) {
+            return chain.filter(exchange);
+        }
+        long start = choice.start();
+        return chain.filter(exchange).doFinally(signal -> {
+            if (signal == SignalType.CANCEL) {
+                choice.cancel();
+                return;
+            }
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            choice.complete(start, signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError()));
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,74 @@
+package pe.edu.cibertec.apigateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Estado de carga de una instancia, sin bloqueos: estimación peak-EWMA de la
+ * latencia y peticiones en curso.
+ * <p>
+ * Una muestra mayor que la estimación la reemplaza de inmediato (pico); una
+ * menor se mezcla con peso según el tiempo transcurrido desde la anterior. Al
+ * leerla la estimación decae hacia cero, de modo que una instancia que dejó de
+ * recibir tráfico por lenta vuelve a probarse pasado un tiempo.
+ */
+final class InstanceLoad {
+
+    private final double decayNanos;
+    private final long addedAt;
+    private final AtomicReference<Estimate> estimate;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    InstanceLoad(double decayNanos, long defaultRttNanos, long addedAt) {
+        this.decayNanos = decayNanos;
+        this.addedAt = addedAt;
+        this.estimate = new AtomicReference<>(new Estimate(defaultRttNanos, addedAt, false));
+    }
+
+    /** Latencia estimada por la carga en curso; menor es mejor. */
+    double cost(long now) {
+        Estimate current = estimate.get();
+        double rtt = current.rttNanos() * Math.exp(-Math.max(0, now - current.stamp()) / decayNanos);
+        return Math.max(rtt, 1.0) * (inFlight.get() + 1);
+    }
+
+    long addedAt() {
+        return addedAt;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    /** Latencia estimada sin carga, en nanosegundos (para métricas). */
+    double rttNanos() {
+        return estimate.get().rttNanos();
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    void cancelled() {
+        inFlight.decrementAndGet();
+    }
+
+    void completed(long rttNanos, long now) {
+        inFlight.decrementAndGet();
+        Estimate current;
+        Estimate next;
+        do {
+            current = estimate.get();
+            // La latencia por defecto es solo una suposición: la primera muestra la reemplaza
+            if (!current.measured() || rttNanos > current.rttNanos()) {
+                next = new Estimate(rttNanos, now, true);
+            } else {
+                double weight = Math.exp(-Math.max(0, now - current.stamp()) / decayNanos);
+                next = new Estimate(current.rttNanos() * weight + rttNanos * (1 - weight), now, true);
+            }
+        } while (!estimate.compareAndSet(current, next));
+    }
+
+    private record Estimate(double rttNanos, long stamp, boolean measured) {
+    }
+}
@@ -0,0 +1,227 @@
+package pe.edu.cibertec.apigateway.loadbalancer;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Balanceador de un servicio {@code lb://}: toma dos instancias al azar y
+ * elige la de menor costo, donde el costo es la latencia peak-EWMA por
+ * (peticiones en curso + 1). Las instancias que aparecen después de la
+ * primera lista recibida entran con un peso reducido que crece linealmente
+ * durante {@code slow-start}.
+ * <p>
+ * La latencia la registra {@link InstanceLatencyFilter} a partir del
+ * {@link Choice} que devuelve {@link #choose}.
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final MeterRegistry registry;
+    private final LongSupplier clock;
+    private final double decayNanos;
+    private final long defaultRttNanos;
+    private final long failurePenaltyNanos;
+    private final long slowStartNanos;
+    private final double minWeight;
+
+    private final Map<String, Tracked> instances = new ConcurrentHashMap<>();
+    private volatile List<ServiceInstance> lastInstances;
+
+    public PeakEwmaLoadBalancer(String serviceId, ObjectProvider<ServiceInstanceListSupplier> suppliers,
+            PeakEwmaProperties properties, MeterRegistry registry) {
+        this(serviceId, suppliers, properties, registry, System::nanoTime);
+    }
+
+    PeakEwmaLoadBalancer(String serviceId, ObjectProvider<ServiceInstanceListSupplier> suppliers,
+            PeakEwmaProperties properties, MeterRegistry registry, LongSupplier clock) {
+        this.serviceId = serviceId;
+        this.suppliers = suppliers;
+        this.registry = registry;
+        this.clock = clock;
+        this.decayNanos = Math.max(1, properties.getDecay().toNanos());
+        this.defaultRttNanos = properties.getDefaultRtt().toNanos();
+        this.failurePenaltyNanos = properties.getFailurePenalty().toNanos();
+        this.slowStartNanos = properties.getSlowStart().toNanos();
+        this.minWeight = Math.min(1.0, Math.max(0.01, properties.getSlowStartMinWeight()));
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::pick);
+    }
+
+    Response<ServiceInstance> pick(List<ServiceInstance> candidates) {
+        if (candidates.isEmpty()) {
+            return new EmptyResponse();
+        }
+        long now = clock.getAsLong();
+        if (candidates != lastInstances) {
+            refresh(candidates, now);
+        }
+        int size = candidates.size();
+        if (size == 1) {
+            return choice(candidates.get(0), now);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        Tracked a = tracked(candidates.get(first), now);
+        Tracked b = tracked(candidates.get(second), now);
+        Tracked best = score(a.load, now) <= score(b.load, now) ? a : b;
+        return new Choice(best.instance, best.load, this);
+    }
+
+    private Choice choice(ServiceInstance instance, long now) {
+        return new Choice(instance, tracked(instance, now).load, this);
+    }
+
+    // Durante la rampa el costo se divide por un peso que va de min-weight a 1
+    private double score(InstanceLoad load, long now) {
+        double cost = load.cost(now);
+        if (slowStartNanos <= 0) {
+            return cost;
+        }
+        long age = now - load.addedAt();
+        if (age >= slowStartNanos) {
+            return cost;
+        }
+        return cost / Math.max(minWeight, (double) age / slowStartNanos);
+    }
+
+    private Tracked tracked(ServiceInstance instance, long now) {
+        Tracked tracked = instances.get(key(instance));
+        if (tracked == null) {
+            // La lista cambió entre refresh y la elección: se registra como nueva
+            tracked = instances.computeIfAbsent(key(instance), key -> register(key, instance, now));
+        }
+        return tracked;
+    }
+
+    // Se ejecuta solo cuando el proveedor entrega una lista distinta (normalmente cacheada)
+    private synchronized void refresh(List<ServiceInstance> candidates, long now) {
+        if (candidates == lastInstances) {
+            return;
+        }
+        // Las instancias de la primera lista ya estaban registradas antes de arrancar el gateway
+        long addedAt = lastInstances == null ? now - slowStartNanos : now;
+        Set<String> current = new HashSet<>();
+        for (ServiceInstance instance : candidates) {
+            String key = key(instance);
+            current.add(key);
+            instances.computeIfAbsent(key, k -> register(k, instance, addedAt));
+        }
+        instances.entrySet().removeIf(entry -> {
+            if (current.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().unregister(registry);
+            return true;
+        });
+        lastInstances = candidates;
+    }
+
+    private Tracked register(String key, ServiceInstance instance, long addedAt) {
+        InstanceLoad load = new InstanceLoad(decayNanos, defaultRttNanos, addedAt);
+        Tracked tracked = new Tracked(instance, load);
+        if (registry != null) {
+            tracked.gauges = List.of(
+                    Gauge.builder("gateway.loadbalancer.latency.ewma", load, l -> l.rttNanos() / 1_000_000.0)
+                            .description("Latencia peak-EWMA de la instancia (ms)")
+                            .baseUnit("milliseconds")
+                            .tag("service", serviceId)
+                            .tag("instance", key)
+                            .register(registry),
+                    Gauge.builder("gateway.loadbalancer.in-flight", load, InstanceLoad::inFlight)
+                            .description("Peticiones en curso hacia la instancia")
+                            .tag("service", serviceId)
+                            .tag("instance", key)
+                            .register(registry));
+        }
+        return tracked;
+    }
+
+    private static String key(ServiceInstance instance) {
+        String id = instance.getInstanceId();
+        return id != null ? id : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static final class Tracked {
+        private final ServiceInstance instance;
+        private final InstanceLoad load;
+        private List<Gauge> gauges = List.of();
+
+        private Tracked(ServiceInstance instance, InstanceLoad load) {
+            this.instance = instance;
+            this.load = load;
+        }
+
+        private void unregister(MeterRegistry registry) {
+            gauges.forEach(registry::remove);
+        }
+    }
+
+    /** Instancia elegida; lleva el estado de carga donde se anotan inicio y fin de la llamada. */
+    public static final class Choice implements Response<ServiceInstance> {
+
+        private final ServiceInstance instance;
+        private final InstanceLoad load;
+        private final PeakEwmaLoadBalancer balancer;
+
+        private Choice(ServiceInstance instance, InstanceLoad load, PeakEwmaLoadBalancer balancer) {
+            this.instance = instance;
+            this.load = load;
+            this.balancer = balancer;
+        }
+
+        @Override
+        public boolean hasServer() {
+            return true;
+        }
+
+        @Override
+        public ServiceInstance getServer() {
+            return instance;
+        }
+
+        /** Marca la petición como en curso; devuelve el instante de inicio. */
+        public long start() {
+            load.started();
+            return balancer.clock.getAsLong();
+        }
+
+        /** Anota la latencia; un fallo cuenta al menos como {@code failure-penalty}. */
+        public void complete(long start, boolean failed) {
+            long now = balancer.clock.getAsLong();
+            long rtt = now - start;
+            load.completed(failed ? Math.max(rtt, balancer.failurePenaltyNanos) : rtt, now);
+        }
+
+        /** La petición se canceló antes de recibir respuesta: no deja muestra. */
+        public void cancel() {
+            load.cancelled();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package pe.edu.cibertec.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuración del contexto hijo que Spring Cloud LoadBalancer crea por
+ * servicio. No lleva {@code @Configuration} a propósito: solo la registra
+ * {@code LoadBalancerConfig}, para que cada servicio tenga su propio
+ * balanceador y estado. Con {@code strategy=ROUND_ROBIN} se usa el balanceador
+ * por defecto.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.loadbalancer.strategy", havingValue = "PEAK_EWMA", matchIfMissing = true)
+    public ReactorLoadBalancer<ServiceInstance> peakEwmaLoadBalancer(Environment environment,
+            LoadBalancerClientFactory clientFactory, PeakEwmaProperties properties,
+            ObjectProvider<MeterRegistry> registry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(serviceId,
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                properties, registry.getIfAvailable());
+    }
+}
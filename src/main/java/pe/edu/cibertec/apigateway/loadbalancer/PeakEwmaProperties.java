@@ -0,0 +1,83 @@
+package pe.edu.cibertec.apigateway.loadbalancer;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Balanceo de las rutas {@code lb://} por latencia ({@code gateway.loadbalancer.*}):
+ * peak-EWMA por instancia con elección entre dos candidatas al azar.
+ */
+@ConfigurationProperties(prefix = "gateway.loadbalancer")
+public class PeakEwmaProperties {
+
+    // PEAK_EWMA o ROUND_ROBIN (el balanceador por defecto de Spring Cloud)
+    private Strategy strategy = Strategy.PEAK_EWMA;
+
+    // Vida media aproximada de una muestra de latencia en la media móvil
+    private Duration decay = Duration.ofSeconds(10);
+
+    // Latencia supuesta para una instancia sin muestras
+    private Duration defaultRtt = Duration.ofMillis(30);
+
+    // Latencia mínima que se anota cuando la llamada falla o responde 5xx
+    private Duration failurePenalty = Duration.ofSeconds(1);
+
+    // Rampa de tráfico para instancias recién registradas (0 = sin rampa)
+    private Duration slowStart = Duration.ofSeconds(30);
+
+    // Peso con el que empieza una instancia nueva durante la rampa
+    private double slowStartMinWeight = 0.1;
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public Duration getDecay() {
+        return decay;
+    }
+
+    public void setDecay(Duration decay) {
+        this.decay = decay;
+    }
+
+    public Duration getDefaultRtt() {
+        return defaultRtt;
+    }
+
+    public void setDefaultRtt(Duration defaultRtt) {
+        this.defaultRtt = defaultRtt;
+    }
+
+    public Duration getFailurePenalty() {
+        return failurePenalty;
+    }
+
+    public void setFailurePenalty(Duration failurePenalty) {
+        this.failurePenalty = failurePenalty;
+    }
+
+    public Duration getSlowStart() {
+        return slowStart;
+    }
+
+    public void setSlowStart(Duration slowStart) {
+        this.slowStart = slowStart;
+    }
+
+    public double getSlowStartMinWeight() {
+        return slowStartMinWeight;
+    }
+
+    public void setSlowStartMinWeight(double slowStartMinWeight) {
+        this.slowStartMinWeight = slowStartMinWeight;
+    }
+
+    public enum Strategy {
+        PEAK_EWMA, ROUND_ROBIN
+    }
+}
@@ -0,0 +1,245 @@
+package pe.edu.cibertec.apigateway.loadbalancer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Copia local de las listas de instancias resueltas para los servicios
+ * {@code lb://} ({@code gateway.registry-snapshot.file}).
+ * <p>
+ * Al arrancar se carga el archivo y, mientras Eureka no haya devuelto ninguna
+ * lista con instancias, los balanceadores usan esas listas en lugar de
+ * responder 503. En cuanto llega la primera lista real el registro pasa a ser
+ * la única fuente; durante una caída posterior de Eureka el propio cliente
+ * conserva su caché. Las listas observadas se vuelcan al archivo cada
+ * {@code write-interval} si cambiaron, escribiendo un temporal y renombrándolo.
+ */
+@Component
+public class RegistrySnapshot implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrySnapshot.class);
+
+    private static final int MAGIC = 0x47575253; // "GWRS"
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path file;
+    private final long writeIntervalMillis;
+    private final long maxAgeMillis;
+    private final LongAdder fallbacks = new LongAdder();
+
+    // serviceId -> instancias y momento en que se observaron
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Última lista recibida por servicio, para no comparar contenidos en cada petición
+    private final Map<String, List<ServiceInstance>> lastSeen = new ConcurrentHashMap<>();
+    private volatile Map<String, List<ServiceInstance>> loaded = Map.of();
+    private volatile boolean registryLive;
+    private volatile boolean dirty;
+    private ScheduledExecutorService writer;
+
+    public RegistrySnapshot(
+            @Value("${gateway.registry-snapshot.file:}") String file,
+            @Value("${gateway.registry-snapshot.write-interval:30s}") Duration writeInterval,
+            @Value("${gateway.registry-snapshot.max-age:24h}") Duration maxAge) {
+        this.file = file == null || file.isBlank() ? null : Paths.get(file);
+        this.writeIntervalMillis = writeInterval.toMillis();
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (file == null) {
+            return;
+        }
+        load();
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "registry-snapshot-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(this::writeIfDirty, writeIntervalMillis, writeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (writer != null) {
+            writer.shutdownNow();
+            writeIfDirty();
+        }
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    /** Lista real entregada por el registro para el servicio. */
+    void observed(String serviceId, List<ServiceInstance> instances) {
+        if (file == null || instances.isEmpty() || lastSeen.get(serviceId) == instances) {
+            return;
+        }
+        registryLive = true;
+        lastSeen.put(serviceId, instances);
+        List<ServiceInstance> copy = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            copy.add(copyOf(serviceId, instance));
+        }
+        Entry previous = entries.put(serviceId, new Entry(List.copyOf(copy), System.currentTimeMillis()));
+        if (previous == null || !previous.instances().equals(copy)) {
+            dirty = true;
+        }
+    }
+
+    /** Instancias del archivo para el servicio, o vacío si el registro ya respondió. */
+    List<ServiceInstance> fallback(String serviceId) {
+        if (registryLive) {
+            return List.of();
+        }
+        List<ServiceInstance> instances = loaded.getOrDefault(serviceId, List.of());
+        if (!instances.isEmpty()) {
+            fallbacks.increment();
+        }
+        return instances;
+    }
+
+    synchronized void load() {
+        if (!Files.isRegularFile(file)) {
+            log.info("Sin snapshot del registro en {}, se espera a Eureka", file);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, List<ServiceInstance>> services = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedShort() != FORMAT_VERSION) {
+                throw new IOException("formato desconocido");
+            }
+            int serviceCount = in.readInt();
+            for (int s = 0; s < serviceCount; s++) {
+                String serviceId = in.readUTF();
+                long observedAt = in.readLong();
+                int instanceCount = in.readInt();
+                List<ServiceInstance> instances = new ArrayList<>(instanceCount);
+                for (int i = 0; i < instanceCount; i++) {
+                    instances.add(readInstance(in, serviceId));
+                }
+                if (now - observedAt <= maxAgeMillis) {
+                    services.put(serviceId, List.copyOf(instances));
+                    entries.putIfAbsent(serviceId, new Entry(List.copyOf(instances), observedAt));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot del registro {} ilegible, se ignora: {}", file, e.getMessage());
+            return;
+        }
+        loaded = Map.copyOf(services);
+        log.info("Snapshot del registro cargado desde {}: {} servicios", file, services.size());
+    }
+
+    synchronized void writeIfDirty() {
+        if (file == null || !dirty) {
+            return;
+        }
+        dirty = false;
+        long now = System.currentTimeMillis();
+        Map<String, Entry> current = new LinkedHashMap<>();
+        entries.forEach((serviceId, entry) -> {
+            if (now - entry.observedAt() <= maxAgeMillis) {
+                current.put(serviceId, entry);
+            }
+        });
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeInt(current.size());
+                for (Map.Entry<String, Entry> service : current.entrySet()) {
+                    out.writeUTF(service.getKey());
+                    out.writeLong(service.getValue().observedAt());
+                    out.writeInt(service.getValue().instances().size());
+                    for (ServiceInstance instance : service.getValue().instances()) {
+                        writeInstance(out, instance);
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("No se pudo escribir el snapshot del registro {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void writeInstance(DataOutputStream out, ServiceInstance instance) throws IOException {
+        out.writeUTF(instance.getInstanceId() == null ? "" : instance.getInstanceId());
+        out.writeUTF(instance.getHost());
+        out.writeInt(instance.getPort());
+        out.writeBoolean(instance.isSecure());
+        Map<String, String> metadata = instance.getMetadata();
+        out.writeShort(metadata.size());
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue() == null ? "" : entry.getValue());
+        }
+    }
+
+    private static ServiceInstance readInstance(DataInputStream in, String serviceId) throws IOException {
+        String instanceId = in.readUTF();
+        String host = in.readUTF();
+        int port = in.readInt();
+        boolean secure = in.readBoolean();
+        int metadataCount = in.readUnsignedShort();
+        Map<String, String> metadata = new LinkedHashMap<>();
+        for (int i = 0; i < metadataCount; i++) {
+            metadata.put(in.readUTF(), in.readUTF());
+        }
+        return new DefaultServiceInstance(instanceId.isEmpty() ? null : instanceId, serviceId, host, port, secure,
+                metadata);
+    }
+
+    private static ServiceInstance copyOf(String serviceId, ServiceInstance instance) {
+        return new DefaultServiceInstance(instance.getInstanceId(), serviceId, instance.getHost(),
+                instance.getPort(), instance.isSecure(), new LinkedHashMap<>(instance.getMetadata()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.registry.snapshot.fallbacks", fallbacks, LongAdder::sum)
+                .description("Elecciones de instancia resueltas con el snapshot local del registro")
+                .register(registry);
+    }
+
+    private record Entry(List<ServiceInstance> instances, long observedAt) {
+    }
+}
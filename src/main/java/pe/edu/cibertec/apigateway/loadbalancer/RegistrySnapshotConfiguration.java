@@ -0,0 +1,28 @@
+package pe.edu.cibertec.apigateway.loadbalancer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Configuración del contexto hijo de cada servicio: la cadena por defecto de
+ * Spring Cloud (discovery + caché) envuelta por
+ * {@link SnapshotServiceInstanceListSupplier} (que no hace nada si
+ * {@code gateway.registry-snapshot.file} está vacío). Como
+ * {@link PeakEwmaLoadBalancerConfiguration}, no lleva {@code @Configuration}.
+ */
+public class RegistrySnapshotConfiguration {
+
+    @Bean
+    @ConditionalOnBean(ReactiveDiscoveryClient.class)
+    public ServiceInstanceListSupplier snapshotServiceInstanceListSupplier(ConfigurableApplicationContext context,
+            RegistrySnapshot snapshot) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .withCaching()
+                .with((ctx, delegate) -> new SnapshotServiceInstanceListSupplier(delegate, snapshot))
+                .build(context);
+    }
+}
@@ -0,0 +1,38 @@
+package pe.edu.cibertec.apigateway.loadbalancer;
+
+import java.util.List;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Entrega la lista del registro y la anota en el {@link RegistrySnapshot};
+ * si llega vacía antes de que el registro haya respondido, usa la del
+ * snapshot.
+ */
+public class SnapshotServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private final RegistrySnapshot snapshot;
+
+    public SnapshotServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, RegistrySnapshot snapshot) {
+        super(delegate);
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(this::resolve);
+    }
+
+    private List<ServiceInstance> resolve(List<ServiceInstance> instances) {
+        if (!instances.isEmpty()) {
+            snapshot.observed(getServiceId(), instances);
+            return instances;
+        }
+        List<ServiceInstance> fallback = snapshot.fallback(getServiceId());
+        return fallback.isEmpty() ? instances : fallback;
+    }
+}
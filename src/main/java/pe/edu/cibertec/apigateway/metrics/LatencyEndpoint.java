@@ -0,0 +1,65 @@
+package pe.edu.cibertec.apigateway.metrics;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/latency}: percentiles p50/p90/p99/p999 (en milisegundos)
+ * por etapa y por ruta para cada ventana deslizante configurada.
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String[] LABELS = { "p50", "p90", "p99", "p999" };
+
+    private final LatencyRecorder recorder;
+
+    public LatencyEndpoint(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> latency() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("enabled", recorder.isEnabled());
+        response.put("stages", report(recorder.stages()));
+        response.put("routes", report(recorder.routes()));
+        return response;
+    }
+
+    private Map<String, Object> report(Map<String, LatencyHistogram> histograms) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        histograms.forEach((name, histogram) -> {
+            Map<String, Object> byWindow = new LinkedHashMap<>();
+            for (Duration window : recorder.windows()) {
+                byWindow.put(format(window), summary(histogram.snapshot(recorder.intervalsFor(window))));
+            }
+            report.put(name, byWindow);
+        });
+        return report;
+    }
+
+    private static Map<String, Object> summary(LatencyHistogram.Snapshot snapshot) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", snapshot.total());
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            // Microsegundos a milisegundos con tres decimales
+            summary.put(LABELS[i], Math.round(snapshot.percentile(PERCENTILES[i])) / 1000.0);
+        }
+        return summary;
+    }
+
+    private static String format(Duration window) {
+        if (window.toSeconds() % 60 == 0) {
+            return window.toMinutes() + "m";
+        }
+        return window.toSeconds() + "s";
+    }
+}
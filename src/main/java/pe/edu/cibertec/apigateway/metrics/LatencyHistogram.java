@@ -0,0 +1,140 @@
+package pe.edu.cibertec.apigateway.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias estilo HDR (buckets log-lineales en microsegundos,
+ * ~3% de error relativo hasta ~2^27 µs) sobre una ventana deslizante de
+ * intervalos. Cada intervalo tiene una franja de contadores por núcleo para
+ * que los hilos del event loop registren sin locks ni contención.
+ */
+public class LatencyHistogram {
+
+    // 16 buckets por potencia de dos: índice = shift * 16 + (valor >>> shift)
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int MAX_SHIFT = 22;
+    static final int BUCKETS = (MAX_SHIFT + 1) * HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << (MAX_SHIFT + SUB_BUCKET_BITS)) - 1;
+
+    private final Interval[] intervals;
+    private final long intervalNanos;
+    private final int stripeMask;
+
+    public LatencyHistogram(long intervalNanos, int intervals, int stripes) {
+        this.intervalNanos = intervalNanos;
+        this.stripeMask = stripes - 1;
+        this.intervals = new Interval[intervals];
+        for (int i = 0; i < intervals; i++) {
+            this.intervals[i] = new Interval(stripes * BUCKETS);
+        }
+    }
+
+    public void record(long elapsedNanos) {
+        record(elapsedNanos, System.nanoTime());
+    }
+
+    // Para quien ya tiene la marca de tiempo final y quiere evitar otra llamada a nanoTime
+    void record(long elapsedNanos, long nowNanos) {
+        long epoch = nowNanos / intervalNanos;
+        Interval interval = intervals[(int) Math.floorMod(epoch, (long) intervals.length)];
+        long current = interval.epoch.get();
+        if (current != epoch) {
+            if (current > epoch) {
+                return; // registro rezagado de un intervalo ya reutilizado
+            }
+            if (interval.epoch.compareAndSet(current, epoch)) {
+                interval.clear();
+            }
+        }
+        int stripe = (int) Thread.currentThread().threadId() & stripeMask;
+        interval.counts.incrementAndGet(stripe * BUCKETS + bucket(elapsedNanos / 1000));
+    }
+
+    /**
+     * Suma los contadores de los últimos {@code windowIntervals} intervalos
+     * (incluido el actual) en un histograma plano.
+     */
+    public Snapshot snapshot(int windowIntervals) {
+        return snapshot(windowIntervals, System.nanoTime());
+    }
+
+    Snapshot snapshot(int windowIntervals, long nowNanos) {
+        long epoch = nowNanos / intervalNanos;
+        long oldest = epoch - Math.min(windowIntervals, intervals.length) + 1;
+        long[] merged = new long[BUCKETS];
+        long total = 0;
+        for (Interval interval : intervals) {
+            long e = interval.epoch.get();
+            if (e < oldest || e > epoch) {
+                continue;
+            }
+            AtomicLongArray counts = interval.counts;
+            for (int i = 0, n = counts.length(); i < n; i++) {
+                long c = counts.get(i);
+                if (c != 0) {
+                    merged[i % BUCKETS] += c;
+                    total += c;
+                }
+            }
+        }
+        return new Snapshot(merged, total);
+    }
+
+    static int bucket(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        int bits = 64 - Long.numberOfLeadingZeros(value);
+        if (bits <= SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        int shift = bits - SUB_BUCKET_BITS;
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    // Valor representativo (punto medio) del bucket, en microsegundos
+    static double midpoint(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / HALF_SUB_BUCKETS - 1;
+        long low = (long) (bucket - shift * HALF_SUB_BUCKETS) << shift;
+        return low + ((1L << shift) - 1) / 2.0;
+    }
+
+    public record Snapshot(long[] counts, long total) {
+
+        /** Percentil en microsegundos; 0 si la ventana está vacía. */
+        public double percentile(double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return midpoint(i);
+                }
+            }
+            return midpoint(counts.length - 1);
+        }
+    }
+
+    private static final class Interval {
+
+        private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLongArray counts;
+
+        private Interval(int length) {
+            this.counts = new AtomicLongArray(length);
+        }
+
+        private void clear() {
+            for (int i = 0, n = counts.length(); i < n; i++) {
+                counts.lazySet(i, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package pe.edu.cibertec.apigateway.metrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registro central de histogramas de latencia por etapa (filtros y llamada
+ * upstream) y por ruta del gateway. Los histogramas se crean al primer uso;
+ * los filtros guardan la referencia de su etapa para no buscarla por petición.
+ */
+@Component
+public class LatencyRecorder {
+
+    public static final String STAGE_CORS = "cors";
+    public static final String STAGE_JWT = "jwt";
+    public static final String STAGE_LOGGING = "logging";
+    public static final String STAGE_UPSTREAM = "upstream";
+
+    private final boolean enabled;
+    private final long intervalNanos;
+    private final int intervals;
+    private final int stripes;
+    private final List<Duration> windows;
+
+    private final ConcurrentHashMap<String, LatencyHistogram> stages = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> routes = new ConcurrentHashMap<>();
+
+    public LatencyRecorder(
+            @Value("${gateway.latency.enabled:true}") boolean enabled,
+            @Value("${gateway.latency.interval:10s}") Duration interval,
+            @Value("${gateway.latency.windows:1m,5m}") List<Duration> windows) {
+        this.enabled = enabled;
+        this.intervalNanos = interval.toNanos();
+        this.windows = List.copyOf(windows);
+        long longest = windows.stream().mapToLong(Duration::toNanos).max().orElse(intervalNanos);
+        this.intervals = (int) Math.max(1, (longest + intervalNanos - 1) / intervalNanos);
+        // Una franja por núcleo (potencia de dos) para que los event loops no compartan contadores
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.stripes = Integer.highestOneBit(Math.max(1, cores - 1)) << 1;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public LatencyHistogram stage(String name) {
+        return stages.computeIfAbsent(name, k -> newHistogram());
+    }
+
+    public LatencyHistogram route(String routeId) {
+        return routes.computeIfAbsent(routeId, k -> newHistogram());
+    }
+
+    /**
+     * Inicia la medición de una etapa; devuelve {@code null} si la
+     * instrumentación está deshabilitada.
+     */
+    public StageTimer start(LatencyHistogram histogram) {
+        return enabled ? new StageTimer(histogram, System.nanoTime()) : null;
+    }
+
+    public List<Duration> windows() {
+        return windows;
+    }
+
+    public Map<String, LatencyHistogram> stages() {
+        return new TreeMap<>(stages);
+    }
+
+    public Map<String, LatencyHistogram> routes() {
+        return new TreeMap<>(routes);
+    }
+
+    public int intervalsFor(Duration window) {
+        return (int) Math.max(1, (window.toNanos() + intervalNanos - 1) / intervalNanos);
+    }
+
+    private LatencyHistogram newHistogram() {
+        return new LatencyHistogram(intervalNanos, intervals, stripes);
+    }
+}
@@ -0,0 +1,76 @@
+package pe.edu.cibertec.apigateway.metrics;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Latencia total por ruta (desde el primer filtro global hasta que se
+ * completa la respuesta) y latencia de la llamada upstream, medida justo
+ * antes de NettyRoutingFilter.
+ */
+@Component
+public class RouteLatencyFilter implements GlobalFilter, Ordered {
+
+    private final LatencyRecorder recorder;
+
+    public RouteLatencyFilter(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!recorder.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        LatencyHistogram histogram = recorder.route(route.getId());
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            long now = System.nanoTime();
+            histogram.record(now - start, now);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    /** Tiempo hasta recibir la respuesta del servicio destino. */
+    @Component
+    public static class Upstream implements GlobalFilter, Ordered {
+
+        private final LatencyRecorder recorder;
+        private final LatencyHistogram histogram;
+
+        public Upstream(LatencyRecorder recorder) {
+            this.recorder = recorder;
+            this.histogram = recorder.stage(LatencyRecorder.STAGE_UPSTREAM);
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            if (!recorder.isEnabled()) {
+                return chain.filter(exchange);
+            }
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+            long now = System.nanoTime();
+            histogram.record(now - start, now);
+        });
+        }
+
+        @Override
+        public int getOrder() {
+            // NettyRoutingFilter usa Ordered.LOWEST_PRECEDENCE
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+    }
+}
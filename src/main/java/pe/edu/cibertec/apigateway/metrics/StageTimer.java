@@ -0,0 +1,43 @@
+package pe.edu.cibertec.apigateway.metrics;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * Mide el tiempo propio de un filtro: desde que entra hasta que delega en la
+ * cadena, o hasta que termina si responde él mismo (p. ej. un 401). Solo se
+ * registra la primera de las dos marcas.
+ */
+public final class StageTimer {
+
+    private final LatencyHistogram histogram;
+    private final long startNanos;
+    private boolean stopped;
+
+    StageTimer(LatencyHistogram histogram, long startNanos) {
+        this.histogram = histogram;
+        this.startNanos = startNanos;
+    }
+
+    public void stop() {
+        if (!stopped) {
+            stopped = true;
+            long now = System.nanoTime();
+            histogram.record(now - startNanos, now);
+        }
+    }
+
+    public WebFilterChain wrap(WebFilterChain chain) {
+        return exchange -> {
+            stop();
+            return chain.filter(exchange);
+        };
+    }
+
+    public GatewayFilterChain wrap(GatewayFilterChain chain) {
+        return exchange -> {
+            stop();
+            return chain.filter(exchange);
+        };
+    }
+}
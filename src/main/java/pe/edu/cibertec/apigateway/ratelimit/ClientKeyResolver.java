@@ -0,0 +1,37 @@
+package pe.edu.cibertec.apigateway.ratelimit;
+
+import java.net.InetSocketAddress;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+import reactor.core.publisher.Mono;
+
+/**
+ * Clave del rate limit: el sujeto del JWT verificado (el mismo valor que
+ * JwtAuthenticationFilter envía en {@code X-User-Email}) o, sin identidad, la
+ * IP del cliente. Se lee del atributo del exchange y no de la cabecera, que en
+ * rutas públicas podría venir del propio cliente.
+ */
+@Component
+public class ClientKeyResolver implements KeyResolver {
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return Mono.just(key(exchange));
+    }
+
+    static String key(ServerWebExchange exchange) {
+        VerifiedPrincipal principal = exchange.getAttribute(VerifiedPrincipal.ATTRIBUTE);
+        if (principal != null && principal.subject() != null) {
+            return "user:" + principal.subject();
+        }
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        if (remote == null) {
+            return "ip:unknown";
+        }
+        return "ip:" + (remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString());
+    }
+}
@@ -0,0 +1,139 @@
+package pe.edu.cibertec.apigateway.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementación en memoria de {@link RateLimiter} para el filtro
+ * {@code RequestRateLimiter} del gateway, sin Redis: un {@link TokenBuckets}
+ * por ruta, con el límite de {@code gateway.rate-limit.routes.<id>} o el de
+ * {@code gateway.rate-limit.defaults}.
+ * <p>
+ * Las respuestas llevan {@code RateLimit-Limit}, {@code RateLimit-Remaining} y
+ * {@code RateLimit-Reset} (segundos hasta que el bucket esté lleno); las
+ * rechazadas además {@code Retry-After}. Los límites son por instancia del
+ * gateway.
+ */
+@Component
+public class LocalRateLimiter implements RateLimiter<RateLimitProperties.Limit>, MeterBinder {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    private final RateLimitProperties properties;
+    private final Map<String, TokenBuckets> routes = new ConcurrentHashMap<>();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+    private ScheduledExecutorService sweeper;
+
+    public LocalRateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = properties.getIdleSweepInterval().toMillis();
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rate-limit-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        TokenBuckets.Decision decision = buckets(routeId).tryConsume(id, System.nanoTime());
+        (decision.allowed() ? allowed : denied).increment();
+        return Mono.just(new Response(decision.allowed(), headers(decision)));
+    }
+
+    private TokenBuckets buckets(String routeId) {
+        TokenBuckets buckets = routes.get(routeId);
+        if (buckets == null) {
+            RateLimitProperties.Limit limit = properties.getRoutes().getOrDefault(routeId, properties.getDefaults());
+            buckets = routes.computeIfAbsent(routeId,
+                    id -> new TokenBuckets(limit.getCapacity(), limit.getRefillPerSecond()));
+        }
+        return buckets;
+    }
+
+    static Map<String, String> headers(TokenBuckets.Decision decision) {
+        Map<String, String> headers = new LinkedHashMap<>(4);
+        headers.put(LIMIT_HEADER, Integer.toString(decision.limit()));
+        headers.put(REMAINING_HEADER, Integer.toString(decision.remaining()));
+        headers.put(RESET_HEADER, Long.toString(seconds(decision.resetNanos())));
+        if (!decision.allowed()) {
+            headers.put(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, seconds(decision.retryNanos()))));
+        }
+        return headers;
+    }
+
+    private static long seconds(long nanos) {
+        return (Math.max(0, nanos) + 999_999_999L) / 1_000_000_000L;
+    }
+
+    void sweep() {
+        long now = System.nanoTime();
+        routes.values().forEach(buckets -> buckets.sweep(now));
+    }
+
+    private long keys() {
+        return routes.values().stream().mapToLong(TokenBuckets::size).sum();
+    }
+
+    @Override
+    public Map<String, RateLimitProperties.Limit> getConfig() {
+        return properties.getRoutes();
+    }
+
+    @Override
+    public Class<RateLimitProperties.Limit> getConfigClass() {
+        return RateLimitProperties.Limit.class;
+    }
+
+    @Override
+    public RateLimitProperties.Limit newConfig() {
+        return new RateLimitProperties.Limit();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.ratelimit.requests", allowed, LongAdder::sum)
+                .description("Peticiones evaluadas por el rate limiter local")
+                .tag("result", "allowed")
+                .register(registry);
+        FunctionCounter.builder("gateway.ratelimit.requests", denied, LongAdder::sum)
+                .description("Peticiones evaluadas por el rate limiter local")
+                .tag("result", "denied")
+                .register(registry);
+        Gauge.builder("gateway.ratelimit.keys", this, LocalRateLimiter::keys)
+                .description("Claves con bucket activo (no lleno)")
+                .register(registry);
+    }
+}
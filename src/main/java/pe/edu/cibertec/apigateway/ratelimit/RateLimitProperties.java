@@ -0,0 +1,73 @@
+package pe.edu.cibertec.apigateway.ratelimit;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Límites por usuario (o IP en rutas públicas) de {@link LocalRateLimiter}
+ * ({@code gateway.rate-limit.*}): un valor por defecto y ajustes por id de
+ * ruta.
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private Limit defaults = new Limit();
+
+    // Id de ruta -> límite propio
+    private Map<String, Limit> routes = new LinkedHashMap<>();
+
+    // Cada cuánto se descartan las claves cuyo bucket ya está lleno
+    private Duration idleSweepInterval = Duration.ofSeconds(30);
+
+    public Limit getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Limit defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Limit> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Limit> routes) {
+        this.routes = routes;
+    }
+
+    public Duration getIdleSweepInterval() {
+        return idleSweepInterval;
+    }
+
+    public void setIdleSweepInterval(Duration idleSweepInterval) {
+        this.idleSweepInterval = idleSweepInterval;
+    }
+
+    public static class Limit {
+
+        // Ráfaga máxima (tokens del bucket)
+        private int capacity = 100;
+
+        // Tokens repuestos por segundo
+        private double refillPerSecond = 50;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
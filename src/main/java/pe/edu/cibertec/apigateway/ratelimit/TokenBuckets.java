@@ -0,0 +1,87 @@
+package pe.edu.cibertec.apigateway.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets de una ruta, uno por clave, sin bloqueos.
+ * <p>
+ * Cada bucket es un único {@code long} con el "instante teórico de llegada"
+ * (GCRA): el momento en que el bucket volvería a estar lleno. Consumir un
+ * token es un CAS que lo adelanta un intervalo de emisión; no hace falta
+ * guardar tokens ni la hora de la última recarga. Un bucket cuyo instante ya
+ * pasó está lleno, así que se puede descartar sin cambiar el comportamiento:
+ * {@link #sweep} los retira marcándolos antes con un valor centinela para que
+ * ningún consumo concurrente se pierda.
+ */
+public final class TokenBuckets {
+
+    private static final long REMOVED = Long.MIN_VALUE;
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBuckets(int capacity, double refillPerSecond) {
+        this.capacity = Math.max(1, capacity);
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = intervalNanos * this.capacity;
+    }
+
+    /** Consume un token de la clave; {@code now} en nanosegundos de un reloj monótono. */
+    public Decision tryConsume(String key, long now) {
+        while (true) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                AtomicLong created = new AtomicLong(now);
+                bucket = buckets.putIfAbsent(key, created);
+                if (bucket == null) {
+                    bucket = created;
+                }
+            }
+            while (true) {
+                long full = bucket.get();
+                if (full == REMOVED) {
+                    // Retirado por sweep entre get y CAS: se crea uno nuevo
+                    buckets.remove(key, bucket);
+                    break;
+                }
+                long next = Math.max(full, now) + intervalNanos;
+                if (next - now > burstNanos) {
+                    return new Decision(false, capacity, 0, full - now, next - now - burstNanos);
+                }
+                if (bucket.compareAndSet(full, next)) {
+                    return new Decision(true, capacity, (int) ((burstNanos - (next - now)) / intervalNanos),
+                            next - now, 0);
+                }
+            }
+        }
+    }
+
+    /** Retira las claves cuyo bucket está lleno; devuelve cuántas. */
+    public int sweep(long now) {
+        int removed = 0;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            AtomicLong bucket = entry.getValue();
+            long full = bucket.get();
+            if (full != REMOVED && full <= now && bucket.compareAndSet(full, REMOVED)) {
+                buckets.remove(entry.getKey(), bucket);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * @param resetNanos  hasta que el bucket vuelva a estar lleno
+     * @param retryNanos  hasta que haya un token (0 si se permitió)
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryNanos) {
+    }
+}
@@ -0,0 +1,233 @@
+package pe.edu.cibertec.apigateway.routing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+
+/**
+ * Tabla de rutas leída de un archivo YAML o JSON local
+ * ({@code gateway.routes.file}) con el mismo esquema que
+ * {@code spring.cloud.gateway.server.webflux.routes}: id, uri, order,
+ * predicates y filters en forma corta o larga.
+ * <p>
+ * El archivo se revisa cada {@code gateway.routes.reload-interval}. Una
+ * recarga es todo o nada: si alguna ruta no se puede construir se conserva la
+ * tabla anterior. Cada tabla publicada lleva una versión nueva y las
+ * peticiones en curso conservan la ruta que ya se les asignó.
+ */
+@Component
+public class FileRouteSource implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(FileRouteSource.class);
+
+    private final Path file;
+    private final long reloadIntervalMillis;
+    private final ObjectMapper mapper;
+    private final List<RoutePredicateFactory> predicates;
+    private final List<GatewayFilterFactory> filters;
+    private final GatewayProperties gatewayProperties;
+    private final ConfigurationService configurationService;
+    private final LongAdder reloadFailures = new LongAdder();
+
+    private volatile RouteTable table = RouteTable.EMPTY;
+    // Último contenido procesado (publicado o rechazado): no se reintenta hasta que cambie
+    private byte[] lastDigest;
+    private ScheduledExecutorService reloader;
+
+    public FileRouteSource(
+            @Value("${gateway.routes.file:}") String file,
+            @Value("${gateway.routes.reload-interval:5s}") Duration reloadInterval,
+            ObjectMapper mapper,
+            List<RoutePredicateFactory> predicates,
+            List<GatewayFilterFactory> filters,
+            GatewayProperties gatewayProperties,
+            ConfigurationService configurationService) {
+        this.file = file == null || file.isBlank() ? null : Paths.get(file);
+        this.reloadIntervalMillis = reloadInterval.toMillis();
+        this.mapper = mapper;
+        this.predicates = predicates;
+        this.filters = filters;
+        this.gatewayProperties = gatewayProperties;
+        this.configurationService = configurationService;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (file == null) {
+            return;
+        }
+        reload();
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "route-table-reloader");
+            t.setDaemon(true);
+            return t;
+        });
+        reloader.scheduleWithFixedDelay(this::reload, reloadIntervalMillis, reloadIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    /** Tabla vigente; una lectura volátil por petición. */
+    public RouteTable current() {
+        return table;
+    }
+
+    /** Relee el archivo si cambió su contenido; devuelve {@code true} si publicó una tabla nueva. */
+    public synchronized boolean reload() {
+        try {
+            if (!Files.isRegularFile(file)) {
+                if (lastDigest != null) {
+                    log.warn("El archivo de rutas {} ya no existe, se mantiene la tabla v{}", file, table.version());
+                    lastDigest = null;
+                }
+                return false;
+            }
+            byte[] content = Files.readAllBytes(file);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            if (Arrays.equals(digest, lastDigest)) {
+                return false;
+            }
+            lastDigest = digest;
+            List<RouteDefinition> definitions = parse(content);
+            RouteTable next = build(definitions, table.version() + 1);
+            table = next;
+            log.info("Tabla de rutas v{} cargada desde {}: {} rutas", next.version(), file, next.size());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // Un error no debe cancelar las recargas programadas
+            reloadFailures.increment();
+            log.warn("No se pudo recargar la tabla de rutas {}, se mantiene la v{}: {}",
+                    file, table.version(), e.getMessage());
+            return false;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private List<RouteDefinition> parse(byte[] content) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        Object tree = name.endsWith(".yml") || name.endsWith(".yaml")
+                ? new Yaml(new SafeConstructor(new LoaderOptions())).load(new String(content, StandardCharsets.UTF_8))
+                : mapper.readValue(content, Object.class);
+        RouteFile routeFile = mapper.convertValue(tree, RouteFile.class);
+        if (routeFile == null || routeFile.routes() == null) {
+            throw new IllegalArgumentException("el archivo no contiene una lista 'routes'");
+        }
+        HashSet<String> ids = new HashSet<>();
+        for (RouteDefinition definition : routeFile.routes()) {
+            if (definition.getId() == null || definition.getUri() == null) {
+                throw new IllegalArgumentException("toda ruta necesita id y uri");
+            }
+            if (!ids.add(definition.getId())) {
+                throw new IllegalArgumentException("id de ruta duplicado: " + definition.getId());
+            }
+        }
+        return routeFile.routes();
+    }
+
+    // Las rutas se construyen con las mismas fábricas de predicados y filtros
+    // (y los default-filters) que las rutas declaradas en propiedades
+    RouteTable build(List<RouteDefinition> definitions, long version) {
+        RouteDefinitionRouteLocator locator = new RouteDefinitionRouteLocator(
+                () -> Flux.fromIterable(definitions), predicates, filters, gatewayProperties, configurationService);
+        List<Route> routes = locator.getRoutes().collectList().block(Duration.ofSeconds(10));
+        long enabled = definitions.stream().filter(RouteDefinition::isEnabled).count();
+        if (routes == null || routes.size() != enabled) {
+            throw new IllegalStateException("solo se construyeron " + (routes == null ? 0 : routes.size())
+                    + " de " + enabled + " rutas");
+        }
+        List<Route> ordered = new ArrayList<>(routes);
+        // sort es estable: a igual order se respeta la posición en el archivo
+        ordered.sort(Comparator.comparingInt(Route::getOrder));
+
+        Map<String, List<String>> patterns = new LinkedHashMap<>();
+        for (RouteDefinition definition : definitions) {
+            patterns.put(definition.getId(), pathPatterns(definition));
+        }
+        return new RouteTable(version, ordered, patterns);
+    }
+
+    // Patrones de los predicados Path, en forma corta (Path=/a/**,/b/**) o larga (args.patterns)
+    private static List<String> pathPatterns(RouteDefinition definition) {
+        List<String> patterns = new ArrayList<>();
+        for (PredicateDefinition predicate : definition.getPredicates()) {
+            if (!"Path".equals(predicate.getName())) {
+                continue;
+            }
+            for (Map.Entry<String, String> arg : predicate.getArgs().entrySet()) {
+                if (arg.getKey().startsWith("_genkey_") || arg.getKey().startsWith("patterns")) {
+                    for (String pattern : arg.getValue().split(",")) {
+                        if (!pattern.isBlank()) {
+                            patterns.add(pattern.trim());
+                        }
+                    }
+                }
+            }
+        }
+        return patterns;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("gateway.routes.table.version", this, source -> source.current().version())
+                .description("Versión de la tabla de rutas del archivo en uso")
+                .register(registry);
+        Gauge.builder("gateway.routes.table.size", this, source -> source.current().size())
+                .description("Rutas en la tabla del archivo")
+                .register(registry);
+        FunctionCounter.builder("gateway.routes.table.reload-failures", reloadFailures, LongAdder::sum)
+                .description("Recargas descartadas por errores en el archivo de rutas")
+                .register(registry);
+    }
+
+    record RouteFile(List<RouteDefinition> routes) {
+    }
+}
@@ -0,0 +1,158 @@
+package pe.edu.cibertec.apigateway.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Árbol de segmentos que reduce los patrones de ruta a candidatos en un
+ * recorrido proporcional a la profundidad de la ruta, no al número de
+ * patrones. Entiende segmentos literales, {@code *}, {@code {var}} y un
+ * {@code /**} o {@code {*var}} final; cualquier otra sintaxis se rechaza y la
+ * ruta queda para evaluación lineal.
+ * <p>
+ * El resultado es un superconjunto: el predicado completo de cada candidato se
+ * sigue evaluando, así que el árbol solo debe evitar descartar una ruta que
+ * coincidiría. Los segmentos vacíos (barra final o doble) se ignoran en
+ * patrones y rutas por esa misma razón.
+ */
+final class PathTrie {
+
+    private static final int[] NONE = new int[0];
+
+    private final Node root = new Node();
+
+    /** Indexa el patrón para la posición dada; {@code false} si usa sintaxis no soportada. */
+    boolean add(String pattern, int position) {
+        List<String> segments = segments(pattern);
+        if (!indexable(segments)) {
+            return false;
+        }
+        Node node = root;
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (isCatchAll(segment)) {
+                node.catchAll = append(node.catchAll, position);
+                return true;
+            }
+            if (isSingleWildcard(segment)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        node.terminal = append(node.terminal, position);
+        return true;
+    }
+
+    /** Posiciones candidatas para los segmentos de la ruta, ordenadas y sin repetir. */
+    int[] match(List<String> path) {
+        int[] found = new int[8];
+        int[] count = new int[1];
+        found = collect(root, path, 0, found, count);
+        if (count[0] == 0) {
+            return NONE;
+        }
+        int[] sorted = Arrays.copyOf(found, count[0]);
+        Arrays.sort(sorted);
+        int unique = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+    }
+
+    private static int[] collect(Node node, List<String> path, int index, int[] found, int[] count) {
+        // /** también coincide con cero segmentos restantes
+        found = addAll(found, count, node.catchAll);
+        if (index == path.size()) {
+            return addAll(found, count, node.terminal);
+        }
+        Node literal = node.literals.get(path.get(index));
+        if (literal != null) {
+            found = collect(literal, path, index + 1, found, count);
+        }
+        if (node.wildcard != null) {
+            found = collect(node.wildcard, path, index + 1, found, count);
+        }
+        return found;
+    }
+
+    static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    private static boolean indexable(List<String> segments) {
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (isCatchAll(segment)) {
+                if (i != segments.size() - 1) {
+                    return false;
+                }
+            } else if (!isSingleWildcard(segment) && hasPatternSyntax(segment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCatchAll(String segment) {
+        return segment.equals("**") || (segment.startsWith("{*") && segment.endsWith("}"));
+    }
+
+    private static boolean isSingleWildcard(String segment) {
+        return segment.equals("*")
+                || (segment.startsWith("{") && segment.endsWith("}") && segment.indexOf('{', 1) < 0);
+    }
+
+    private static boolean hasPatternSyntax(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '*' || c == '?' || c == '{' || c == '}') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] append(int[] positions, int position) {
+        if (positions == null) {
+            return new int[] {position};
+        }
+        int[] grown = Arrays.copyOf(positions, positions.length + 1);
+        grown[positions.length] = position;
+        return grown;
+    }
+
+    private static int[] addAll(int[] found, int[] count, int[] positions) {
+        if (positions == null) {
+            return found;
+        }
+        if (count[0] + positions.length > found.length) {
+            found = Arrays.copyOf(found, Math.max(found.length * 2, count[0] + positions.length));
+        }
+        System.arraycopy(positions, 0, found, count[0], positions.length);
+        count[0] += positions.length;
+        return found;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>(4);
+        private Node wildcard;
+        private int[] catchAll;
+        private int[] terminal;
+    }
+}
@@ -0,0 +1,99 @@
+package pe.edu.cibertec.apigateway.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.PathContainer;
+
+/**
+ * Versión inmutable de la tabla de rutas del archivo. Las rutas se guardan
+ * ordenadas por {@code order} (y por posición en el archivo); los patrones de
+ * sus predicados {@code Path} se compilan en un {@link PathTrie} y las rutas
+ * sin patrón indexable se evalúan siempre.
+ */
+public final class RouteTable {
+
+    /** Atributo del exchange con la versión de la tabla usada para enrutarlo. */
+    public static final String VERSION_ATTRIBUTE = RouteTable.class.getName() + ".version";
+
+    static final RouteTable EMPTY = new RouteTable(0, List.of(), Map.of());
+
+    private final long version;
+    private final Route[] routes;
+    private final PathTrie trie = new PathTrie();
+    private final int[] unindexed;
+
+    /**
+     * @param routes ya ordenadas por prioridad
+     * @param patterns id de ruta -> patrones de sus predicados {@code Path}
+     */
+    public RouteTable(long version, List<Route> routes, Map<String, List<String>> patterns) {
+        this.version = version;
+        this.routes = routes.toArray(Route[]::new);
+        int[] always = new int[this.routes.length];
+        int alwaysCount = 0;
+        for (int i = 0; i < this.routes.length; i++) {
+            List<String> routePatterns = patterns.get(this.routes[i].getId());
+            if (routePatterns == null || routePatterns.isEmpty() || !indexAll(routePatterns, i)) {
+                always[alwaysCount++] = i;
+            }
+        }
+        this.unindexed = Arrays.copyOf(always, alwaysCount);
+    }
+
+    // Si un patrón no es indexable la ruta entera pasa a evaluación lineal
+    // (los patrones que sí se indexaron solo la repiten como candidata)
+    private boolean indexAll(List<String> routePatterns, int position) {
+        boolean indexed = true;
+        for (String pattern : routePatterns) {
+            indexed &= trie.add(pattern, position);
+        }
+        return indexed;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return routes.length;
+    }
+
+    public boolean isEmpty() {
+        return routes.length == 0;
+    }
+
+    /** Rutas cuyo predicado hay que evaluar para la ruta de la petición, en orden de prioridad. */
+    public List<Route> candidates(PathContainer path) {
+        List<String> segments = new ArrayList<>();
+        for (PathContainer.Element element : path.elements()) {
+            if (element instanceof PathContainer.PathSegment segment && !segment.valueToMatch().isEmpty()) {
+                segments.add(segment.valueToMatch());
+            }
+        }
+        return candidates(segments);
+    }
+
+    List<Route> candidates(List<String> segments) {
+        int[] matched = trie.match(segments);
+        List<Route> candidates = new ArrayList<>(matched.length + unindexed.length);
+        int i = 0;
+        int j = 0;
+        while (i < matched.length || j < unindexed.length) {
+            int next;
+            if (j == unindexed.length || (i < matched.length && matched[i] < unindexed[j])) {
+                next = matched[i++];
+            } else if (i == matched.length || unindexed[j] < matched[i]) {
+                next = unindexed[j++];
+            } else {
+                next = matched[i++];
+                j++;
+            }
+            candidates.add(routes[next]);
+        }
+        return candidates;
+    }
+}
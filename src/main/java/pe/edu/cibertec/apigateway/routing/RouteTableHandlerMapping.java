@@ -0,0 +1,57 @@
+package pe.edu.cibertec.apigateway.routing;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reemplaza la búsqueda lineal de rutas del gateway: primero se consultan los
+ * candidatos de la {@link RouteTable} vigente del archivo (gana sobre las
+ * rutas declaradas en código con el mismo path) y solo si ninguno coincide se
+ * recorre el resto de rutas como de costumbre.
+ */
+public class RouteTableHandlerMapping extends RoutePredicateHandlerMapping {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteTableHandlerMapping.class);
+
+    private final FileRouteSource routes;
+
+    public RouteTableHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+            GlobalCorsProperties globalCorsProperties, Environment environment, FileRouteSource routes) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+        this.routes = routes;
+    }
+
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        RouteTable table = routes.current();
+        if (table.isEmpty()) {
+            return super.lookupRoute(exchange);
+        }
+        exchange.getAttributes().put(RouteTable.VERSION_ATTRIBUTE, table.version());
+        return Flux.fromIterable(table.candidates(exchange.getRequest().getPath().pathWithinApplication()))
+                .concatMap(route -> Mono.just(route)
+                        .filterWhen(candidate -> {
+                            exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, candidate.getId());
+                            return candidate.getPredicate().apply(exchange);
+                        })
+                        .onErrorResume(e -> {
+                            log.error("Error al evaluar el predicado de la ruta {}", route.getId(), e);
+                            return Mono.empty();
+                        }))
+                .next()
+                .doOnNext(route -> validateRoute(route, exchange))
+                .switchIfEmpty(Mono.defer(() -> super.lookupRoute(exchange)));
+    }
+}
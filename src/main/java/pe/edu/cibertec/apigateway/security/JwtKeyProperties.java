@@ -0,0 +1,79 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración del anillo de claves JWT ({@code jwt.keys.*}).
+ */
+@ConfigurationProperties(prefix = "jwt.keys")
+public class JwtKeyProperties {
+
+    // kid con el que se firman los tokens nuevos
+    private String activeKid = SigningKeyRing.DEFAULT_KID;
+
+    // Secretos declarados en propiedades (kid -> secreto)
+    private Map<String, String> secrets = new LinkedHashMap<>();
+
+    // Claves públicas RSA/EC de proveedores externos (kid -> PEM o DER en base64)
+    private Map<String, String> publicKeys = new LinkedHashMap<>();
+
+    // Directorio con archivos <kid>.key (HMAC), <kid>.pem (RSA/EC) y un archivo "active" opcional
+    private String directory;
+
+    private Duration reloadInterval = Duration.ofSeconds(30);
+
+    // Tiempo que una clave retirada sigue verificando (vida máxima de un token)
+    private Duration retiredTtl = Duration.ofHours(24);
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public void setActiveKid(String activeKid) {
+        this.activeKid = activeKid;
+    }
+
+    public Map<String, String> getSecrets() {
+        return secrets;
+    }
+
+    public void setSecrets(Map<String, String> secrets) {
+        this.secrets = secrets;
+    }
+
+    public Map<String, String> getPublicKeys() {
+        return publicKeys;
+    }
+
+    public void setPublicKeys(Map<String, String> publicKeys) {
+        this.publicKeys = publicKeys;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public Duration getReloadInterval() {
+        return reloadInterval;
+    }
+
+    public void setReloadInterval(Duration reloadInterval) {
+        this.reloadInterval = reloadInterval;
+    }
+
+    public Duration getRetiredTtl() {
+        return retiredTtl;
+    }
+
+    public void setRetiredTtl(Duration retiredTtl) {
+        this.retiredTtl = retiredTtl;
+    }
+}
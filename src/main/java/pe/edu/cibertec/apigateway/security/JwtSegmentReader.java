@@ -0,0 +1,106 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Lectura mínima de campos del header y del payload JWT sin verificar la
+ * firma ni lanzar excepciones, para elegir la clave y descartar tokens
+ * inválidos antes de invocar al parser.
+ */
+final class JwtSegmentReader {
+
+    static final long NO_VALUE = Long.MIN_VALUE;
+
+    private JwtSegmentReader() {
+    }
+
+    static String kid(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        byte[] header;
+        try {
+            header = Base64.getUrlDecoder().decode(token.substring(0, dot));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return stringField(new String(header, StandardCharsets.UTF_8), "kid");
+    }
+
+    /** Decodifica un segmento ya validado con {@link #isBase64Url}. */
+    static String decode(String token, int start, int end) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(start, end)), StandardCharsets.UTF_8);
+    }
+
+    static boolean isBase64Url(String s, int start, int end) {
+        if (end <= start || (end - start) % 4 == 1) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            boolean valid = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Busca "name":"valor" en un objeto JSON plano; no soporta escapes.
+    static String stringField(String json, String name) {
+        String key = "\"" + name + "\"";
+        int i = json.indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        i = skipWhitespace(json, i + key.length());
+        if (i >= json.length() || json.charAt(i) != ':') {
+            return null;
+        }
+        i = skipWhitespace(json, i + 1);
+        if (i >= json.length() || json.charAt(i) != '"') {
+            return null;
+        }
+        int end = json.indexOf('"', i + 1);
+        if (end < 0 || json.lastIndexOf('\\', end) > i) {
+            return null;
+        }
+        return json.substring(i + 1, end);
+    }
+
+    // Busca "name":123 y devuelve NO_VALUE si falta o no es un entero.
+    static long longField(String json, String name) {
+        String key = "\"" + name + "\"";
+        int i = json.indexOf(key);
+        if (i < 0) {
+            return NO_VALUE;
+        }
+        i = skipWhitespace(json, i + key.length());
+        if (i >= json.length() || json.charAt(i) != ':') {
+            return NO_VALUE;
+        }
+        i = skipWhitespace(json, i + 1);
+        long value = 0;
+        int digits = 0;
+        while (i < json.length() && digits < 18) {
+            char c = json.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+            digits++;
+            i++;
+        }
+        return digits == 0 ? NO_VALUE : value;
+    }
+
+    private static int skipWhitespace(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,96 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+
+/**
+ * Pool acotado para verificar firmas RSA/ECDSA fuera del event loop de Netty.
+ * Un hilo por núcleo y una cola de capacidad fija: cuando se llena la tarea se
+ * rechaza de inmediato con {@link RejectedExecutionException} en lugar de
+ * acumular latencia.
+ */
+@Component
+public class JwtVerificationExecutor implements MeterBinder {
+
+    private final boolean offload;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    public JwtVerificationExecutor(
+            @Value("${jwt.verify.offload:true}") boolean offload,
+            @Value("${jwt.verify.threads:0}") int threads,
+            @Value("${jwt.verify.queue-capacity:1024}") int queueCapacity) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.offload = offload;
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "jwt-verify-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /** Indica si las verificaciones asimétricas deben salir del event loop. */
+    public boolean isOffloadEnabled() {
+        return offload;
+    }
+
+    public <T> Mono<T> submit(Callable<T> task) {
+        return Mono.create(sink -> {
+            try {
+                Future<?> future = executor.submit(() -> {
+                    try {
+                        sink.success(task.call());
+                    } catch (Throwable e) {
+                        sink.error(e);
+                    }
+                });
+                // Si el cliente se desconecta la tarea encolada no llega a ejecutarse
+                sink.onCancel(() -> future.cancel(false));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                sink.error(e);
+            }
+        });
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("gateway.jwt.verify.queue", executor, e -> e.getQueue().size())
+                .description("Verificaciones asimétricas en espera")
+                .register(registry);
+        Gauge.builder("gateway.jwt.verify.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+        FunctionCounter.builder("gateway.jwt.verify.rejected", rejected, LongAdder::sum)
+                .description("Verificaciones rechazadas por saturación del pool")
+                .register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tabla declarativa de prefijos públicos, de autenticación opcional y
+ * protegidos ({@code gateway.security.paths.*}). Gana el prefijo más largo;
+ * una ruta sin coincidencias es protegida.
+ */
+@ConfigurationProperties(prefix = "gateway.security.paths")
+public class PathAccessProperties {
+
+    private List<String> publicPrefixes = new ArrayList<>(List.of(
+            "/api/auth/login",
+            "/api/auth/register",
+            "/api/auth/check-email",
+            "/api/products",
+            "/api/products/portadas",
+            "/api/health",
+            "/portadas",
+            "/uploads",
+            "/actuator",
+            "/eureka"));
+
+    // Se publica la identidad si el token es válido, pero un token ausente o inválido no se rechaza
+    private List<String> optionalAuthPrefixes = new ArrayList<>(List.of("/api/auth/validate"));
+
+    private List<String> protectedPrefixes = new ArrayList<>();
+
+    public List<String> getPublicPrefixes() {
+        return publicPrefixes;
+    }
+
+    public void setPublicPrefixes(List<String> publicPrefixes) {
+        this.publicPrefixes = publicPrefixes;
+    }
+
+    public List<String> getOptionalAuthPrefixes() {
+        return optionalAuthPrefixes;
+    }
+
+    public void setOptionalAuthPrefixes(List<String> optionalAuthPrefixes) {
+        this.optionalAuthPrefixes = optionalAuthPrefixes;
+    }
+
+    public List<String> getProtectedPrefixes() {
+        return protectedPrefixes;
+    }
+
+    public void setProtectedPrefixes(List<String> protectedPrefixes) {
+        this.protectedPrefixes = protectedPrefixes;
+    }
+}
@@ -0,0 +1,36 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Decodifica claves públicas RSA/EC en formato PEM ({@code BEGIN PUBLIC KEY})
+ * o DER en base64.
+ */
+final class PublicKeyDecoder {
+
+    private PublicKeyDecoder() {
+    }
+
+    static byte[] der(String pem) {
+        String body = pem
+                .replaceAll("-----(BEGIN|END) PUBLIC KEY-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+
+    static PublicKey decode(byte[] der) {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(der);
+        for (String algorithm : new String[] { "RSA", "EC" }) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePublic(spec);
+            } catch (GeneralSecurityException e) {
+                // probar con el siguiente algoritmo
+            }
+        }
+        throw new IllegalArgumentException("Clave pública no soportada (se espera RSA o EC en X.509)");
+    }
+}
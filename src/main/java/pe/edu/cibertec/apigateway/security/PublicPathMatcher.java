@@ -0,0 +1,131 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Trie de caracteres compilado al arrancar a partir de
+ * {@link PathAccessProperties}. La consulta recorre el path una sola vez, se
+ * queda con la regla del prefijo más largo y no reserva memoria. Lo usan
+ * tanto {@code JwtAuthenticationFilter} como {@code SecurityConfig}.
+ */
+@Component
+public class PublicPathMatcher {
+
+    /** Acceso de una ruta; {@code OPTIONAL} autentica si hay token pero no lo exige. */
+    public enum Access {
+        PUBLIC, OPTIONAL, PROTECTED
+    }
+
+    // Rango por regla: ante un mismo prefijo gana el más restrictivo
+    private static final byte NONE = 0;
+    private static final byte PUBLIC = 1;
+    private static final byte OPTIONAL = 2;
+    private static final byte PROTECTED = 3;
+
+    private final Node root;
+
+    @Autowired
+    public PublicPathMatcher(PathAccessProperties properties) {
+        this(properties.getPublicPrefixes(), properties.getOptionalAuthPrefixes(), properties.getProtectedPrefixes());
+    }
+
+    public PublicPathMatcher(List<String> publicPrefixes, List<String> protectedPrefixes) {
+        this(publicPrefixes, List.of(), protectedPrefixes);
+    }
+
+    public PublicPathMatcher(List<String> publicPrefixes, List<String> optionalPrefixes, List<String> protectedPrefixes) {
+        Builder builder = new Builder();
+        publicPrefixes.forEach(prefix -> builder.add(prefix, PUBLIC));
+        optionalPrefixes.forEach(prefix -> builder.add(prefix, OPTIONAL));
+        protectedPrefixes.forEach(prefix -> builder.add(prefix, PROTECTED));
+        this.root = builder.compile();
+    }
+
+    public boolean isPublic(String path) {
+        return lookup(path) == PUBLIC;
+    }
+
+    public Access access(String path) {
+        return switch (lookup(path)) {
+            case PUBLIC -> Access.PUBLIC;
+            case OPTIONAL -> Access.OPTIONAL;
+            default -> Access.PROTECTED;
+        };
+    }
+
+    private byte lookup(String path) {
+        Node node = root;
+        byte access = node.access;
+        for (int i = 0, n = path.length(); i < n; i++) {
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.access != NONE) {
+                access = node.access;
+            }
+        }
+        return access;
+    }
+
+    private static final class Node {
+
+        private final char[] keys;
+        private final Node[] children;
+        private final byte access;
+
+        private Node(char[] keys, Node[] children, byte access) {
+            this.keys = keys;
+            this.children = children;
+            this.access = access;
+        }
+
+        private Node child(char c) {
+            char[] k = keys;
+            if (k.length <= 8) {
+                for (int i = 0; i < k.length; i++) {
+                    if (k[i] == c) {
+                        return children[i];
+                    }
+                }
+                return null;
+            }
+            int i = Arrays.binarySearch(k, c);
+            return i >= 0 ? children[i] : null;
+        }
+    }
+
+    private static final class Builder {
+
+        private final Map<Character, Builder> children = new TreeMap<>();
+        private byte access = NONE;
+
+        private void add(String prefix, byte value) {
+            Builder node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Builder());
+            }
+            if (value > node.access) {
+                node.access = value;
+            }
+        }
+
+        private Node compile() {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().compile();
+                i++;
+            }
+            return new Node(keys, nodes, access);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package pe.edu.cibertec.apigateway.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Motivos por los que el gateway rechaza un token; se usan como etiqueta
+ * de métricas en lugar de registrar cada rechazo en el log.
+ */
+public enum RejectionReason {
+    MISSING,
+    MALFORMED,
+    UNSUPPORTED_ALG,
+    EXPIRED,
+    UNKNOWN_KID,
+    BAD_SIGNATURE,
+    REVOKED,
+    INVALID;
+
+    private final String tag = name().toLowerCase();
+
+    public String tag() {
+        return tag;
+    }
+
+    /** Clasifica las excepciones de jjwt que aún pueden ocurrir tras la pre-validación. */
+    public static RejectionReason from(Throwable e) {
+        if (e instanceof ExpiredJwtException) {
+            return EXPIRED;
+        }
+        if (e instanceof SignatureException) {
+            return BAD_SIGNATURE;
+        }
+        if (e instanceof MalformedJwtException) {
+            return MALFORMED;
+        }
+        if (e instanceof UnsupportedJwtException) {
+            return UNSUPPORTED_ALG;
+        }
+        return INVALID;
+    }
+}
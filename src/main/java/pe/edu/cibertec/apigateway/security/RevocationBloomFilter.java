@@ -0,0 +1,64 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom sin locks para el frente de la lista de revocación. Un
+ * resultado negativo es definitivo; uno positivo se confirma en el conjunto
+ * exacto. Las consultas no reservan memoria.
+ */
+final class RevocationBloomFilter {
+
+    private static final int HASHES = 7;
+
+    private final AtomicLongArray words;
+    private final long mask;
+
+    RevocationBloomFilter(int expectedEntries) {
+        // ~10 bits por entrada => ~1% de falsos positivos con 7 funciones
+        long bits = Long.highestOneBit(Math.max(1024L, expectedEntries * 10L) - 1) << 1;
+        this.words = new AtomicLongArray((int) (bits >>> 6));
+        this.mask = bits - 1;
+    }
+
+    void add(String value, long seed) {
+        long h1 = hash(value, seed);
+        long h2 = (h1 >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = (h1 + i * h2) & mask;
+            int word = (int) (bit >>> 6);
+            long flag = 1L << bit;
+            long current = words.get(word);
+            while ((current & flag) == 0 && !words.compareAndSet(word, current, current | flag)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(String value, long seed) {
+        long h1 = hash(value, seed);
+        long h2 = (h1 >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits sobre los chars con el finalizador de MurmurHash3
+    private static long hash(String value, long seed) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
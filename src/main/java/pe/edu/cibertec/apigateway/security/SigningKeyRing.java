@@ -0,0 +1,250 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Anillo de claves identificadas por {@code kid}: secretos HMAC para los
+ * tokens que emite el gateway y claves públicas RSA/EC de proveedores
+ * externos. Mantiene un parser inmutable por clave, se recarga en caliente
+ * desde archivos y conserva las claves retiradas para verificación hasta que
+ * sus tokens hayan expirado. Lo comparten el filtro JWT y el emisor de tokens.
+ */
+@Component
+public class SigningKeyRing {
+
+    public static final String DEFAULT_KID = "default";
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyRing.class);
+
+    private final JwtKeyProperties properties;
+    private final String legacySecret;
+    private final List<Consumer<Set<String>>> removalListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot snapshot;
+    private ScheduledExecutorService reloader;
+
+    public SigningKeyRing(
+            JwtKeyProperties properties,
+            @Value("${jwt.secret:MiClaveSecretaSuperSeguraParaJWTEnMicroserviciosQueDebeSerMuyLarga}") String legacySecret) {
+        this.properties = properties;
+        this.legacySecret = legacySecret;
+        this.snapshot = build(Map.of(), System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (properties.getDirectory() == null || properties.getDirectory().isBlank()) {
+            return;
+        }
+        long interval = properties.getReloadInterval().toMillis();
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwt-key-reloader");
+            t.setDaemon(true);
+            return t;
+        });
+        reloader.scheduleWithFixedDelay(this::reload, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    /** Verifica la firma con la clave indicada por el {@code kid} del header. */
+    public Claims verify(String token) {
+        KeyEntry entry = resolve(token);
+        if (entry == null) {
+            throw new JwtException("kid desconocido");
+        }
+        return entry.parser().parseSignedClaims(token).getPayload();
+    }
+
+    /** Clave que corresponde al {@code kid} del token, o {@code null} si no existe. */
+    public KeyEntry resolve(String token) {
+        return byKid(JwtSegmentReader.kid(token));
+    }
+
+    /** Clave para un {@code kid} ya leído del header; sin kid se usa la clave por defecto. */
+    public KeyEntry byKid(String kid) {
+        return snapshot.keys().get(kid != null ? kid : DEFAULT_KID);
+    }
+
+    /** Clave activa para firmar tokens nuevos. */
+    public KeyEntry signingKey() {
+        return snapshot.keys().get(snapshot.activeKid());
+    }
+
+    public Set<String> kids() {
+        return snapshot.keys().keySet();
+    }
+
+    /**
+     * Notifica los kid que dejaron de ser válidos tras una recarga: los que
+     * salieron del anillo y los que conservan el nombre con otro material.
+     */
+    public void onKeysRemoved(Consumer<Set<String>> listener) {
+        removalListeners.add(listener);
+    }
+
+    public void reload() {
+        try {
+            Snapshot previous = snapshot;
+            Snapshot next = build(previous.keys(), System.currentTimeMillis());
+            snapshot = next;
+
+            Set<String> removed = previous.keys().entrySet().stream()
+                    .filter(e -> replaced(e.getValue(), next.keys().get(e.getKey())))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toUnmodifiableSet());
+            if (!removed.isEmpty()) {
+                log.info("Claves JWT eliminadas o reemplazadas en el anillo: {}", removed);
+                removalListeners.forEach(listener -> listener.accept(removed));
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo recargar el anillo de claves JWT, se mantiene el anterior: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot build(Map<String, KeyEntry> previous, long now) {
+        Map<String, String> secrets = new LinkedHashMap<>();
+        if (legacySecret != null && !legacySecret.isBlank()) {
+            secrets.put(DEFAULT_KID, legacySecret);
+        }
+        secrets.putAll(properties.getSecrets());
+        Map<String, String> publicKeys = new LinkedHashMap<>(properties.getPublicKeys());
+        String activeKid = properties.getActiveKid();
+        if (properties.getDirectory() != null && !properties.getDirectory().isBlank()) {
+            activeKid = readDirectory(Paths.get(properties.getDirectory()), secrets, publicKeys, activeKid);
+        }
+
+        Map<String, KeyEntry> keys = new HashMap<>();
+        secrets.forEach((kid, secret) -> {
+            byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+            keys.put(kid, reuseOrCreate(previous.get(kid), bytes, () -> KeyEntry.of(kid, Keys.hmacShaKeyFor(bytes))));
+        });
+        publicKeys.forEach((kid, pem) -> {
+            byte[] der = PublicKeyDecoder.der(pem);
+            keys.put(kid, reuseOrCreate(previous.get(kid), der, () -> KeyEntry.of(kid, PublicKeyDecoder.decode(der))));
+        });
+
+        // Las claves retiradas siguen verificando hasta que expiren sus tokens
+        long retiredTtl = properties.getRetiredTtl().toMillis();
+        previous.forEach((kid, old) -> {
+            if (keys.containsKey(kid)) {
+                return;
+            }
+            KeyEntry retired = old.retiredAtMillis() == Long.MAX_VALUE ? old.retire(now) : old;
+            if (now - retired.retiredAtMillis() < retiredTtl) {
+                keys.put(kid, retired);
+            }
+        });
+
+        KeyEntry active = keys.get(activeKid);
+        if (active == null || active.retiredAtMillis() != Long.MAX_VALUE || active.asymmetric()) {
+            throw new IllegalStateException("La clave activa '" + activeKid + "' no está configurada como secreto HMAC");
+        }
+        return new Snapshot(Map.copyOf(keys), activeKid);
+    }
+
+    // Un kid que sigue en el anillo con otro material (p. ej. un secreto comprometido
+    // reescrito en <kid>.key) invalida lo verificado con el anterior igual que si se borrara
+    private static boolean replaced(KeyEntry old, KeyEntry current) {
+        return current == null || !MessageDigest.isEqual(old.key().getEncoded(), current.key().getEncoded());
+    }
+
+    // Reutiliza la entrada (y su parser) si el material de la clave no cambió
+    private static KeyEntry reuseOrCreate(KeyEntry old, byte[] material, Supplier<KeyEntry> factory) {
+        if (old != null && MessageDigest.isEqual(old.key().getEncoded(), material)) {
+            return old.retiredAtMillis() == Long.MAX_VALUE ? old : old.reactivated();
+        }
+        return factory.get();
+    }
+
+    private String readDirectory(Path dir, Map<String, String> secrets, Map<String, String> publicKeys, String activeKid) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.{key,pem}")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String kid = name.substring(0, name.lastIndexOf('.'));
+                if (name.endsWith(".pem")) {
+                    publicKeys.put(kid, Files.readString(file));
+                } else {
+                    secrets.put(kid, Files.readString(file).trim());
+                }
+            }
+            Path active = dir.resolve("active");
+            if (Files.isRegularFile(active)) {
+                activeKid = Files.readString(active).trim();
+            }
+            return activeKid;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer " + dir + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Clave con su parser prearmado; {@code retiredAtMillis} es MAX_VALUE
+     * mientras siga configurada. Las claves RSA/EC solo verifican.
+     */
+    public record KeyEntry(String kid, Key key, JwtParser parser, long retiredAtMillis) {
+
+        static KeyEntry of(String kid, SecretKey key) {
+            return new KeyEntry(kid, key, Jwts.parser().verifyWith(key).build(), Long.MAX_VALUE);
+        }
+
+        static KeyEntry of(String kid, PublicKey key) {
+            return new KeyEntry(kid, key, Jwts.parser().verifyWith(key).build(), Long.MAX_VALUE);
+        }
+
+        public boolean asymmetric() {
+            return key instanceof PublicKey;
+        }
+
+        KeyEntry retire(long now) {
+            return new KeyEntry(kid, key, parser, now);
+        }
+
+        KeyEntry reactivated() {
+            return new KeyEntry(kid, key, parser, Long.MAX_VALUE);
+        }
+    }
+
+    private record Snapshot(Map<String, KeyEntry> keys, String activeKid) {
+    }
+}
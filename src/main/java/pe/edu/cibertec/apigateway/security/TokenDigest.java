@@ -0,0 +1,28 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Huella SHA-256 de un token JWT, usada como clave de caché para no retener
+ * el token original en memoria.
+ */
+public record TokenDigest(long h0, long h1, long h2, long h3) {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    public static TokenDigest of(String token) {
+        MessageDigest md = SHA256.get();
+        byte[] hash = md.digest(token.getBytes(StandardCharsets.US_ASCII));
+        ByteBuffer buffer = ByteBuffer.wrap(hash);
+        return new TokenDigest(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,87 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.security.Key;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Set;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Validación estructural de un JWT antes de cualquier trabajo criptográfico:
+ * número de segmentos, base64url, {@code alg} del header y {@code exp}.
+ * Nunca lanza excepciones, para que la basura y los tokens vencidos se
+ * descarten con el menor costo posible.
+ */
+public final class TokenPrecheck {
+
+    private static final Set<String> SUPPORTED_ALGS = Set.of(
+            "HS256", "HS384", "HS512",
+            "RS256", "RS384", "RS512",
+            "PS256", "PS384", "PS512",
+            "ES256", "ES384", "ES512");
+
+    private static final Result[] REJECTED = new Result[RejectionReason.values().length];
+
+    static {
+        for (RejectionReason reason : RejectionReason.values()) {
+            REJECTED[reason.ordinal()] = new Result(reason, null, null);
+        }
+    }
+
+    private TokenPrecheck() {
+    }
+
+    public static Result check(String token, long nowMillis) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (first <= 0 || second < 0 || token.indexOf('.', second + 1) >= 0) {
+            return rejected(RejectionReason.MALFORMED);
+        }
+        if (!JwtSegmentReader.isBase64Url(token, 0, first)
+                || !JwtSegmentReader.isBase64Url(token, first + 1, second)
+                || !JwtSegmentReader.isBase64Url(token, second + 1, token.length())) {
+            return rejected(RejectionReason.MALFORMED);
+        }
+
+        String header = JwtSegmentReader.decode(token, 0, first);
+        String alg = JwtSegmentReader.stringField(header, "alg");
+        if (alg == null || !SUPPORTED_ALGS.contains(alg)) {
+            return rejected(RejectionReason.UNSUPPORTED_ALG);
+        }
+
+        String payload = JwtSegmentReader.decode(token, first + 1, second);
+        long exp = JwtSegmentReader.longField(payload, "exp");
+        // Se compara en segundos: exp admite hasta 18 dígitos y exp * 1000 desbordaría
+        if (exp != JwtSegmentReader.NO_VALUE && exp <= nowMillis / 1000) {
+            return rejected(RejectionReason.EXPIRED);
+        }
+        return new Result(null, alg, JwtSegmentReader.stringField(header, "kid"));
+    }
+
+    /** HS* solo con secretos, RS/PS solo con claves RSA y ES solo con claves EC. */
+    public static boolean algorithmMatches(String alg, SigningKeyRing.KeyEntry key) {
+        Key material = key.key();
+        if (alg.startsWith("HS")) {
+            return material instanceof SecretKey;
+        }
+        if (alg.startsWith("RS") || alg.startsWith("PS")) {
+            return material instanceof RSAPublicKey;
+        }
+        if (alg.startsWith("ES")) {
+            return material instanceof ECPublicKey;
+        }
+        return false;
+    }
+
+    private static Result rejected(RejectionReason reason) {
+        return REJECTED[reason.ordinal()];
+    }
+
+    public record Result(RejectionReason rejection, String alg, String kid) {
+
+        public boolean accepted() {
+            return rejection == null;
+        }
+    }
+}
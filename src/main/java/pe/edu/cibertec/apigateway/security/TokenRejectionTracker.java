@@ -0,0 +1,109 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Cuenta los rechazos de tokens por motivo y recuerda por un tiempo corto
+ * las huellas de los tokens rechazados, para que los reintentos con el mismo
+ * token no vuelvan a pasar por la validación.
+ */
+@Component
+public class TokenRejectionTracker implements MeterBinder {
+
+    private final Map<RejectionReason, LongAdder> counters = new EnumMap<>(RejectionReason.class);
+    private final LongAdder negativeHits = new LongAdder();
+    private final ConcurrentHashMap<TokenDigest, Entry> recent = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public TokenRejectionTracker(
+            @Value("${jwt.rejections.cache-max-entries:4096}") int maxEntries,
+            @Value("${jwt.rejections.cache-ttl:60s}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        for (RejectionReason reason : RejectionReason.values()) {
+            counters.put(reason, new LongAdder());
+        }
+    }
+
+    /** Motivo del rechazo reciente de este token, o {@code null} si no se rechazó. */
+    public RejectionReason recentlyRejected(TokenDigest digest, long nowMillis) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        Entry entry = recent.get(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= nowMillis) {
+            recent.remove(digest, entry);
+            return null;
+        }
+        negativeHits.increment();
+        counters.get(entry.reason()).increment();
+        return entry.reason();
+    }
+
+    public void reject(TokenDigest digest, RejectionReason reason, long nowMillis) {
+        counters.get(reason).increment();
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (recent.size() >= maxEntries) {
+            evict(nowMillis);
+        }
+        recent.put(digest, new Entry(reason, nowMillis + ttlMillis));
+    }
+
+    /** Rechazos sin token (no hay huella que recordar). */
+    public void record(RejectionReason reason) {
+        counters.get(reason).increment();
+    }
+
+    public long count(RejectionReason reason) {
+        return counters.get(reason).sum();
+    }
+
+    private void evict(long nowMillis) {
+        int removed = 0;
+        for (Iterator<Entry> it = recent.values().iterator(); it.hasNext();) {
+            if (it.next().expiresAtMillis() <= nowMillis) {
+                it.remove();
+                removed++;
+            }
+        }
+        int target = Math.max(1, maxEntries / 10);
+        for (Iterator<TokenDigest> it = recent.keySet().iterator(); removed < target && it.hasNext();) {
+            it.next();
+            it.remove();
+            removed++;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counters.forEach((reason, counter) -> FunctionCounter
+                .builder("gateway.jwt.rejections", counter, LongAdder::sum)
+                .description("Tokens rechazados por motivo")
+                .tag("reason", reason.tag())
+                .register(registry));
+        FunctionCounter.builder("gateway.jwt.rejections.negative-cache.hits", negativeHits, LongAdder::sum)
+                .description("Rechazos resueltos desde la caché negativa")
+                .register(registry);
+    }
+
+    private record Entry(RejectionReason reason, long expiresAtMillis) {
+    }
+}
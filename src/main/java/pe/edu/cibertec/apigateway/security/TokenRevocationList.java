@@ -0,0 +1,238 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Lista de revocación de tokens por {@code jti} o por sujeto. Las consultas
+ * pasan primero por un filtro de Bloom y solo los posibles positivos se
+ * confirman en el conjunto exacto. Las entradas se podan cuando los tokens
+ * afectados ya habrían expirado y la lista se persiste en un archivo local de
+ * solo anexado que se compacta en cada poda.
+ */
+@Component
+public class TokenRevocationList implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final long JTI_SEED = 0x6a7469L;
+    private static final long SUBJECT_SEED = 0x737562L;
+
+    // jti -> instante en que el token expira
+    private final Map<String, Long> revokedIds = new ConcurrentHashMap<>();
+    // sujeto -> instante de revocación (se revocan los tokens emitidos hasta entonces)
+    private final Map<String, Long> revokedSubjects = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+
+    private final Path file;
+    private final long tokenLifetimeMillis;
+    private final long pruneIntervalMillis;
+    private final int expectedEntries;
+
+    private volatile RevocationBloomFilter bloom;
+    private ScheduledExecutorService pruner;
+
+    public TokenRevocationList(
+            @Value("${jwt.revocation.file:data/revocations.log}") String file,
+            @Value("${jwt.expiration:24h}") Duration tokenLifetime,
+            @Value("${jwt.revocation.prune-interval:5m}") Duration pruneInterval,
+            @Value("${jwt.revocation.expected-entries:100000}") int expectedEntries) {
+        this.file = file == null || file.isBlank() ? null : Paths.get(file);
+        this.tokenLifetimeMillis = tokenLifetime.toMillis();
+        this.pruneIntervalMillis = pruneInterval.toMillis();
+        this.expectedEntries = expectedEntries;
+        this.bloom = new RevocationBloomFilter(expectedEntries);
+    }
+
+    @PostConstruct
+    public void start() {
+        replay();
+        prune();
+        pruner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwt-revocation-pruner");
+            t.setDaemon(true);
+            return t;
+        });
+        pruner.scheduleWithFixedDelay(this::prune, pruneIntervalMillis, pruneIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pruner != null) {
+            pruner.shutdownNow();
+        }
+    }
+
+    /** Camino caliente: sin locks ni reservas de memoria cuando el token no está revocado. */
+    public boolean isRevoked(VerifiedPrincipal principal) {
+        RevocationBloomFilter current = bloom;
+        String jti = principal.tokenId();
+        if (jti != null && current.mightContain(jti, JTI_SEED) && revokedIds.containsKey(jti)) {
+            hits.increment();
+            return true;
+        }
+        String subject = principal.subject();
+        if (subject != null && current.mightContain(subject, SUBJECT_SEED)) {
+            Long revokedAt = revokedSubjects.get(subject);
+            // iat tiene precisión de segundos: se compara en segundos y con '<' para que un token
+            // emitido justo después de la revocación, en el mismo segundo, no quede revocado
+            if (revokedAt != null && (principal.issuedAt() == null
+                    || principal.issuedAt().getEpochSecond() < revokedAt / 1000)) {
+                hits.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Revoca un token; sin {@code expiresAtMillis} se asume la vida máxima de un token. */
+    public synchronized void revokeId(String jti, Long expiresAtMillis) {
+        requireSingleField(jti);
+        long expiresAt = expiresAtMillis != null ? expiresAtMillis : System.currentTimeMillis() + tokenLifetimeMillis;
+        revokedIds.merge(jti, expiresAt, Math::max);
+        bloom.add(jti, JTI_SEED);
+        append("J", jti, expiresAt);
+    }
+
+    /** Revoca todos los tokens del sujeto emitidos antes del segundo en curso. */
+    public synchronized void revokeSubject(String subject) {
+        requireSingleField(subject);
+        long now = System.currentTimeMillis();
+        revokedSubjects.merge(subject, now, Math::max);
+        bloom.add(subject, SUBJECT_SEED);
+        append("S", subject, now);
+    }
+
+    public int size() {
+        return revokedIds.size() + revokedSubjects.size();
+    }
+
+    /**
+     * Descarta las entradas cuyos tokens ya expiraron, reconstruye el filtro
+     * de Bloom y compacta el archivo.
+     */
+    public synchronized void prune() {
+        long now = System.currentTimeMillis();
+        revokedIds.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedSubjects.values().removeIf(revokedAt -> revokedAt + tokenLifetimeMillis <= now);
+
+        RevocationBloomFilter rebuilt = new RevocationBloomFilter(Math.max(expectedEntries, size() * 2));
+        revokedIds.keySet().forEach(jti -> rebuilt.add(jti, JTI_SEED));
+        revokedSubjects.keySet().forEach(subject -> rebuilt.add(subject, SUBJECT_SEED));
+        bloom = rebuilt;
+        compact();
+    }
+
+    private void replay() {
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                String[] parts = line.split("\t");
+                if (parts.length != 3) {
+                    continue;
+                }
+                long instant = Long.parseLong(parts[2]);
+                if ("J".equals(parts[0])) {
+                    revokedIds.merge(parts[1], instant, Math::max);
+                } else if ("S".equals(parts[0])) {
+                    revokedSubjects.merge(parts[1], instant, Math::max);
+                }
+            }
+            log.info("Lista de revocación cargada desde {}: {} entradas", file, size());
+        } catch (IOException | NumberFormatException e) {
+            log.warn("No se pudo leer la lista de revocación {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void append(String type, String value, long instant) {
+        if (file == null) {
+            return;
+        }
+        byte[] line = (type + "\t" + value + "\t" + instant + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            createParent();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                channel.write(ByteBuffer.wrap(line));
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo persistir la revocación en {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void compact() {
+        if (file == null || (size() == 0 && !Files.exists(file))) {
+            return;
+        }
+        try {
+            createParent();
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Long> entry : revokedIds.entrySet()) {
+                    writer.write("J\t" + entry.getKey() + "\t" + entry.getValue() + "\n");
+                }
+                for (Map.Entry<String, Long> entry : revokedSubjects.entrySet()) {
+                    writer.write("S\t" + entry.getKey() + "\t" + entry.getValue() + "\n");
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se pudo compactar la lista de revocación {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void requireSingleField(String value) {
+        if (value == null || value.isBlank() || value.indexOf('\t') >= 0 || value.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Valor de revocación inválido");
+        }
+    }
+
+    private void createParent() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("gateway.jwt.revocation.size", this, TokenRevocationList::size)
+                .description("Entradas vigentes en la lista de revocación")
+                .register(registry);
+        FunctionCounter.builder("gateway.jwt.revocation.hits", hits, LongAdder::sum)
+                .description("Peticiones rechazadas por token revocado")
+                .register(registry);
+    }
+}
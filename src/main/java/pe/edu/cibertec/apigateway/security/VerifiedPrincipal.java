@@ -0,0 +1,30 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.time.Instant;
+import java.util.Date;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Identidad inmutable de un token ya verificado. JwtAuthenticationFilter la
+ * publica como atributo del exchange y en el contexto de seguridad reactivo
+ * para que los controladores locales no vuelvan a parsear el token.
+ * No implementa {@link java.security.Principal} a propósito: WebFlux resuelve
+ * ese tipo desde {@code exchange.getPrincipal()} antes que los resolvers propios.
+ */
+public record VerifiedPrincipal(String subject, String tokenId, Instant issuedAt, Instant expiresAt) {
+
+    public static final String ATTRIBUTE = VerifiedPrincipal.class.getName();
+
+    public static VerifiedPrincipal from(Claims claims) {
+        return new VerifiedPrincipal(
+                claims.getSubject(),
+                claims.getId(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()));
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
@@ -0,0 +1,27 @@
+package pe.edu.cibertec.apigateway.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Inyecta en los controladores el {@link VerifiedPrincipal} que dejó
+ * JwtAuthenticationFilter en el exchange. Si la petición no trae un token
+ * válido (rutas de autenticación opcional) el parámetro llega en {@code null}.
+ */
+public class VerifiedPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return VerifiedPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Mono<Object> resolveArgument(MethodParameter parameter, BindingContext bindingContext,
+            ServerWebExchange exchange) {
+        return Mono.justOrEmpty(exchange.<VerifiedPrincipal>getAttribute(VerifiedPrincipal.ATTRIBUTE));
+    }
+}
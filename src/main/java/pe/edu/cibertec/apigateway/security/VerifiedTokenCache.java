@@ -0,0 +1,144 @@
+package pe.edu.cibertec.apigateway.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Caché acotada de tokens ya verificados. Cada entrada vive como máximo hasta
+ * el {@code exp} del token, de modo que un acierto evita por completo el
+ * parseo y la verificación de la firma.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final ConcurrentHashMap<TokenDigest, Entry> entries = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxTtlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(
+            @Value("${jwt.cache.enabled:true}") boolean enabled,
+            @Value("${jwt.cache.max-entries:10000}") int maxEntries,
+            @Value("${jwt.cache.max-ttl:1h}") Duration maxTtl) {
+        this.enabled = enabled && maxEntries > 0;
+        this.maxEntries = maxEntries;
+        this.maxTtlMillis = maxTtl.toMillis();
+    }
+
+    /**
+     * Devuelve la identidad verificada del token o {@code null} si no está en
+     * caché o ya expiró.
+     */
+    public VerifiedPrincipal get(TokenDigest digest, long nowMillis) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis() <= nowMillis) {
+            if (entries.remove(digest, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.principal();
+    }
+
+    public void put(TokenDigest digest, VerifiedPrincipal principal, long nowMillis) {
+        if (!enabled) {
+            return;
+        }
+        long expiresAt = nowMillis + maxTtlMillis;
+        if (principal.expiresAt() != null) {
+            expiresAt = Math.min(expiresAt, principal.expiresAt().toEpochMilli());
+        }
+        if (expiresAt <= nowMillis) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom(nowMillis);
+        }
+        entries.put(digest, new Entry(principal, expiresAt));
+    }
+
+    public void invalidate(TokenDigest digest) {
+        entries.remove(digest);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    // Primero descarta los expirados; si sigue llena libera un 10% para
+    // amortizar el barrido entre muchas inserciones.
+    private void makeRoom(long nowMillis) {
+        int removed = 0;
+        for (Iterator<Map.Entry<TokenDigest, Entry>> it = entries.entrySet().iterator(); it.hasNext();) {
+            if (it.next().getValue().expiresAtMillis() <= nowMillis) {
+                it.remove();
+                removed++;
+            }
+        }
+        int target = Math.max(1, maxEntries / 10);
+        for (Iterator<TokenDigest> it = entries.keySet().iterator(); removed < target && it.hasNext();) {
+            it.next();
+            it.remove();
+            removed++;
+        }
+        evictions.add(removed);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.jwt.cache.hits", hits, LongAdder::sum)
+                .description("Tokens resueltos desde la caché de verificación")
+                .register(registry);
+        FunctionCounter.builder("gateway.jwt.cache.misses", misses, LongAdder::sum)
+                .description("Tokens que requirieron verificación completa")
+                .register(registry);
+        FunctionCounter.builder("gateway.jwt.cache.evictions", evictions, LongAdder::sum)
+                .description("Entradas descartadas por expiración o por capacidad")
+                .register(registry);
+        Gauge.builder("gateway.jwt.cache.size", entries, Map::size)
+                .register(registry);
+    }
+
+    private record Entry(VerifiedPrincipal principal, long expiresAtMillis) {
+    }
+}
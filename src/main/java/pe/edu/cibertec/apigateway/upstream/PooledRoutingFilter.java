@@ -0,0 +1,47 @@
+package pe.edu.cibertec.apigateway.upstream;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * NettyRoutingFilter que llama a cada ruta con el cliente de su pool propio
+ * ({@link UpstreamHttpClients}); sin pool propio se comporta igual que el
+ * original. Reemplaza al filtro del gateway, que se desactiva con
+ * {@code spring.cloud.gateway.server.webflux.global-filter.netty-routing.enabled=false}.
+ */
+@Component
+public class PooledRoutingFilter extends NettyRoutingFilter {
+
+    private final UpstreamHttpClients clients;
+
+    public PooledRoutingFilter(HttpClient httpClient, ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+            HttpClientProperties properties, UpstreamHttpClients clients) {
+        super(httpClient, headersFilters, properties);
+        this.clients = clients;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient client = clients.dedicated(route);
+        if (client == null) {
+            return super.getHttpClient(route, exchange);
+        }
+        // Igual que el filtro original: el connect-timeout de la ruta sustituye al global
+        Object connectTimeout = route.getMetadata().get(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            return client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Integer.parseInt(connectTimeout.toString()));
+        }
+        return client;
+    }
+}
@@ -0,0 +1,158 @@
+package pe.edu.cibertec.apigateway.upstream;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Clientes HTTP de las rutas y servicios con pool propio
+ * ({@link UpstreamPoolProperties}). Cada uno se construye igual que el
+ * cliente del gateway (timeouts, SSL, proxy, customizers) y solo cambia el
+ * pool, así un servicio lento no agota las conexiones de los demás. Cada
+ * pool puede además hablar HTTP/2 con su destino (h2c o h2) para multiplexar
+ * las peticiones sobre pocas conexiones.
+ * <p>
+ * Los pools publican las métricas de Reactor Netty
+ * ({@code reactor.netty.connection.provider.*}: conexiones activas, ociosas,
+ * en espera y tiempo de adquisición) con la etiqueta {@code name} del pool.
+ */
+@Component
+public class UpstreamHttpClients {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamHttpClients.class);
+
+    private final HttpClient defaultClient;
+    private final Map<String, HttpClient> routes = new HashMap<>();
+    private final Map<String, HttpClient> services = new HashMap<>();
+    private final List<ConnectionProvider> providers = new ArrayList<>();
+
+    public UpstreamHttpClients(UpstreamPoolProperties pools, HttpClient httpClient, HttpClientProperties properties,
+            ServerProperties serverProperties, HttpClientSslConfigurer ssl,
+            ObjectProvider<HttpClientCustomizer> customizers) {
+        this.defaultClient = httpClient;
+        List<HttpClientCustomizer> customizerList = customizers.orderedStream().toList();
+        pools.getRoutes().forEach((routeId, pool) -> routes.put(routeId,
+                build("route-" + routeId, pool, properties, serverProperties, ssl, customizerList)));
+        pools.getServices().forEach((serviceId, pool) -> services.put(serviceId,
+                build("service-" + serviceId, pool, properties, serverProperties, ssl, customizerList)));
+    }
+
+    private HttpClient build(String key, UpstreamPoolProperties.Pool pool, HttpClientProperties properties,
+            ServerProperties serverProperties, HttpClientSslConfigurer ssl, List<HttpClientCustomizer> customizers) {
+        ConnectionProvider provider = provider(properties.getPool().getName() + "-" + key, properties.getPool(), pool);
+        providers.add(provider);
+        HttpClient client = new PoolFactory(properties, serverProperties, ssl, customizers, provider).build();
+        if (!pool.getProtocols().isEmpty()) {
+            client = client.protocol(pool.getProtocols().toArray(HttpProtocol[]::new));
+        }
+        log.info("Pool de conexiones {}: max-connections={}, protocolos={}", provider.name(),
+                provider.maxConnections(), client.configuration().protocols());
+        return client;
+    }
+
+    /** Cliente con pool propio de la ruta o de su servicio; {@code null} si usa el pool compartido. */
+    public HttpClient dedicated(Route route) {
+        HttpClient client = routes.get(route.getId());
+        if (client == null && "lb".equalsIgnoreCase(route.getUri().getScheme())) {
+            client = services.get(route.getUri().getHost());
+        }
+        return client;
+    }
+
+    /** Cliente con el que se debe llamar al destino de la ruta. */
+    public HttpClient client(Route route) {
+        HttpClient client = dedicated(route);
+        return client != null ? client : defaultClient;
+    }
+
+    @PreDestroy
+    public void stop() {
+        providers.forEach(ConnectionProvider::dispose);
+    }
+
+    // Los valores sin indicar se heredan del pool global del gateway
+    static ConnectionProvider provider(String name, HttpClientProperties.Pool global, UpstreamPoolProperties.Pool pool) {
+        int maxConnections = first(pool.getMaxConnections(), global.getMaxConnections(),
+                ConnectionProvider.DEFAULT_POOL_MAX_CONNECTIONS);
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(first(pool.getPendingAcquireTimeout(),
+                        global.getAcquireTimeout() == null ? null : Duration.ofMillis(global.getAcquireTimeout()),
+                        Duration.ofMillis(ConnectionProvider.DEFAULT_POOL_ACQUIRE_TIMEOUT)))
+                .metrics(true);
+        // Sin valor rige el de Reactor Netty: el doble de maxConnections
+        if (pool.getPendingAcquireMaxCount() != null) {
+            builder.pendingAcquireMaxCount(pool.getPendingAcquireMaxCount());
+        }
+        Duration maxIdleTime = first(pool.getMaxIdleTime(), global.getMaxIdleTime(), null);
+        if (maxIdleTime != null) {
+            builder.maxIdleTime(maxIdleTime);
+        }
+        Duration maxLifeTime = first(pool.getMaxLifeTime(), global.getMaxLifeTime(), null);
+        if (maxLifeTime != null) {
+            builder.maxLifeTime(maxLifeTime);
+        }
+        Duration evictionInterval = first(pool.getEvictionInterval(), global.getEvictionInterval(), Duration.ZERO);
+        if (!evictionInterval.isZero()) {
+            builder.evictInBackground(evictionInterval);
+        }
+        if (first(pool.getLeasingStrategy(), global.getLeasingStrategy(),
+                HttpClientProperties.Pool.LeasingStrategy.FIFO) == HttpClientProperties.Pool.LeasingStrategy.LIFO) {
+            builder.lifo();
+        } else {
+            builder.fifo();
+        }
+        if (pool.getMaxConcurrentStreams() != null) {
+            // Con HTTP/2 el límite de conexiones lo lleva la estrategia de asignación
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(maxConnections)
+                    .maxConcurrentStreams(pool.getMaxConcurrentStreams())
+                    .build());
+        }
+        return builder.build();
+    }
+
+    private static <T> T first(T value, T inherited, T fallback) {
+        return value != null ? value : inherited != null ? inherited : fallback;
+    }
+
+    // Reutiliza la construcción del cliente del gateway cambiando solo el pool
+    private static final class PoolFactory extends HttpClientFactory {
+
+        private final ConnectionProvider provider;
+
+        PoolFactory(HttpClientProperties properties, ServerProperties serverProperties, HttpClientSslConfigurer ssl,
+                List<HttpClientCustomizer> customizers, ConnectionProvider provider) {
+            super(properties, serverProperties, ssl, customizers);
+            this.provider = provider;
+        }
+
+        @Override
+        protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+            return provider;
+        }
+
+        HttpClient build() {
+            return createInstance();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package pe.edu.cibertec.apigateway.upstream;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * Pools de conexiones propios por ruta o por servicio destino
+ * ({@code gateway.upstream-pool.*}). Lo que no se indica se toma de
+ * {@code spring.cloud.gateway.server.webflux.httpclient.pool}; las rutas y
+ * servicios sin entrada usan el pool compartido del gateway.
+ */
+@ConfigurationProperties(prefix = "gateway.upstream-pool")
+public class UpstreamPoolProperties {
+
+    // Id de ruta -> pool propio (tiene prioridad sobre el del servicio)
+    private Map<String, Pool> routes = new LinkedHashMap<>();
+
+    // Service id de las rutas lb:// -> pool propio
+    private Map<String, Pool> services = new LinkedHashMap<>();
+
+    public Map<String, Pool> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Pool> routes) {
+        this.routes = routes;
+    }
+
+    public Map<String, Pool> getServices() {
+        return services;
+    }
+
+    public void setServices(Map<String, Pool> services) {
+        this.services = services;
+    }
+
+    public static class Pool {
+
+        // Conexiones simultáneas por instancia destino
+        private Integer maxConnections;
+
+        // Peticiones que pueden esperar conexión; -1 = sin límite, sin valor = 2 x maxConnections
+        private Integer pendingAcquireMaxCount;
+
+        // Espera máxima por una conexión libre
+        private Duration pendingAcquireTimeout;
+
+        // Desalojo de conexiones ociosas o demasiado antiguas, y cada cuánto se revisa en segundo plano
+        private Duration maxIdleTime;
+        private Duration maxLifeTime;
+        private Duration evictionInterval;
+
+        // LIFO reutiliza las conexiones más calientes y deja caducar las demás
+        private HttpClientProperties.Pool.LeasingStrategy leasingStrategy;
+
+        // Protocolos hacia el destino: HTTP11,H2C (upgrade en texto plano), H2C (prior knowledge)
+        // o H2,HTTP11 (TLS con ALPN); vacío = los del cliente del gateway
+        private List<HttpProtocol> protocols = new ArrayList<>();
+
+        // Streams simultáneos por conexión HTTP/2; sin valor manda el SETTINGS del destino
+        private Long maxConcurrentStreams;
+
+        public Integer getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(Integer maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Integer getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(Integer pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public Duration getPendingAcquireTimeout() {
+            return pendingAcquireTimeout;
+        }
+
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
+
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        public Duration getMaxLifeTime() {
+            return maxLifeTime;
+        }
+
+        public void setMaxLifeTime(Duration maxLifeTime) {
+            this.maxLifeTime = maxLifeTime;
+        }
+
+        public Duration getEvictionInterval() {
+            return evictionInterval;
+        }
+
+        public void setEvictionInterval(Duration evictionInterval) {
+            this.evictionInterval = evictionInterval;
+        }
+
+        public HttpClientProperties.Pool.LeasingStrategy getLeasingStrategy() {
+            return leasingStrategy;
+        }
+
+        public void setLeasingStrategy(HttpClientProperties.Pool.LeasingStrategy leasingStrategy) {
+            this.leasingStrategy = leasingStrategy;
+        }
+
+        public List<HttpProtocol> getProtocols() {
+            return protocols;
+        }
+
+        public void setProtocols(List<HttpProtocol> protocols) {
+            this.protocols = protocols;
+        }
+
+        public Long getMaxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        public void setMaxConcurrentStreams(Long maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+    }
+}
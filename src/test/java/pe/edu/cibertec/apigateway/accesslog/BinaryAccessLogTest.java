@@ -0,0 +1,127 @@
+package pe.edu.cibertec.apigateway.accesslog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+@DisplayName("BinaryAccessLog - Rotación mapeada en memoria y lector")
+class BinaryAccessLogTest {
+
+    private static final long BASE = Instant.parse("2025-08-20T10:00:00Z").toEpochMilli();
+    private static final long MINUTE = 60_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Al reabrir continúa después de la entrada más reciente")
+    void reopen_ShouldResumeAfterNewestSlot() throws IOException {
+        BinaryAccessLog first = open(2);
+        for (int i = 0; i < 3; i++) {
+            record(first, i, "product-service", 200, null);
+        }
+        first.stop();
+
+        BinaryAccessLog second = open(2);
+        record(second, 3, "order-service", 201, null);
+        second.stop();
+
+        List<AccessLogFormat.Entry> entries = read();
+        assertThat(entries).extracting(AccessLogFormat.Entry::timestampMillis)
+                .containsExactly(BASE, BASE + MINUTE, BASE + 2 * MINUTE, BASE + 3 * MINUTE);
+        assertThat(entries.get(3).route()).isEqualTo("order-service");
+        assertThat(entries.get(3).status()).isEqualTo(201);
+    }
+
+    @Test
+    @DisplayName("Al dar la vuelta a los dos archivos se sobrescriben las entradas más antiguas")
+    void wraparound_ShouldOverwriteOldestEntries() throws IOException {
+        // Dos archivos de cuatro entradas: ocho slots en total
+        BinaryAccessLog accessLog = open(2);
+        for (int i = 0; i < 10; i++) {
+            record(accessLog, i, "product-service", 200, null);
+        }
+        accessLog.stop();
+
+        assertThat(read()).extracting(AccessLogFormat.Entry::timestampMillis)
+                .containsExactly(BASE + 2 * MINUTE, BASE + 3 * MINUTE, BASE + 4 * MINUTE, BASE + 5 * MINUTE,
+                        BASE + 6 * MINUTE, BASE + 7 * MINUTE, BASE + 8 * MINUTE, BASE + 9 * MINUTE);
+    }
+
+    @Test
+    @DisplayName("Cada filtro del lector devuelve solo las entradas que cumplen")
+    void reader_ShouldApplyEachFilter() throws IOException {
+        BinaryAccessLog accessLog = open(2);
+        record(accessLog, 0, "product-service", 200, null);
+        record(accessLog, 1, "order-service", 201, "ana@tienda.pe");
+        record(accessLog, 2, "product-service", 503, null);
+        record(accessLog, 3, "order-service", 404, "admin@admin.com");
+        record(accessLog, 4, "user-service", 500, "ana@tienda.pe");
+        accessLog.stop();
+
+        assertThat(read("--from", "2025-08-20T10:02:00Z")).extracting(AccessLogFormat.Entry::timestampMillis)
+                .containsExactly(BASE + 2 * MINUTE, BASE + 3 * MINUTE, BASE + 4 * MINUTE);
+        assertThat(read("--to", String.valueOf(BASE + MINUTE))).extracting(AccessLogFormat.Entry::timestampMillis)
+                .containsExactly(BASE, BASE + MINUTE);
+        assertThat(read("--route", "order-service")).extracting(AccessLogFormat.Entry::status)
+                .containsExactly(201, 404);
+        assertThat(read("--status", "5xx")).extracting(AccessLogFormat.Entry::route)
+                .containsExactly("product-service", "user-service");
+        assertThat(read("--status", "404")).extracting(AccessLogFormat.Entry::route)
+                .containsExactly("order-service");
+        assertThat(read("--user", "ana@tienda.pe")).extracting(AccessLogFormat.Entry::status)
+                .containsExactly(201, 500);
+        assertThat(read("--route", "order-service", "--user", "admin@admin.com", "--from", "2025-08-20T10:01:00Z"))
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.method()).isEqualTo("GET");
+                    assertThat(entry.latencyMicros()).isEqualTo(1_500);
+                    assertThat(entry.bytesIn()).isEqualTo(-1);
+                    assertThat(entry.bytesOut()).isEqualTo(256);
+                    assertThat(entry.userHash()).isEqualTo(AccessLogFormat.userHash("admin@admin.com"));
+                });
+    }
+
+    @Test
+    @DisplayName("Opciones desconocidas o valores inválidos se rechazan")
+    void reader_ShouldRejectInvalidArguments() {
+        assertThatThrownBy(() -> new AccessLogReader().parse(new String[] { "--status", "7xx" }))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AccessLogReader().parse(new String[] { "--from", "ayer" }))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AccessLogReader().parse(new String[] { "--limit", "10" }))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private BinaryAccessLog open(int files) throws IOException {
+        // Cabecera más cuatro entradas por archivo
+        BinaryAccessLog accessLog = new BinaryAccessLog("BINARY", directory.toString(),
+                DataSize.ofBytes(5L * AccessLogFormat.ENTRY_SIZE), files);
+        accessLog.start();
+        assertThat(accessLog.isEnabled()).isTrue();
+        return accessLog;
+    }
+
+    private static void record(BinaryAccessLog accessLog, int minute, String route, int status, String user) {
+        accessLog.record(BASE + minute * MINUTE, route, "GET", status, 1_500, -1, 256, user);
+    }
+
+    private List<AccessLogFormat.Entry> read(String... filters) throws IOException {
+        AccessLogReader reader = new AccessLogReader();
+        String[] args = new String[filters.length + 2];
+        args[0] = "--dir";
+        args[1] = directory.toString();
+        System.arraycopy(filters, 0, args, 2, filters.length);
+        reader.parse(args);
+        return reader.read();
+    }
+}
@@ -0,0 +1,153 @@
+package pe.edu.cibertec.apigateway.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.WebFilterChain;
+
+import pe.edu.cibertec.apigateway.security.PathAccessProperties;
+import pe.edu.cibertec.apigateway.security.PublicPathMatcher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@DisplayName("ResponseCacheFilter - Caché de GET públicos")
+class ResponseCacheFilterTest {
+
+    private static final String CATALOG = "[{\"id\":1,\"nombre\":\"iPhone 14 Pro\"}]";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private ResponseCacheFilter filter(ResponseCacheProperties properties) {
+        ResponseCache cache = new ResponseCache(properties);
+        return new ResponseCacheFilter(cache, new CacheRevalidator(WebClient.builder(), cache, properties, false),
+                new PublicPathMatcher(new PathAccessProperties()));
+    }
+
+    private WebFilterChain upstream(String cacheControl) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (cacheControl != null) {
+                response.getHeaders().setCacheControl(cacheControl);
+            }
+            return response.writeWith(Mono.just(response.bufferFactory()
+                    .wrap(CATALOG.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private MockServerWebExchange run(ResponseCacheFilter filter, MockServerHttpRequest request, WebFilterChain chain) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    @Test
+    @DisplayName("El segundo GET se sirve desde caché y un If-None-Match coincidente recibe 304")
+    void repeatedGet_ShouldHitCacheAndHonourEtag() {
+        ResponseCacheFilter filter = filter(new ResponseCacheProperties());
+        WebFilterChain chain = upstream(null);
+
+        MockServerWebExchange miss = run(filter, MockServerHttpRequest.get("/api/products").build(), chain);
+        assertThat(miss.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("MISS");
+        assertThat(miss.getResponse().getBodyAsString().block()).isEqualTo(CATALOG);
+
+        MockServerWebExchange hit = run(filter, MockServerHttpRequest.get("/api/products").build(), chain);
+        String etag = hit.getResponse().getHeaders().getETag();
+        assertThat(hit.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(hit.getResponse().getBodyAsString().block()).isEqualTo(CATALOG);
+
+        MockServerWebExchange notModified = run(filter, MockServerHttpRequest.get("/api/products")
+                .header(HttpHeaders.IF_NONE_MATCH, etag).build(), chain);
+        assertThat(notModified.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("No se guardan respuestas no-store ni rutas que no son públicas")
+    void nonCacheableResponses_ShouldReachUpstream() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.getRoutes().put("orders", new ResponseCacheProperties.Route("/api/orders"));
+        ResponseCacheFilter filter = filter(properties);
+
+        run(filter, MockServerHttpRequest.get("/api/products/1").build(), upstream("no-store"));
+        run(filter, MockServerHttpRequest.get("/api/products/1").build(), upstream("no-store"));
+        run(filter, MockServerHttpRequest.get("/api/orders/user/1").build(), upstream(null));
+        run(filter, MockServerHttpRequest.get("/api/orders/user/1").build(), upstream(null));
+
+        assertThat(upstreamCalls).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Un cuerpo mayor que max-entry-bytes llega completo al cliente y no se guarda")
+    void largeBody_ShouldStreamWithoutCaching() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setMaxEntryBytes(DataSize.ofBytes(64));
+        ResponseCacheFilter filter = filter(properties);
+        String chunk = "x".repeat(40);
+        // Sin Content-Length: se descubre el tamaño mientras se copia
+        WebFilterChain chunked = exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            return response.writeWith(Flux.range(0, 3).map(i -> response.bufferFactory()
+                    .wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        };
+
+        MockServerWebExchange first = run(filter, MockServerHttpRequest.get("/api/products").build(), chunked);
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(chunk.repeat(3));
+        MockServerWebExchange second = run(filter, MockServerHttpRequest.get("/api/products").build(), chunked);
+        assertThat(second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("MISS");
+
+        // Con Content-Length mayor que el límite ni siquiera se copia
+        WebFilterChain declared = exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentLength(120);
+            return response.writeWith(Mono.just(response.bufferFactory()
+                    .wrap(chunk.repeat(3).getBytes(StandardCharsets.UTF_8))));
+        };
+        MockServerWebExchange large = run(filter, MockServerHttpRequest.get("/api/products/1").build(), declared);
+        assertThat(large.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isNull();
+        assertThat(large.getResponse().getBodyAsString().block()).hasSize(120);
+        run(filter, MockServerHttpRequest.get("/api/products/1").build(), declared);
+
+        assertThat(upstreamCalls).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("El presupuesto en bytes descarta primero las entradas menos usadas")
+    void byteBudget_ShouldEvictLeastRecentlyUsed() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setMaxBytes(DataSize.ofBytes(2_000));
+        ResponseCache cache = new ResponseCache(properties);
+        HttpHeaders headers = new HttpHeaders();
+        long now = 1_000_000L;
+
+        cache.put("/a", new CachedResponse(HttpStatus.OK, headers, new byte[500], now, 30_000, 0));
+        cache.put("/b", new CachedResponse(HttpStatus.OK, headers, new byte[500], now + 1, 30_000, 0));
+        cache.get("/a", now + 2);
+        cache.put("/c", new CachedResponse(HttpStatus.OK, headers, new byte[500], now + 3, 30_000, 0));
+
+        assertThat(cache.bytes()).isLessThanOrEqualTo(2_000);
+        assertThat(cache.get("/a", now + 4)).isNotNull();
+        assertThat(cache.get("/b", now + 4)).isNull();
+        assertThat(cache.get("/c", now + 4)).isNotNull();
+    }
+}
@@ -0,0 +1,65 @@
+package pe.edu.cibertec.apigateway.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisplayName("ProductCatalog - Catálogo pre-serializado")
+class ProductCatalogTest {
+
+    private final ProductCatalog catalog = new ProductCatalog(new ObjectMapper(), List.of(
+            new Product(3, "MacBook Pro M2", 1999.99, "Laptop Apple", "Laptops", 10, "mac.jpg"),
+            new Product(1, "iPhone 14 Pro", 1299.99, "Smartphone Apple", "Smartphones", 25, "iphone.jpg")));
+
+    private static String text(DataBuffer buffer) {
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Busca por id y lista en orden de id con el JSON ya serializado")
+    void lookupAndListing_ShouldServeSerializedJson() {
+        assertThat(text(catalog.body(1).identity())).startsWith("{\"id\":1,\"nombre\":\"iPhone 14 Pro\"");
+        assertThat(catalog.body(2)).isNull();
+        assertThat(catalog.body(Long.MAX_VALUE)).isNull();
+        assertThat(text(catalog.listing().identity())).startsWith("[{\"id\":1,").contains("},{\"id\":3,");
+    }
+
+    @Test
+    @DisplayName("Un cambio vuelve a serializar solo el producto afectado y el listado")
+    void upsert_ShouldReuseUnchangedBodies() {
+        SerializedBody unchanged = catalog.body(3);
+        SerializedBody listing = catalog.listing();
+
+        catalog.upsert(new Product(1, "iPhone 14 Pro", 1199.99, "Smartphone Apple", "Smartphones", 20, "iphone.jpg"));
+
+        assertThat(catalog.body(3)).isSameAs(unchanged);
+        assertThat(text(catalog.body(1).identity())).contains("\"precio\":1199.99");
+        assertThat(catalog.listing().etag()).isNotEqualTo(listing.etag());
+    }
+
+    @Test
+    @DisplayName("La variante gzip descomprime al mismo JSON y respeta Accept-Encoding")
+    void gzipVariant_ShouldMatchIdentity() throws IOException {
+        SerializedBody listing = catalog.listing();
+        assertThat(listing.hasGzip()).isTrue();
+        try (GZIPInputStream in = new GZIPInputStream(listing.gzip().asInputStream())) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(text(listing.identity()));
+        }
+        assertThat(listing.gzipEtag()).isNotEqualTo(listing.etag());
+
+        assertThat(SerializedBody.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(SerializedBody.acceptsGzip("br;q=1.0, *;q=0.5")).isTrue();
+        assertThat(SerializedBody.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(SerializedBody.acceptsGzip("identity")).isFalse();
+        assertThat(SerializedBody.acceptsGzip(null)).isFalse();
+    }
+}
@@ -0,0 +1,90 @@
+package pe.edu.cibertec.apigateway.config;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.WebFilterChainProxy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import pe.edu.cibertec.apigateway.diagnostics.DiagnosticsProperties;
+import pe.edu.cibertec.apigateway.diagnostics.RequestLog;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import pe.edu.cibertec.apigateway.security.JwtKeyProperties;
+import pe.edu.cibertec.apigateway.security.JwtVerificationExecutor;
+import pe.edu.cibertec.apigateway.security.PathAccessProperties;
+import pe.edu.cibertec.apigateway.security.PublicPathMatcher;
+import pe.edu.cibertec.apigateway.security.SigningKeyRing;
+import pe.edu.cibertec.apigateway.security.TokenRejectionTracker;
+import pe.edu.cibertec.apigateway.security.TokenRevocationList;
+import pe.edu.cibertec.apigateway.security.VerifiedTokenCache;
+
+@DisplayName("SecurityConfig - Autorización desde la tabla de rutas")
+class SecurityConfigTest {
+
+    private static final String SECRET = "MiClaveSecretaSuperSeguraParaJWTEnMicroserviciosQueDebeSerMuyLarga";
+
+    private final JwtVerificationExecutor executor = new JwtVerificationExecutor(false, 1, 16);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private WebTestClient client() {
+        SecurityConfig config = new SecurityConfig();
+        ReflectionTestUtils.setField(config, "publicPathMatcher", new PublicPathMatcher(new PathAccessProperties()));
+        WebFilterChainProxy security = new WebFilterChainProxy(config.securityWebFilterChain(ServerHttpSecurity.http(),
+                new SigningKeyRing(new JwtKeyProperties(), SECRET),
+                new VerifiedTokenCache(true, 100, Duration.ofHours(1)), executor,
+                new TokenRejectionTracker(0, Duration.ofMinutes(1)),
+                new TokenRevocationList(null, Duration.ofHours(24), Duration.ofMinutes(5), 1024),
+                new LatencyRecorder(false, Duration.ofSeconds(10), List.of(Duration.ofMinutes(1))),
+                new RequestLog(new DiagnosticsProperties())));
+        return WebTestClient.bindToWebHandler(exchange -> exchange.getResponse().setComplete())
+                .webFilter(security)
+                .build();
+    }
+
+    private static String token() {
+        return Jwts.builder()
+                .subject("ana@tienda.pe")
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Test
+    @DisplayName("Una ruta protegida pasa la autorización con la identidad del filtro JWT")
+    void protectedPath_WithToken_ShouldBeAuthorized() {
+        client().get().uri("/api/orders/user/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token())
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("Una ruta protegida sin token recibe 401")
+    void protectedPath_WithoutToken_ShouldBeRejected() {
+        client().get().uri("/api/orders/user/1")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    @DisplayName("Las rutas públicas y de autenticación opcional no exigen token")
+    void publicAndOptionalPaths_ShouldBePermitted() {
+        WebTestClient client = client();
+        client.get().uri("/api/products").exchange().expectStatus().isOk();
+        client.get().uri("/api/auth/validate").exchange().expectStatus().isOk();
+    }
+}
@@ -0,0 +1,59 @@
+package pe.edu.cibertec.apigateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import pe.edu.cibertec.apigateway.catalog.Product;
+import reactor.core.publisher.Flux;
+
+@DisplayName("CursorPagination - Listados NDJSON por cursor")
+class CursorPaginationTest {
+
+    private final MockDataController controller = new MockDataController(new ObjectMapper());
+
+    @Test
+    @DisplayName("Recorre el catálogo por páginas sin repetir ni saltar productos")
+    void pages_ShouldCoverCatalogInIdOrder() {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockServerHttpRequest request = MockServerHttpRequest.get("/api/products/stream?limit=2").build();
+            ResponseEntity<Flux<Product>> page = controller.streamProducts(cursor, 2, request);
+            assertThat(page.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+            page.getBody().map(Product::id).doOnNext(ids::add).blockLast();
+            cursor = page.getHeaders().getFirst(CursorPagination.NEXT_CURSOR_HEADER);
+            if (cursor != null) {
+                assertThat(page.getHeaders().getFirst(HttpHeaders.LINK))
+                        .isEqualTo("</api/products/stream?limit=2&cursor=" + cursor + ">; rel=\"next\"");
+            }
+            pages++;
+        } while (cursor != null);
+
+        assertThat(ids).containsExactly(1, 2, 3, 4, 5);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Un cursor inválido se rechaza con 400")
+    void invalidCursor_ShouldBeRejected() {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/products/stream").build();
+
+        assertThat(controller.streamProducts("no-es-un-cursor", null, request).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(CursorPagination.after(CursorPagination.encode(42))).isEqualTo(42L);
+        assertThat(CursorPagination.limit(50_000)).isEqualTo(CursorPagination.MAX_LIMIT);
+    }
+}
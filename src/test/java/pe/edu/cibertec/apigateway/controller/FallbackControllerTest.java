@@ -0,0 +1,45 @@
+package pe.edu.cibertec.apigateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+@DisplayName("FallbackController - Respuestas de los circuit breakers")
+class FallbackControllerTest {
+
+    private final WebTestClient client = WebTestClient.bindToController(new FallbackController()).build();
+
+    @Test
+    @DisplayName("Responde 503 con el mismo cuerpo para cualquier método HTTP")
+    void fallback_ShouldMapEveryMethod() {
+        for (HttpMethod method : new HttpMethod[] {HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.DELETE}) {
+            client.method(method).uri("/fallback/order")
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                    .expectHeader().valueEquals(FallbackController.FALLBACK_REASON_HEADER, "error")
+                    .expectBody()
+                    .jsonPath("$.error").isEqualTo("Order service is temporarily unavailable")
+                    .jsonPath("$.status").isEqualTo(503);
+        }
+    }
+
+    @Test
+    @DisplayName("Identifica circuito abierto y timeout")
+    void reason_ShouldDescribeCause() {
+        CallNotPermittedException open = CallNotPermittedException
+                .createCallNotPermittedException(CircuitBreaker.ofDefaults("order-service"));
+
+        assertThat(FallbackController.reason(open)).isEqualTo("circuit-open");
+        assertThat(FallbackController.reason(new TimeoutException())).isEqualTo("timeout");
+        assertThat(FallbackController.reason(null)).isEqualTo("error");
+    }
+}
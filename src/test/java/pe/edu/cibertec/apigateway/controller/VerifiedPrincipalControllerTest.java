@@ -0,0 +1,86 @@
+package pe.edu.cibertec.apigateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import pe.edu.cibertec.apigateway.security.JwtKeyProperties;
+import pe.edu.cibertec.apigateway.security.SigningKeyRing;
+import pe.edu.cibertec.apigateway.security.TokenRevocationList;
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipalArgumentResolver;
+
+@DisplayName("VerifiedPrincipalArgumentResolver - Identidad verificada en los controladores")
+class VerifiedPrincipalControllerTest {
+
+    private static final String SECRET = "MiClaveSecretaSuperSeguraParaJWTEnMicroserviciosQueDebeSerMuyLarga";
+
+    private final TokenRevocationList revocations = new TokenRevocationList("", Duration.ofHours(24),
+            Duration.ofMinutes(5), 1000);
+
+    // Simula a JwtAuthenticationFilter publicando la identidad en el exchange
+    private WebTestClient client(VerifiedPrincipal principal) {
+        return WebTestClient.bindToController(
+                        new MockAuthController(new SigningKeyRing(new JwtKeyProperties(), SECRET), Duration.ofHours(24)),
+                        new RevocationController(revocations, List.of("admin@admin.com")))
+                .argumentResolvers(configurer -> configurer.addCustomResolver(new VerifiedPrincipalArgumentResolver()))
+                .webFilter((exchange, chain) -> {
+                    if (principal != null) {
+                        exchange.getAttributes().put(VerifiedPrincipal.ATTRIBUTE, principal);
+                    }
+                    return chain.filter(exchange);
+                })
+                .build();
+    }
+
+    private static VerifiedPrincipal principal(String subject) {
+        Instant now = Instant.now();
+        return new VerifiedPrincipal(subject, "jti-1", now, now.plusSeconds(3600));
+    }
+
+    @Test
+    @DisplayName("Con identidad en el exchange el controlador la recibe como parámetro")
+    void validate_ShouldReceivePrincipal() {
+        client(principal("admin@admin.com")).get().uri("/api/auth/validate")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.valid").isEqualTo(true)
+                .jsonPath("$.email").isEqualTo("admin@admin.com");
+    }
+
+    @Test
+    @DisplayName("Sin identidad el parámetro llega en null y no falla la resolución")
+    void validate_WithoutPrincipal_ShouldReturn401() {
+        client(null).get().uri("/api/auth/validate")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.valid").isEqualTo(false);
+    }
+
+    @Test
+    @DisplayName("La revocación usa el sujeto verificado para autorizar al administrador")
+    void revoke_ShouldAuthorizeBySubject() {
+        client(principal("admin@admin.com")).post().uri("/api/admin/revocations")
+                .bodyValue(Map.of("jti", "token-robado"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.revoked").isEqualTo(true);
+        assertThat(revocations.isRevoked(new VerifiedPrincipal("otro@correo.com", "token-robado", null, null)))
+                .isTrue();
+
+        client(principal("otro@correo.com")).post().uri("/api/admin/revocations")
+                .bodyValue(Map.of("jti", "otro-token"))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+}
@@ -0,0 +1,74 @@
+package pe.edu.cibertec.apigateway.cors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+@DisplayName("CorsPolicy - Orígenes y preflight")
+class CorsPolicyTest {
+
+    @Test
+    @DisplayName("Acepta orígenes exactos y subdominios de un comodín")
+    void origins_ShouldMatchExactAndWildcard() {
+        CorsProperties properties = new CorsProperties();
+        properties.setAllowedOrigins(List.of("http://localhost:4200", "https://*.tienda.pe"));
+        CorsPolicy policy = new CorsPolicy(properties);
+
+        assertThat(policy.isAllowedOrigin("http://localhost:4200")).isTrue();
+        assertThat(policy.isAllowedOrigin("https://app.tienda.pe")).isTrue();
+        assertThat(policy.isAllowedOrigin("https://admin.eu.tienda.pe")).isTrue();
+        assertThat(policy.isAllowedOrigin("https://tienda.pe")).isFalse();
+        assertThat(policy.isAllowedOrigin("http://app.tienda.pe")).isFalse();
+        assertThat(policy.isAllowedOrigin("https://app.tienda.pe.evil.com")).isFalse();
+        assertThat(policy.isAllowedOrigin("http://localhost:4300")).isFalse();
+    }
+
+    @Test
+    @DisplayName("El preflight devuelve el origen concreto y se reutiliza desde la caché")
+    void preflight_ShouldEchoOriginAndBeCached() {
+        CorsPolicy policy = new CorsPolicy(new CorsProperties());
+
+        CorsPolicy.Preflight first = policy.preflight("http://localhost:4200", "GET", "authorization");
+        CorsPolicy.Preflight second = policy.preflight("http://localhost:4200", "GET", "authorization");
+        HttpHeaders headers = new HttpHeaders();
+        first.applyTo(headers);
+
+        assertThat(first.allowed()).isTrue();
+        assertThat(second).isSameAs(first);
+        assertThat(headers.getAccessControlAllowOrigin()).isEqualTo("http://localhost:4200");
+        assertThat(headers.getFirst(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS)).isEqualTo("authorization");
+        assertThat(headers.getAccessControlAllowCredentials()).isTrue();
+        assertThat(headers.getVary()).contains(HttpHeaders.ORIGIN);
+    }
+
+    @Test
+    @DisplayName("Rechaza el preflight de un origen o método no permitido")
+    void preflight_ShouldRejectUnknownOriginOrMethod() {
+        CorsPolicy policy = new CorsPolicy(new CorsProperties());
+
+        assertThat(policy.preflight("https://evil.com", "GET", null).allowed()).isFalse();
+        assertThat(policy.preflight("http://localhost:4200", "TRACE", null).allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("No arranca con '*' y credenciales; sin credenciales '*' acepta cualquier origen")
+    void wildcard_ShouldRequireNoCredentials() {
+        CorsProperties properties = new CorsProperties();
+        properties.setAllowedOrigins(List.of("*"));
+
+        assertThatThrownBy(() -> new CorsPolicy(properties)).isInstanceOf(IllegalStateException.class);
+
+        properties.setAllowCredentials(false);
+        CorsPolicy policy = new CorsPolicy(properties);
+        HttpHeaders headers = new HttpHeaders();
+        policy.applyResponseHeaders("https://cualquiera.com", headers);
+
+        assertThat(policy.isAllowedOrigin("https://cualquiera.com")).isTrue();
+        assertThat(headers.getFirst(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS)).isNull();
+    }
+}
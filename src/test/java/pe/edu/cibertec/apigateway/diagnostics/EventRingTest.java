@@ -0,0 +1,124 @@
+package pe.edu.cibertec.apigateway.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("EventRing - Buffer circular de varios productores")
+class EventRingTest {
+
+    @Test
+    @DisplayName("La capacidad se redondea a la siguiente potencia de dos")
+    void capacity_ShouldBeRoundedToPowerOfTwo() {
+        assertThat(new EventRing<Integer>(1).capacity()).isEqualTo(4);
+        assertThat(new EventRing<Integer>(4).capacity()).isEqualTo(4);
+        assertThat(new EventRing<Integer>(5).capacity()).isEqualTo(8);
+        assertThat(new EventRing<Integer>(8).capacity()).isEqualTo(8);
+        assertThat(new EventRing<Integer>(1000).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    @DisplayName("Entrega en orden FIFO también al dar la vuelta al buffer")
+    void poll_ShouldKeepOrderAcrossWraparound() {
+        EventRing<Integer> ring = new EventRing<>(4);
+        List<Integer> polled = new ArrayList<>();
+
+        // Diez vueltas completas: los índices de slot se reutilizan
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertThat(ring.offer(round * 3 + i)).isTrue();
+            }
+            assertThat(ring.size()).isEqualTo(3);
+            Integer event;
+            while ((event = ring.poll()) != null) {
+                polled.add(event);
+            }
+        }
+
+        assertThat(polled).hasSize(30);
+        for (int i = 0; i < 30; i++) {
+            assertThat(polled.get(i)).isEqualTo(i);
+        }
+        assertThat(ring.size()).isZero();
+        assertThat(ring.poll()).isNull();
+    }
+
+    @Test
+    @DisplayName("offer devuelve false con el buffer lleno y acepta de nuevo tras un poll")
+    void offer_ShouldFailWhenFull() {
+        EventRing<Integer> ring = new EventRing<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+
+        assertThat(ring.offer(4)).isFalse();
+        assertThat(ring.size()).isEqualTo(4);
+
+        assertThat(ring.poll()).isEqualTo(0);
+        assertThat(ring.offer(4)).isTrue();
+        assertThat(ring.offer(5)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Varios productores concurrentes: ningún evento se pierde ni se duplica")
+    void concurrentProducers_ShouldNotLoseOrDuplicateEvents() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        EventRing<Integer> ring = new EventRing<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    // Buffer lleno: se reintenta para que el total sea exacto
+                    while (!ring.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        int total = producers * perProducer;
+        boolean[] seen = new boolean[total];
+        int[] lastPerProducer = new int[producers];
+        Arrays.fill(lastPerProducer, -1);
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < total && System.nanoTime() < deadline) {
+            Integer event = ring.poll();
+            if (event == null) {
+                Thread.yield();
+                continue;
+            }
+            assertThat(seen[event]).as("duplicado %d", event).isFalse();
+            seen[event] = true;
+            // Cada productor publica en orden; el consumidor debe verlo en ese orden
+            int producer = event / perProducer;
+            assertThat(event).isGreaterThan(lastPerProducer[producer]);
+            lastPerProducer[producer] = event;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        assertThat(received).isEqualTo(total);
+        assertThat(ring.poll()).isNull();
+    }
+}
@@ -0,0 +1,81 @@
+package pe.edu.cibertec.apigateway.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("RequestLog - Muestreo y descarte de eventos")
+class RequestLogTest {
+
+    private static RequestLog requestLog(double sampleRate, Map<String, Double> routeRates, int bufferSize) {
+        DiagnosticsProperties properties = new DiagnosticsProperties();
+        properties.setMode(DiagnosticsProperties.Mode.SAMPLED);
+        properties.setSampleRate(sampleRate);
+        properties.setRouteSampleRates(routeRates);
+        properties.setBufferSize(bufferSize);
+        return new RequestLog(properties);
+    }
+
+    @Test
+    @DisplayName("Con tasa 0 no registra nada y con tasa 1 lo registra todo")
+    void sampleRate_ShouldBeHonouredAtBounds() {
+        RequestLog never = requestLog(0.0, Map.of(), 16);
+        RequestLog always = requestLog(1.0, Map.of(), 16);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(never.shouldLog("order-service", 200, false)).isFalse();
+            assertThat(always.shouldLog("order-service", 200, false)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("La tasa por ruta tiene prioridad sobre la tasa por defecto")
+    void routeRate_ShouldOverrideDefault() {
+        RequestLog log = requestLog(0.0, Map.of("product-service", 1.0, "user-service", 0.0), 16);
+
+        assertThat(log.shouldLog("product-service", 200, false)).isTrue();
+        assertThat(log.shouldLog("user-service", 200, false)).isFalse();
+        assertThat(log.shouldLog("order-service", 200, false)).isFalse();
+        assertThat(log.shouldLog(null, 200, false)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Errores y estados desde always-log-status se registran con tasa 0")
+    void errors_ShouldAlwaysBeLogged() {
+        RequestLog log = requestLog(0.0, Map.of("product-service", 0.0), 16);
+
+        assertThat(log.shouldLog("product-service", 500, false)).isTrue();
+        assertThat(log.shouldLog("product-service", 503, false)).isTrue();
+        assertThat(log.shouldLog("product-service", 499, false)).isFalse();
+        assertThat(log.shouldLog("product-service", 200, true)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Con el buffer lleno publish devuelve false y cuenta el descarte")
+    void publish_ShouldCountDroppedEventsWhenFull() {
+        // Sin start(): no hay hilo escritor que vacíe el buffer
+        RequestLog log = requestLog(1.0, Map.of(), 4);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        log.bindTo(registry);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(log.publish(event(i))).isTrue();
+        }
+        assertThat(log.publish(event(4))).isFalse();
+        assertThat(log.publish(event(5))).isFalse();
+
+        assertThat(log.droppedCount()).isEqualTo(2);
+        assertThat(registry.get("gateway.requestlog.dropped").functionCounter().count()).isEqualTo(2.0);
+        assertThat(registry.get("gateway.requestlog.buffer").gauge().value()).isEqualTo(4.0);
+    }
+
+    private static RequestLogEvent event(int i) {
+        return new RequestLogEvent(System.currentTimeMillis(), "GET", "/api/products/" + i, "product-service",
+                200, 1_000, null, "public", null);
+    }
+}
@@ -0,0 +1,78 @@
+package pe.edu.cibertec.apigateway.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+@DisplayName("AdaptiveConcurrencyFilter - Límite de concurrencia por ruta")
+class AdaptiveConcurrencyFilterTest {
+
+    @Test
+    @DisplayName("Rechaza con 503 lo que supera el límite")
+    void overLimit_ShouldBeRejected() {
+        AdaptiveConcurrencyFilter factory = new AdaptiveConcurrencyFilter(null);
+        AdaptiveConcurrencyFilter.Config config = new AdaptiveConcurrencyFilter.Config();
+        config.setInitialLimit(2);
+        config.setMinLimit(2);
+        var filter = factory.apply(config);
+        Sinks.Empty<Void> upstream = Sinks.empty();
+
+        filter.filter(exchange(), e -> upstream.asMono()).subscribe();
+        filter.filter(exchange(), e -> upstream.asMono()).subscribe();
+        MockServerWebExchange rejected = exchange();
+        filter.filter(rejected, e -> Mono.empty()).block(Duration.ofSeconds(1));
+
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        upstream.tryEmitEmpty();
+        MockServerWebExchange accepted = exchange();
+        filter.filter(accepted, e -> Mono.empty()).block(Duration.ofSeconds(1));
+        assertThat(accepted.getResponse().getStatusCode()).isNull();
+    }
+
+    @Test
+    @DisplayName("El límite crece con RTT estable y baja cuando la RTT se dispara")
+    void limit_ShouldFollowLatency() {
+        AtomicLong clock = new AtomicLong();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(20, 5, 1000, 0.2, 1.5, 600, 0.9, clock::get);
+
+        for (int i = 0; i < 200; i++) {
+            saturate(limiter, clock, Duration.ofMillis(10));
+        }
+        int grown = limiter.limit();
+        assertThat(grown).isGreaterThan(100);
+
+        for (int i = 0; i < 50; i++) {
+            saturate(limiter, clock, Duration.ofMillis(200));
+        }
+        assertThat(limiter.limit()).isLessThan(grown / 4);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    // Una ventana: llena el límite actual y completa todas las peticiones con la misma RTT
+    private static void saturate(ConcurrencyLimiter limiter, AtomicLong clock, Duration rtt) {
+        clock.addAndGet(ConcurrencyLimiter.WINDOW_NANOS);
+        int limit = limiter.limit();
+        int[] starts = new int[limit];
+        for (int i = 0; i < limit; i++) {
+            starts[i] = limiter.tryAcquire();
+        }
+        assertThat(limiter.tryAcquire()).isEqualTo(-1);
+        for (int start : starts) {
+            limiter.complete(rtt.toNanos(), start, false);
+        }
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/order/1").build());
+    }
+}
@@ -0,0 +1,132 @@
+package pe.edu.cibertec.apigateway.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@DisplayName("CoalescingFilter - Agrupación de GET concurrentes")
+class CoalescingFilterTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private final GatewayFilterChain slowUpstream = exchange -> {
+        upstreamCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        byte[] body = ("producto " + exchange.getRequest().getURI().getRawPath()).getBytes(StandardCharsets.UTF_8);
+        return Mono.delay(Duration.ofMillis(100))
+                .then(response.writeWith(Mono.just(response.bufferFactory().wrap(body))));
+    };
+
+    @Test
+    @DisplayName("Peticiones idénticas en curso generan una sola llamada al destino")
+    void identicalConcurrentGets_ShouldShareOneUpstreamCall() {
+        CoalescingFilter factory = new CoalescingFilter();
+        GatewayFilter filter = factory.apply(new CoalescingFilter.Config());
+        List<MockServerWebExchange> exchanges = List.of(
+                MockServerWebExchange.from(MockServerHttpRequest.get("/product/7").build()),
+                MockServerWebExchange.from(MockServerHttpRequest.get("/product/7").build()),
+                MockServerWebExchange.from(MockServerHttpRequest.get("/product/7").build()),
+                MockServerWebExchange.from(MockServerHttpRequest.get("/product/8").build()));
+
+        Mono.when(exchanges.stream().map(exchange -> filter.filter(exchange, slowUpstream)).toList()).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(factory.collapsedCount()).isEqualTo(2);
+        for (MockServerWebExchange exchange : exchanges.subList(0, 3)) {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("producto /product/7");
+        }
+    }
+
+    @Test
+    @DisplayName("Las cabeceras configuradas separan grupos y el límite de espera deja pasar al resto")
+    void varyHeadersAndWaiterLimit_ShouldBypassSharing() {
+        CoalescingFilter.Config config = new CoalescingFilter.Config();
+        config.setMaxWaiters(1);
+        GatewayFilter filter = new CoalescingFilter().apply(config);
+
+        Mono.when(
+                filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/product/7").build()), slowUpstream),
+                filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/product/7").build()), slowUpstream),
+                filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/product/7").build()), slowUpstream),
+                filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/product/7")
+                        .header(HttpHeaders.ACCEPT_LANGUAGE, "en").build()), slowUpstream))
+                .block();
+
+        // Líder + seguidor comparten; el tercero supera el límite; el cuarto es otra clave
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Sin Content-Length un cuerpo mayor que el límite se transmite sin acumularlo ni compartirlo")
+    void largeBodyWithoutLength_ShouldStreamAndNotShare() {
+        CoalescingFilter.Config config = new CoalescingFilter.Config();
+        config.setMaxBodySize(DataSize.ofBytes(16));
+        GatewayFilter filter = new CoalescingFilter().apply(config);
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        GatewayFilterChain chunkedUpstream = exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            // El segundo fragmento solo se emite cuando el primero ya salió hacia el cliente
+            return response.writeWith(Flux.just("0123456789", "abcdefghij")
+                    .delayElements(Duration.ofMillis(50))
+                    .doOnNext(delivered::add)
+                    .map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        };
+        MockServerWebExchange leader = MockServerWebExchange.from(MockServerHttpRequest.get("/product/7").build());
+        MockServerWebExchange follower = MockServerWebExchange.from(MockServerHttpRequest.get("/product/7").build());
+
+        Mono.when(filter.filter(leader, chunkedUpstream),
+                        Mono.delay(Duration.ofMillis(10)).then(filter.filter(follower, chunkedUpstream)))
+                .block();
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(delivered).hasSize(4);
+        assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo("0123456789abcdefghij");
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("0123456789abcdefghij");
+    }
+
+    @Test
+    @DisplayName("Peticiones de usuarios distintos no comparten respuesta")
+    void differentSubjects_ShouldNotShare() {
+        GatewayFilter filter = new CoalescingFilter().apply(new CoalescingFilter.Config());
+
+        Mono.when(
+                filter.filter(authenticated("ana@tienda.pe"), slowUpstream),
+                filter.filter(authenticated("ana@tienda.pe"), slowUpstream),
+                filter.filter(authenticated("luis@tienda.pe"), slowUpstream),
+                filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/product/7")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer otro").build()), slowUpstream))
+                .block();
+
+        // Los dos de ana comparten; luis y el token sin verificar van por separado
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    private static MockServerWebExchange authenticated(String subject) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/product/7").build());
+        exchange.getAttributes().put(VerifiedPrincipal.ATTRIBUTE, new VerifiedPrincipal(subject, null, null, null));
+        return exchange;
+    }
+}
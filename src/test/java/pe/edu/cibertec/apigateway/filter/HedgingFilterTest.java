@@ -0,0 +1,111 @@
+package pe.edu.cibertec.apigateway.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import reactor.core.publisher.Mono;
+
+@DisplayName("HedgingFilter - Segundo intento ante respuestas lentas")
+class HedgingFilterTest {
+
+    @Test
+    @DisplayName("Si el primer intento tarda, gana el segundo y el primero se cancela")
+    void slowPrimary_ShouldLoseToHedge() {
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        Mono<String> primary = Mono.delay(Duration.ofSeconds(2)).thenReturn("lenta")
+                .doOnCancel(() -> primaryCancelled.set(true));
+
+        var winner = HedgingFilter.race(primary, Duration.ofMillis(20),
+                () -> Mono.delay(Duration.ofMillis(10)).thenReturn("rápida"), value -> { })
+                .block(Duration.ofSeconds(1));
+
+        assertThat(winner.value()).isEqualTo("rápida");
+        assertThat(winner.hedge()).isTrue();
+        assertThat(primaryCancelled).isTrue();
+    }
+
+    @Test
+    @DisplayName("Si el primer intento responde a tiempo no se envía el segundo")
+    void fastPrimary_ShouldNotHedge() {
+        AtomicBoolean hedged = new AtomicBoolean();
+
+        var winner = HedgingFilter.race(Mono.just("primera"), Duration.ofMillis(50), () -> {
+            hedged.set(true);
+            return Mono.just("segunda");
+        }, value -> { }).block(Duration.ofSeconds(1));
+
+        assertThat(winner.value()).isEqualTo("primera");
+        assertThat(winner.hedge()).isFalse();
+        assertThat(hedged).isFalse();
+    }
+
+    @Test
+    @DisplayName("Sin segundo intento el error del primero se propaga, no se repite la llamada")
+    void failedPrimary_ShouldPropagateError() {
+        IOException failure = new IOException("conexión rechazada");
+
+        assertThatThrownBy(() -> HedgingFilter.race(Mono.<String>error(failure), Duration.ofMillis(10),
+                Mono::empty, value -> { }).block(Duration.ofSeconds(1)))
+                .hasCause(failure);
+    }
+
+    @Test
+    @DisplayName("Una respuesta que llega cuando ya hay ganador se descarta")
+    void lateValue_ShouldBeDiscarded() {
+        List<String> discarded = new CopyOnWriteArrayList<>();
+        // Ignora la cancelación, como una respuesta que ya estaba en camino
+        Mono<String> primary = Mono.fromDirect(subscriber -> {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            Mono.delay(Duration.ofMillis(60)).subscribe(tick -> {
+                subscriber.onNext("tardía");
+                subscriber.onComplete();
+            });
+        });
+
+        var winner = HedgingFilter.race(primary, Duration.ofMillis(10), () -> Mono.just("segunda"), discarded::add)
+                .block(Duration.ofSeconds(1));
+
+        assertThat(winner.value()).isEqualTo("segunda");
+        Mono.delay(Duration.ofMillis(100)).block();
+        assertThat(discarded).containsExactly("tardía");
+    }
+
+    @Test
+    @DisplayName("El presupuesto limita los hedges al porcentaje del tráfico y a la ráfaga máxima")
+    void budget_ShouldCapHedges() {
+        HedgeBudget budget = new HedgeBudget(10, 5);
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        int hedges = 0;
+        while (budget.tryWithdraw()) {
+            hedges++;
+        }
+        assertThat(hedges).isEqualTo(5);
+
+        for (int i = 0; i < 25; i++) {
+            budget.deposit();
+        }
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+}
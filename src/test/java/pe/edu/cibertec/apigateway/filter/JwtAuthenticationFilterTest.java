@@ -0,0 +1,152 @@
+package pe.edu.cibertec.apigateway.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.jsonwebtoken.Jwts;
+import pe.edu.cibertec.apigateway.diagnostics.DiagnosticsProperties;
+import pe.edu.cibertec.apigateway.diagnostics.RequestLog;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import pe.edu.cibertec.apigateway.security.JwtKeyProperties;
+import pe.edu.cibertec.apigateway.security.JwtVerificationExecutor;
+import pe.edu.cibertec.apigateway.security.PathAccessProperties;
+import pe.edu.cibertec.apigateway.security.PublicPathMatcher;
+import pe.edu.cibertec.apigateway.security.RejectionReason;
+import pe.edu.cibertec.apigateway.security.SigningKeyRing;
+import pe.edu.cibertec.apigateway.security.TokenRejectionTracker;
+import pe.edu.cibertec.apigateway.security.TokenRevocationList;
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+import pe.edu.cibertec.apigateway.security.VerifiedTokenCache;
+import reactor.core.publisher.Mono;
+
+@DisplayName("JwtAuthenticationFilter - Verificación RS256/ES256 fuera del event loop")
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "MiClaveSecretaSuperSeguraParaJWTEnMicroserviciosQueDebeSerMuyLarga";
+
+    private final KeyPair rsa = generate("RSA");
+    private final KeyPair ec = generate("EC");
+    private final TokenRejectionTracker rejections = new TokenRejectionTracker(0, Duration.ofMinutes(1));
+
+    private JwtVerificationExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private JwtAuthenticationFilter filter(JwtVerificationExecutor verificationExecutor) {
+        this.executor = verificationExecutor;
+        JwtKeyProperties properties = new JwtKeyProperties();
+        properties.getPublicKeys().put("idp-rsa", Base64.getEncoder().encodeToString(rsa.getPublic().getEncoded()));
+        properties.getPublicKeys().put("idp-ec", Base64.getEncoder().encodeToString(ec.getPublic().getEncoded()));
+        return new JwtAuthenticationFilter(new SigningKeyRing(properties, SECRET),
+                new VerifiedTokenCache(true, 100, Duration.ofHours(1)), verificationExecutor, rejections,
+                new PublicPathMatcher(new PathAccessProperties()),
+                new TokenRevocationList(null, Duration.ofHours(24), Duration.ofMinutes(5), 1024),
+                new LatencyRecorder(false, Duration.ofSeconds(10), List.of(Duration.ofMinutes(1))),
+                new RequestLog(new DiagnosticsProperties()));
+    }
+
+    private static String token(String kid, KeyPair keys) {
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .subject("ana@tienda.pe")
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(keys.getPrivate())
+                .compact();
+    }
+
+    private static MockServerWebExchange authenticate(JwtAuthenticationFilter filter, String token) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders/user/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        filter.filter(exchange, ex -> {
+            ex.getResponse().setStatusCode(HttpStatus.OK);
+            ex.getAttributes().put("principal", ex.getAttribute(VerifiedPrincipal.ATTRIBUTE));
+            return Mono.empty();
+        }).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+
+    @Test
+    @DisplayName("Tokens RS256 y ES256 válidos se verifican en el pool y publican la identidad")
+    void asymmetricTokens_ShouldBeVerifiedOffTheEventLoop() {
+        JwtAuthenticationFilter filter = filter(new JwtVerificationExecutor(true, 1, 16));
+
+        for (String token : List.of(token("idp-rsa", rsa), token("idp-ec", ec))) {
+            MockServerWebExchange exchange = authenticate(filter, token);
+
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            VerifiedPrincipal principal = exchange.getAttribute("principal");
+            assertThat(principal.subject()).isEqualTo("ana@tienda.pe");
+        }
+    }
+
+    @Test
+    @DisplayName("Una firma alterada o de otra clave se rechaza con 401")
+    void tamperedSignature_ShouldBeRejected() {
+        JwtAuthenticationFilter filter = filter(new JwtVerificationExecutor(true, 1, 16));
+        String[] parts = token("idp-rsa", rsa).split("\\.");
+        String[] foreign = token("idp-rsa", generate("RSA")).split("\\.");
+
+        MockServerWebExchange tampered = authenticate(filter, parts[0] + "." + parts[1] + "." + foreign[2]);
+        MockServerWebExchange wrongKey = authenticate(filter, token("idp-ec", generate("EC")));
+
+        assertThat(tampered.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(wrongKey.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(rejections.count(RejectionReason.BAD_SIGNATURE)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Con el pool y su cola llenos responde 503 con Retry-After")
+    void saturatedPool_ShouldReturn503() throws Exception {
+        JwtVerificationExecutor saturated = new JwtVerificationExecutor(true, 1, 1);
+        JwtAuthenticationFilter filter = filter(saturated);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Un hilo ocupado y la única plaza de la cola tomada
+        CompletableFuture<Boolean> blocked = saturated.submit(() -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).toFuture();
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = saturated.submit(() -> true).toFuture();
+
+        try {
+            MockServerWebExchange exchange = authenticate(filter, token("idp-rsa", rsa));
+
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+            assertThat(saturated.rejectedCount()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+        assertThat(blocked.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static KeyPair generate(String algorithm) {
+        try {
+            return KeyPairGenerator.getInstance(algorithm).generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
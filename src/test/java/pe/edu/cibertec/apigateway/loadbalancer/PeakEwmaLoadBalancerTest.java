@@ -0,0 +1,129 @@
+package pe.edu.cibertec.apigateway.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+@DisplayName("PeakEwmaLoadBalancer - Balanceo por latencia con dos candidatas")
+class PeakEwmaLoadBalancerTest {
+
+    private DisposableServer fast;
+    private DisposableServer slow;
+
+    @AfterEach
+    void tearDown() {
+        if (fast != null) {
+            fast.disposeNow();
+        }
+        if (slow != null) {
+            slow.disposeNow();
+        }
+    }
+
+    @Test
+    @DisplayName("La instancia lenta recibe una fracción pequeña del tráfico")
+    void slowInstance_ShouldReceiveLessTraffic() {
+        fast = stub(Duration.ofMillis(2));
+        slow = stub(Duration.ofMillis(80));
+        ServiceInstance fastInstance = instance("fast", fast.port());
+        ServiceInstance slowInstance = instance("slow", slow.port());
+        // Decaimiento corto para que la prueba no dependa de la primera conexión
+        PeakEwmaProperties properties = new PeakEwmaProperties();
+        properties.setDecay(Duration.ofMillis(500));
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer("product-service",
+                ServiceInstanceListSuppliers.toProvider("product-service", fastInstance, slowInstance),
+                properties, null);
+        WebClient client = WebClient.create();
+        Flux.just(fastInstance, slowInstance)
+                .flatMap(instance -> client.get().uri(instance.getUri()).retrieve().toBodilessEntity())
+                .blockLast(Duration.ofSeconds(10));
+        Map<String, AtomicInteger> picks = new ConcurrentHashMap<>();
+
+        Flux.range(0, 200)
+                .flatMap(i -> balancer.choose(new DefaultRequest<>()).flatMap(response -> {
+                    PeakEwmaLoadBalancer.Choice choice = (PeakEwmaLoadBalancer.Choice) response;
+                    picks.computeIfAbsent(choice.getServer().getInstanceId(), id -> new AtomicInteger()).incrementAndGet();
+                    long start = choice.start();
+                    return client.get().uri(choice.getServer().getUri()).retrieve().toBodilessEntity()
+                            .doOnSuccess(entity -> choice.complete(start, false))
+                            .doOnError(e -> choice.complete(start, true));
+                }), 8)
+                .blockLast(Duration.ofSeconds(30));
+
+        assertThat(picks.get("slow").get()).isLessThan(40);
+        assertThat(picks.get("fast").get()).isGreaterThan(160);
+    }
+
+    @Test
+    @DisplayName("Una instancia registrada después del arranque entra con slow start")
+    void newInstance_ShouldRampUp() {
+        AtomicLong clock = new AtomicLong(1_000_000_000L);
+        PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer("user-service", null,
+                new PeakEwmaProperties(), null, clock::get);
+        ServiceInstance old = instance("old", 8081);
+        ServiceInstance added = instance("new", 8082);
+        balancer.pick(List.of(old));
+
+        List<ServiceInstance> both = List.of(old, added);
+        assertThat(countPicks(balancer, both, clock, "new", 200)).isZero();
+
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertThat(countPicks(balancer, both, clock, "new", 200)).isBetween(40, 160);
+    }
+
+    // Cuatro peticiones en curso; cada una tarda 10 ms en el reloj simulado
+    private static int countPicks(PeakEwmaLoadBalancer balancer, List<ServiceInstance> instances,
+            AtomicLong clock, String instanceId, int requests) {
+        ArrayDeque<Long> starts = new ArrayDeque<>();
+        ArrayDeque<PeakEwmaLoadBalancer.Choice> pending = new ArrayDeque<>();
+        int count = 0;
+        for (int i = 0; i < requests; i++) {
+            PeakEwmaLoadBalancer.Choice choice = (PeakEwmaLoadBalancer.Choice) balancer.pick(instances);
+            pending.add(choice);
+            starts.add(choice.start());
+            clock.addAndGet(Duration.ofMillis(10).toNanos() / 4);
+            if (pending.size() == 4) {
+                pending.poll().complete(starts.poll(), false);
+            }
+            if (choice.getServer().getInstanceId().equals(instanceId)) {
+                count++;
+            }
+        }
+        while (!pending.isEmpty()) {
+            pending.poll().complete(starts.poll(), false);
+        }
+        return count;
+    }
+
+    private static DisposableServer stub(Duration latency) {
+        return HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> Mono.delay(latency).then(response.sendString(Mono.just("ok")).then()))
+                .bindNow();
+    }
+
+    private static ServiceInstance instance(String id, int port) {
+        return new DefaultServiceInstance(id, "svc", "127.0.0.1", port, false);
+    }
+}
@@ -0,0 +1,66 @@
+package pe.edu.cibertec.apigateway.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+@DisplayName("RegistrySnapshot - Instancias del registro persistidas en disco")
+class RegistrySnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Tras reiniciar usa el snapshot hasta que el registro responde")
+    void restart_ShouldRouteFromSnapshotUntilRegistryAnswers() {
+        Path file = dir.resolve("registry.bin");
+        ServiceInstance instance = new DefaultServiceInstance("product-1", "product-service", "10.0.0.5", 8081,
+                false, Map.of("zone", "a"));
+        RegistrySnapshot before = snapshot(file);
+        before.observed("product-service", List.of(instance));
+        before.writeIfDirty();
+
+        RegistrySnapshot after = snapshot(file);
+        after.load();
+        SnapshotServiceInstanceListSupplier empty = new SnapshotServiceInstanceListSupplier(
+                ServiceInstanceListSuppliers.from("product-service"), after);
+        List<ServiceInstance> restored = empty.get().blockFirst();
+        assertThat(restored).singleElement().satisfies(restoredInstance -> {
+            assertThat(restoredInstance.getInstanceId()).isEqualTo("product-1");
+            assertThat(restoredInstance.getUri().toString()).isEqualTo("http://10.0.0.5:8081");
+            assertThat(restoredInstance.getMetadata()).containsEntry("zone", "a");
+        });
+
+        ServiceInstance live = new DefaultServiceInstance("product-2", "product-service", "10.0.0.6", 8081, false);
+        SnapshotServiceInstanceListSupplier fromRegistry = new SnapshotServiceInstanceListSupplier(
+                ServiceInstanceListSuppliers.from("product-service", live), after);
+        assertThat(fromRegistry.get().blockFirst()).containsExactly(live);
+        assertThat(empty.get().blockFirst()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un archivo corrupto se ignora")
+    void corruptFile_ShouldBeIgnored() throws Exception {
+        Path file = dir.resolve("registry.bin");
+        Files.write(file, new byte[] {1, 2, 3});
+        RegistrySnapshot snapshot = snapshot(file);
+        snapshot.load();
+
+        assertThat(snapshot.fallback("product-service")).isEmpty();
+    }
+
+    private static RegistrySnapshot snapshot(Path file) {
+        return new RegistrySnapshot(file.toString(), Duration.ofSeconds(30), Duration.ofHours(24));
+    }
+}
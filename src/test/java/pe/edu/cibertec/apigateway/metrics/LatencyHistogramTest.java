@@ -0,0 +1,50 @@
+package pe.edu.cibertec.apigateway.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("LatencyHistogram - Percentiles en ventana deslizante")
+class LatencyHistogramTest {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    @DisplayName("Los percentiles tienen un error relativo menor al 3%")
+    void percentiles_ShouldBeWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram(INTERVAL, 6, 4);
+        long now = INTERVAL * 100;
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros * 1000, now);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot(6, now);
+
+        assertThat(snapshot.total()).isEqualTo(100_000);
+        assertThat(snapshot.percentile(50)).isCloseTo(50_000, within(1_500.0));
+        assertThat(snapshot.percentile(90)).isCloseTo(90_000, within(2_700.0));
+        assertThat(snapshot.percentile(99.9)).isCloseTo(99_900, within(3_000.0));
+    }
+
+    @Test
+    @DisplayName("Los intervalos fuera de la ventana no se cuentan y se reutilizan")
+    void oldIntervals_ShouldLeaveTheWindow() {
+        LatencyHistogram histogram = new LatencyHistogram(INTERVAL, 6, 4);
+        long start = INTERVAL * 100;
+        histogram.record(5_000_000, start);
+        histogram.record(1_000, start + INTERVAL);
+
+        assertThat(histogram.snapshot(6, start + INTERVAL).total()).isEqualTo(2);
+        assertThat(histogram.snapshot(1, start + INTERVAL).total()).isEqualTo(1);
+
+        // Seis intervalos después el slot del primer registro se limpia al reutilizarse
+        histogram.record(2_000, start + 6 * INTERVAL);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot(6, start + 6 * INTERVAL);
+        assertThat(snapshot.total()).isEqualTo(2);
+        assertThat(snapshot.percentile(100)).isLessThan(5_000);
+    }
+}
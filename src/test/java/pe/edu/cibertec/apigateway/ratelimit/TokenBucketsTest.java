@@ -0,0 +1,75 @@
+package pe.edu.cibertec.apigateway.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import pe.edu.cibertec.apigateway.security.VerifiedPrincipal;
+
+@DisplayName("TokenBuckets - Rate limit local por clave")
+class TokenBucketsTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    @DisplayName("Permite la ráfaga, rechaza con Retry-After y repone con el tiempo")
+    void burstThenRefill() {
+        TokenBuckets buckets = new TokenBuckets(3, 1);
+        long now = 10 * SECOND;
+
+        assertThat(buckets.tryConsume("user:a", now).remaining()).isEqualTo(2);
+        buckets.tryConsume("user:a", now);
+        assertThat(buckets.tryConsume("user:a", now).remaining()).isZero();
+        TokenBuckets.Decision denied = buckets.tryConsume("user:a", now);
+        assertThat(denied.allowed()).isFalse();
+        assertThat(buckets.tryConsume("user:b", now).allowed()).isTrue();
+
+        Map<String, String> headers = LocalRateLimiter.headers(denied);
+        assertThat(headers).containsEntry(LocalRateLimiter.LIMIT_HEADER, "3")
+                .containsEntry(LocalRateLimiter.REMAINING_HEADER, "0")
+                .containsEntry(LocalRateLimiter.RESET_HEADER, "3")
+                .containsEntry(HttpHeaders.RETRY_AFTER, "1");
+
+        assertThat(buckets.tryConsume("user:a", now + SECOND).allowed()).isTrue();
+        assertThat(buckets.tryConsume("user:a", now + SECOND).allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Descarta solo las claves con el bucket lleno")
+    void sweep_ShouldEvictIdleKeys() {
+        TokenBuckets buckets = new TokenBuckets(10, 10);
+        long now = 10 * SECOND;
+        buckets.tryConsume("ip:10.0.0.1", now);
+        for (int i = 0; i < 10; i++) {
+            buckets.tryConsume("ip:10.0.0.2", now + SECOND / 2);
+        }
+
+        assertThat(buckets.sweep(now + SECOND / 2)).isEqualTo(1);
+        assertThat(buckets.size()).isEqualTo(1);
+        assertThat(buckets.tryConsume("ip:10.0.0.2", now + SECOND / 2).allowed()).isFalse();
+        assertThat(buckets.sweep(now + 2 * SECOND)).isEqualTo(1);
+        assertThat(buckets.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("La clave es el sujeto verificado o la IP del cliente, nunca la cabecera")
+    void key_ShouldPreferVerifiedSubject() {
+        MockServerWebExchange anonymous = MockServerWebExchange.from(MockServerHttpRequest.get("/product/1")
+                .header("X-User-Email", "forjado@example.com")
+                .remoteAddress(new InetSocketAddress("192.168.1.20", 50000)));
+        assertThat(ClientKeyResolver.key(anonymous)).isEqualTo("ip:192.168.1.20");
+
+        anonymous.getAttributes().put(VerifiedPrincipal.ATTRIBUTE,
+                new VerifiedPrincipal("ana@example.com", "jti", Instant.EPOCH, Instant.MAX));
+        assertThat(ClientKeyResolver.key(anonymous)).isEqualTo("user:ana@example.com");
+    }
+}
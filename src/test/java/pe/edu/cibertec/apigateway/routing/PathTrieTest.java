@@ -0,0 +1,51 @@
+package pe.edu.cibertec.apigateway.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.PathContainer;
+
+@DisplayName("PathTrie - Candidatos de la tabla de rutas")
+class PathTrieTest {
+
+    @Test
+    @DisplayName("Devuelve literales, variables y /** en orden de prioridad")
+    void match_ShouldReturnSortedCandidates() {
+        PathTrie trie = new PathTrie();
+        trie.add("/product/**", 3);
+        trie.add("/product/{id}", 1);
+        trie.add("/product/*/reviews", 0);
+        trie.add("/user/{*rest}", 2);
+
+        assertThat(trie.match(PathTrie.segments("/product/42"))).containsExactly(1, 3);
+        assertThat(trie.match(PathTrie.segments("/product/42/reviews"))).containsExactly(0, 3);
+        assertThat(trie.match(PathTrie.segments("/product"))).containsExactly(3);
+        assertThat(trie.match(PathTrie.segments("/user/1/orders"))).containsExactly(2);
+        assertThat(trie.match(PathTrie.segments("/order/1"))).isEmpty();
+        assertThat(trie.add("/files/*.png", 4)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Las rutas sin patrón indexable se evalúan siempre y respetan el orden")
+    void routeTable_ShouldMergeUnindexedRoutes() {
+        Route product = route("product");
+        Route header = route("by-header");
+        Route files = route("files");
+        RouteTable table = new RouteTable(7, List.of(product, header, files), Map.of(
+                "product", List.of("/product/**"),
+                "files", List.of("/files/*.png")));
+
+        assertThat(table.version()).isEqualTo(7);
+        assertThat(table.candidates(PathContainer.parsePath("/product/1/"))).containsExactly(product, header, files);
+        assertThat(table.candidates(PathContainer.parsePath("/order/1"))).containsExactly(header, files);
+    }
+
+    private static Route route(String id) {
+        return Route.async().id(id).uri("http://localhost").predicate(exchange -> true).build();
+    }
+}
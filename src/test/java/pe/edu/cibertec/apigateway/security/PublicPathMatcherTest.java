@@ -0,0 +1,48 @@
+package pe.edu.cibertec.apigateway.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("PublicPathMatcher - Tabla de rutas públicas")
+class PublicPathMatcherTest {
+
+    @Test
+    @DisplayName("Las rutas públicas por defecto se reconocen por prefijo")
+    void defaultPublicPrefixes_ShouldMatchByPrefix() {
+        PublicPathMatcher matcher = new PublicPathMatcher(new PathAccessProperties());
+
+        assertThat(matcher.isPublic("/api/auth/login")).isTrue();
+        assertThat(matcher.isPublic("/api/products")).isTrue();
+        assertThat(matcher.isPublic("/api/products/3")).isTrue();
+        assertThat(matcher.isPublic("/actuator/health")).isTrue();
+        assertThat(matcher.isPublic("/api/orders/user/1")).isFalse();
+        assertThat(matcher.isPublic("/api/auth")).isFalse();
+        assertThat(matcher.access("/api/auth/validate")).isEqualTo(PublicPathMatcher.Access.OPTIONAL);
+        assertThat(matcher.isPublic("/")).isFalse();
+        assertThat(matcher.isPublic("")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Gana el prefijo más largo entre reglas públicas y protegidas")
+    void longestPrefix_ShouldWin() {
+        PublicPathMatcher matcher = new PublicPathMatcher(
+                List.of("/api/products", "/api/products/admin/catalogo"),
+                List.of("/api/products/admin"));
+
+        assertThat(matcher.isPublic("/api/products/5")).isTrue();
+        assertThat(matcher.isPublic("/api/products/admin/stock")).isFalse();
+        assertThat(matcher.isPublic("/api/products/admin/catalogo/1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Un prefijo declarado público y protegido queda protegido")
+    void duplicatedPrefix_ShouldBeProtected() {
+        PublicPathMatcher matcher = new PublicPathMatcher(List.of("/api/health"), List.of("/api/health"));
+
+        assertThat(matcher.isPublic("/api/health")).isFalse();
+    }
+}
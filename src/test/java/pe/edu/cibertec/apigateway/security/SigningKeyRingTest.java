@@ -0,0 +1,161 @@
+package pe.edu.cibertec.apigateway.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+@DisplayName("SigningKeyRing - Rotación de claves por kid")
+class SigningKeyRingTest {
+
+    private static final String K1 = "clave-k1-de-prueba-con-al-menos-32-bytes-de-largo";
+    private static final String K2 = "clave-k2-de-prueba-con-al-menos-32-bytes-de-largo";
+
+    @TempDir
+    Path keys;
+
+    @Test
+    @DisplayName("Tras rotar, firma con la clave nueva y la anterior sigue verificando sus tokens")
+    void rotation_ShouldKeepVerifyingPreviousKey() throws Exception {
+        write("k1", K1, "k1");
+        SigningKeyRing ring = ring(Duration.ofHours(1));
+        String issuedWithK1 = token("k1", K1);
+        assertThat(ring.signingKey().kid()).isEqualTo("k1");
+
+        write("k2", K2, "k2");
+        ring.reload();
+        assertThat(ring.signingKey().kid()).isEqualTo("k2");
+        assertThat(ring.verify(issuedWithK1).getSubject()).isEqualTo("ana@tienda.pe");
+
+        // Retirada del directorio: sigue verificando mientras dure retired-ttl
+        Files.delete(keys.resolve("k1.key"));
+        ring.reload();
+        assertThat(ring.kids()).contains("k1");
+        assertThat(ring.byKid("k1").retiredAtMillis()).isNotEqualTo(Long.MAX_VALUE);
+        assertThat(ring.verify(issuedWithK1).getSubject()).isEqualTo("ana@tienda.pe");
+    }
+
+    @Test
+    @DisplayName("Una clave retirada sale del anillo al vencer retired-ttl y se notifica")
+    void retiredKey_ShouldBeRemovedAfterTtl() throws Exception {
+        write("k1", K1, "k2");
+        write("k2", K2, "k2");
+        SigningKeyRing ring = ring(Duration.ofMillis(100));
+        List<Set<String>> removed = new CopyOnWriteArrayList<>();
+        ring.onKeysRemoved(removed::add);
+        String issuedWithK1 = token("k1", K1);
+
+        Files.delete(keys.resolve("k1.key"));
+        ring.reload();
+        assertThat(ring.verify(issuedWithK1)).isNotNull();
+        assertThat(removed).isEmpty();
+
+        Thread.sleep(150);
+        ring.reload();
+        assertThat(ring.kids()).doesNotContain("k1");
+        assertThat(removed).containsExactly(Set.of("k1"));
+        assertThatThrownBy(() -> ring.verify(issuedWithK1)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Reemplazar el secreto de un kid invalida sus tokens y se notifica")
+    void replacedMaterial_ShouldBeNotified() throws Exception {
+        write("k1", K1, "k1");
+        SigningKeyRing ring = ring(Duration.ofHours(1));
+        List<Set<String>> removed = new CopyOnWriteArrayList<>();
+        ring.onKeysRemoved(removed::add);
+        String issuedWithOldSecret = token("k1", K1);
+
+        write("k1", K2, "k1");
+        ring.reload();
+
+        assertThat(removed).containsExactly(Set.of("k1"));
+        assertThatThrownBy(() -> ring.verify(issuedWithOldSecret)).isInstanceOf(SignatureException.class);
+        assertThat(ring.verify(token("k1", K2)).getSubject()).isEqualTo("ana@tienda.pe");
+
+        ring.reload();
+        assertThat(removed).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Una recarga sin cambios conserva las entradas y sus parsers")
+    void reload_ShouldReuseUnchangedEntries() throws Exception {
+        write("k1", K1, "k1");
+        SigningKeyRing ring = ring(Duration.ofHours(1));
+        SigningKeyRing.KeyEntry before = ring.byKid("k1");
+
+        ring.reload();
+
+        assertThat(ring.byKid("k1")).isSameAs(before);
+    }
+
+    @Test
+    @DisplayName("Rechaza tokens con kid desconocido o con la firma alterada")
+    void verify_ShouldRejectUnknownKidAndTamperedTokens() throws Exception {
+        write("k1", K1, "k1");
+        SigningKeyRing ring = ring(Duration.ofHours(1));
+
+        String unknownKid = token("k9", K1);
+        assertThat(ring.resolve(unknownKid)).isNull();
+        assertThatThrownBy(() -> ring.verify(unknownKid)).isInstanceOf(JwtException.class);
+
+        // Mismo header y firma con otro sujeto en el payload
+        String[] parts = token("k1", K1).split("\\.");
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("{\"sub\":\"admin@admin.com\",\"exp\":" + (System.currentTimeMillis() / 1000 + 3600) + "}")
+                        .getBytes(StandardCharsets.UTF_8));
+        String tampered = parts[0] + "." + forged + "." + parts[2];
+        assertThatThrownBy(() -> ring.verify(tampered)).isInstanceOf(SignatureException.class);
+
+        String signedWithOtherSecret = token("k1", K2);
+        assertThatThrownBy(() -> ring.verify(signedWithOtherSecret)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    @DisplayName("No acepta como activa una clave que no está configurada")
+    void activeKid_ShouldBeConfiguredSecret() {
+        JwtKeyProperties properties = new JwtKeyProperties();
+        properties.setActiveKid("inexistente");
+
+        assertThatThrownBy(() -> new SigningKeyRing(properties, K1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private void write(String kid, String secret, String active) throws Exception {
+        Files.writeString(keys.resolve(kid + ".key"), secret);
+        Files.writeString(keys.resolve("active"), active);
+    }
+
+    private SigningKeyRing ring(Duration retiredTtl) {
+        JwtKeyProperties properties = new JwtKeyProperties();
+        properties.setDirectory(keys.toString());
+        properties.setRetiredTtl(retiredTtl);
+        return new SigningKeyRing(properties, null);
+    }
+
+    private static String token(String kid, String secret) {
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .subject("ana@tienda.pe")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,132 @@
+package pe.edu.cibertec.apigateway.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Base64;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("TokenPrecheck - Descarte estructural sin excepciones")
+class TokenPrecheckTest {
+
+    private static final String SIGNATURE = "c2lnbmF0dXJh";
+
+    private final long now = System.currentTimeMillis();
+
+    @Test
+    @DisplayName("Un token bien formado y vigente pasa con su alg y kid")
+    void validToken_ShouldBeAccepted() {
+        TokenPrecheck.Result result = TokenPrecheck.check(
+                token("{\"alg\":\"HS256\",\"kid\":\"k1\"}", "{\"sub\":\"ana\",\"exp\":" + (now / 1000 + 60) + "}"), now);
+
+        assertThat(result.accepted()).isTrue();
+        assertThat(result.alg()).isEqualTo("HS256");
+        assertThat(result.kid()).isEqualTo("k1");
+    }
+
+    @Test
+    @DisplayName("Segmentos de más o de menos y caracteres fuera de base64url son MALFORMED")
+    void structure_ShouldBeValidated() {
+        String header = encode("{\"alg\":\"HS256\"}");
+        String payload = encode("{\"sub\":\"ana\"}");
+
+        assertThat(TokenPrecheck.check("basura", now).rejection()).isEqualTo(RejectionReason.MALFORMED);
+        assertThat(TokenPrecheck.check(header + "." + payload, now).rejection()).isEqualTo(RejectionReason.MALFORMED);
+        assertThat(TokenPrecheck.check(header + "." + payload + "." + SIGNATURE + ".x", now).rejection())
+                .isEqualTo(RejectionReason.MALFORMED);
+        assertThat(TokenPrecheck.check("." + payload + "." + SIGNATURE, now).rejection())
+                .isEqualTo(RejectionReason.MALFORMED);
+        assertThat(TokenPrecheck.check(header + "." + payload + "=." + SIGNATURE, now).rejection())
+                .isEqualTo(RejectionReason.MALFORMED);
+    }
+
+    @Test
+    @DisplayName("alg ausente, none o no soportado se rechaza antes de buscar la clave")
+    void algorithm_ShouldBeSupported() {
+        String payload = "{\"sub\":\"ana\"}";
+
+        assertThat(TokenPrecheck.check(token("{\"alg\":\"none\"}", payload), now).rejection())
+                .isEqualTo(RejectionReason.UNSUPPORTED_ALG);
+        assertThat(TokenPrecheck.check(token("{\"typ\":\"JWT\"}", payload), now).rejection())
+                .isEqualTo(RejectionReason.UNSUPPORTED_ALG);
+        assertThat(TokenPrecheck.check(token("{\"alg\":\"HS1\"}", payload), now).rejection())
+                .isEqualTo(RejectionReason.UNSUPPORTED_ALG);
+    }
+
+    @Test
+    @DisplayName("Cada familia de alg solo coincide con su tipo de clave")
+    void algorithm_ShouldMatchKeyType() throws Exception {
+        SigningKeyRing.KeyEntry secret = new SigningKeyRing(new JwtKeyProperties(),
+                "clave-de-prueba-con-al-menos-32-bytes-de-largo").signingKey();
+        SigningKeyRing.KeyEntry rsa = SigningKeyRing.KeyEntry.of("idp",
+                KeyPairGenerator.getInstance("RSA").generateKeyPair().getPublic());
+        SigningKeyRing.KeyEntry ec = SigningKeyRing.KeyEntry.of("idp-ec",
+                KeyPairGenerator.getInstance("EC").generateKeyPair().getPublic());
+
+        assertThat(TokenPrecheck.algorithmMatches("HS256", secret)).isTrue();
+        assertThat(TokenPrecheck.algorithmMatches("RS256", secret)).isFalse();
+        assertThat(TokenPrecheck.algorithmMatches("ES256", secret)).isFalse();
+
+        assertThat(TokenPrecheck.algorithmMatches("RS256", rsa)).isTrue();
+        assertThat(TokenPrecheck.algorithmMatches("PS384", rsa)).isTrue();
+        assertThat(TokenPrecheck.algorithmMatches("HS256", rsa)).isFalse();
+        assertThat(TokenPrecheck.algorithmMatches("ES256", rsa)).isFalse();
+
+        assertThat(TokenPrecheck.algorithmMatches("ES256", ec)).isTrue();
+        assertThat(TokenPrecheck.algorithmMatches("RS256", ec)).isFalse();
+        assertThat(TokenPrecheck.algorithmMatches("PS256", ec)).isFalse();
+        assertThat(TokenPrecheck.algorithmMatches("HS256", ec)).isFalse();
+
+        assertThat(TokenPrecheck.algorithmMatches("EdDSA", ec)).isFalse();
+    }
+
+    @Test
+    @DisplayName("exp vencido es EXPIRED; un exp enorme no desborda ni se da por vencido")
+    void expiration_ShouldBeComparedWithoutOverflow() {
+        String header = "{\"alg\":\"HS256\"}";
+
+        assertThat(TokenPrecheck.check(token(header, "{\"exp\":" + (now / 1000 - 1) + "}"), now).rejection())
+                .isEqualTo(RejectionReason.EXPIRED);
+        assertThat(TokenPrecheck.check(token(header, "{\"exp\":" + (now / 1000) + "}"), now).rejection())
+                .isEqualTo(RejectionReason.EXPIRED);
+        assertThat(TokenPrecheck.check(token(header, "{\"exp\": 999999999999999999}"), now).accepted()).isTrue();
+        assertThat(TokenPrecheck.check(token(header, "{\"sub\":\"sin-exp\"}"), now).accepted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Los campos se leen del JSON sin parser y sin excepciones")
+    void segmentReader_ShouldReadFields() {
+        assertThat(JwtSegmentReader.longField("{\"exp\" :  1700000000}", "exp")).isEqualTo(1700000000L);
+        assertThat(JwtSegmentReader.longField("{\"exp\":\"1700000000\"}", "exp")).isEqualTo(JwtSegmentReader.NO_VALUE);
+        assertThat(JwtSegmentReader.longField("{\"iat\":1}", "exp")).isEqualTo(JwtSegmentReader.NO_VALUE);
+        assertThat(JwtSegmentReader.stringField("{\"kid\" : \"k-1\"}", "kid")).isEqualTo("k-1");
+        assertThat(JwtSegmentReader.kid(token("{\"alg\":\"HS256\",\"kid\":\"k2\"}", "{}"))).isEqualTo("k2");
+        assertThat(JwtSegmentReader.kid("%%%.x.y")).isNull();
+    }
+
+    @Test
+    @DisplayName("Un token rechazado se recuerda por motivo hasta que vence la entrada")
+    void rejections_ShouldBeRememberedUntilTtl() {
+        TokenRejectionTracker tracker = new TokenRejectionTracker(16, Duration.ofSeconds(60));
+        TokenDigest digest = TokenDigest.of("token-vencido");
+
+        tracker.reject(digest, RejectionReason.EXPIRED, now);
+
+        assertThat(tracker.recentlyRejected(digest, now + 1000)).isEqualTo(RejectionReason.EXPIRED);
+        assertThat(tracker.recentlyRejected(TokenDigest.of("otro"), now + 1000)).isNull();
+        assertThat(tracker.recentlyRejected(digest, now + 60_000)).isNull();
+        assertThat(tracker.count(RejectionReason.EXPIRED)).isEqualTo(2);
+    }
+
+    private static String token(String header, String payload) {
+        return encode(header) + "." + encode(payload) + "." + SIGNATURE;
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
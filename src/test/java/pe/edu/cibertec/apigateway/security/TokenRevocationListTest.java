@@ -0,0 +1,126 @@
+package pe.edu.cibertec.apigateway.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("TokenRevocationList - Revocación por jti y por sujeto")
+class TokenRevocationListTest {
+
+    @TempDir
+    Path data;
+
+    @Test
+    @DisplayName("Un jti revocado se rechaza sin afectar a otros tokens del sujeto")
+    void revokeId_ShouldRevokeOnlyThatToken() {
+        TokenRevocationList revocations = list(null);
+
+        revocations.revokeId("jti-robado", null);
+
+        assertThat(revocations.isRevoked(principal("ana@tienda.pe", "jti-robado", Instant.now()))).isTrue();
+        assertThat(revocations.isRevoked(principal("ana@tienda.pe", "jti-nuevo", Instant.now()))).isFalse();
+        assertThat(revocations.isRevoked(principal("ana@tienda.pe", null, Instant.now()))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Revocar un sujeto invalida los tokens emitidos en segundos anteriores")
+    void revokeSubject_ShouldCompareIssuedAtInSeconds() {
+        TokenRevocationList revocations = list(null);
+        Instant before = Instant.now().minusSeconds(2);
+
+        revocations.revokeSubject("ana@tienda.pe");
+        Instant sameSecondOrLater = Instant.now();
+
+        assertThat(revocations.isRevoked(principal("ana@tienda.pe", "a", before))).isTrue();
+        assertThat(revocations.isRevoked(principal("ana@tienda.pe", "b", null))).isTrue();
+        assertThat(revocations.isRevoked(principal("ana@tienda.pe", "c", sameSecondOrLater))).isFalse();
+        assertThat(revocations.isRevoked(principal("ana@tienda.pe", "d", sameSecondOrLater.plusSeconds(5)))).isFalse();
+        assertThat(revocations.isRevoked(principal("otro@tienda.pe", "e", before))).isFalse();
+    }
+
+    @Test
+    @DisplayName("La poda descarta los jti de tokens ya expirados y compacta el archivo")
+    void prune_ShouldDropExpiredIds() throws Exception {
+        Path file = data.resolve("revocations.log");
+        TokenRevocationList revocations = list(file);
+        long now = System.currentTimeMillis();
+        revocations.revokeId("vencido", now - 1);
+        revocations.revokeId("vigente", now + 60_000);
+        assertThat(revocations.size()).isEqualTo(2);
+
+        revocations.prune();
+
+        assertThat(revocations.size()).isEqualTo(1);
+        assertThat(revocations.isRevoked(principal("ana@tienda.pe", "vencido", null))).isFalse();
+        assertThat(revocations.isRevoked(principal("ana@tienda.pe", "vigente", null))).isTrue();
+        assertThat(Files.readAllLines(file)).singleElement().asString().startsWith("J\tvigente\t");
+    }
+
+    @Test
+    @DisplayName("Las revocaciones sobreviven a un reinicio leyendo el archivo")
+    void start_ShouldReplayPersistedEntries() {
+        Path file = data.resolve("revocations.log");
+        TokenRevocationList first = list(file);
+        first.revokeId("jti-robado", System.currentTimeMillis() + 60_000);
+        first.revokeSubject("ana@tienda.pe");
+
+        TokenRevocationList restarted = list(file);
+        restarted.start();
+        try {
+            assertThat(restarted.size()).isEqualTo(2);
+            assertThat(restarted.isRevoked(principal("otro@tienda.pe", "jti-robado", null))).isTrue();
+            assertThat(restarted.isRevoked(principal("ana@tienda.pe", "x", Instant.now().minusSeconds(5)))).isTrue();
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Valores vacíos o con separadores del archivo se rechazan")
+    void revoke_ShouldRejectInvalidValues() {
+        TokenRevocationList revocations = list(null);
+
+        assertThatThrownBy(() -> revocations.revokeId(" ", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> revocations.revokeId("a\tb", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> revocations.revokeSubject("a\nS\tadmin@admin.com\t0"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(revocations.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("El filtro de Bloom no da falsos negativos y pocos falsos positivos")
+    void bloomFilter_ShouldHaveNoFalseNegatives() {
+        RevocationBloomFilter bloom = new RevocationBloomFilter(1000);
+        for (int i = 0; i < 1000; i++) {
+            bloom.add("jti-" + i, 7);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertThat(bloom.mightContain("jti-" + i, 7)).isTrue();
+        }
+        for (int i = 1000; i < 11_000; i++) {
+            if (bloom.mightContain("jti-" + i, 7)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    private static TokenRevocationList list(Path file) {
+        return new TokenRevocationList(file == null ? null : file.toString(), Duration.ofHours(24),
+                Duration.ofMinutes(5), 1000);
+    }
+
+    private static VerifiedPrincipal principal(String subject, String jti, Instant issuedAt) {
+        return new VerifiedPrincipal(subject, jti, issuedAt, null);
+    }
+}
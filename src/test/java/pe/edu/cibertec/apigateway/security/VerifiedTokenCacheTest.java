@@ -0,0 +1,163 @@
+package pe.edu.cibertec.apigateway.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import pe.edu.cibertec.apigateway.diagnostics.DiagnosticsProperties;
+import pe.edu.cibertec.apigateway.diagnostics.RequestLog;
+import pe.edu.cibertec.apigateway.filter.JwtAuthenticationFilter;
+import pe.edu.cibertec.apigateway.metrics.LatencyRecorder;
+import reactor.core.publisher.Mono;
+
+@DisplayName("VerifiedTokenCache - Tokens verificados una sola vez")
+class VerifiedTokenCacheTest {
+
+    private static final String K1 = "clave-k1-de-prueba-con-al-menos-32-bytes-de-largo";
+    private static final String K2 = "clave-k2-de-prueba-con-al-menos-32-bytes-de-largo";
+
+    @TempDir
+    Path keys;
+
+    private final JwtVerificationExecutor executor = new JwtVerificationExecutor(false, 1, 16);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Una entrada no vive más allá del exp del token")
+    void entry_ShouldExpireWithToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, Duration.ofHours(1));
+        TokenDigest digest = TokenDigest.of("token-a");
+        long now = System.currentTimeMillis();
+        VerifiedPrincipal principal = new VerifiedPrincipal("ana@tienda.pe", "jti-a",
+                Instant.ofEpochMilli(now), Instant.ofEpochMilli(now + 1000));
+
+        cache.put(digest, principal, now);
+
+        assertThat(cache.get(digest, now + 999)).isSameAs(principal);
+        assertThat(cache.get(digest, now + 1000)).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Al llenarse libera espacio y los tokens ya vencidos no se guardan")
+    void put_ShouldRespectCapacityAndSkipExpired() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 10, Duration.ofHours(1));
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 25; i++) {
+            cache.put(TokenDigest.of("token-" + i), new VerifiedPrincipal("u" + i, null, null, null), now);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+
+        cache.clear();
+        cache.put(TokenDigest.of("vencido"), new VerifiedPrincipal("u", null, null,
+                Instant.ofEpochMilli(now - 1)), now);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("El segundo uso del mismo token se resuelve desde la caché")
+    void filter_ShouldVerifyTokenOnce() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, Duration.ofHours(1));
+        JwtAuthenticationFilter filter = filter(ring(), cache);
+        String token = token("k1", K1);
+
+        assertThat(authenticate(filter, token)).isEqualTo(HttpStatus.OK);
+        assertThat(authenticate(filter, token)).isEqualTo(HttpStatus.OK);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un token con firma inválida no entra en la caché")
+    void filter_ShouldNotCacheRejectedTokens() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, Duration.ofHours(1));
+        JwtAuthenticationFilter filter = filter(ring(), cache);
+
+        assertThat(authenticate(filter, token("k1", K2))).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Si una clave sale del anillo se vacía la caché y sus tokens dejan de valer")
+    void keyRemoval_ShouldInvalidateCache() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, Duration.ofHours(1));
+        SigningKeyRing ring = ring();
+        JwtAuthenticationFilter filter = filter(ring, cache);
+        String token = token("k1", K1);
+        assertThat(authenticate(filter, token)).isEqualTo(HttpStatus.OK);
+        assertThat(cache.size()).isEqualTo(1);
+
+        Files.delete(keys.resolve("k1.key"));
+        ring.reload();
+
+        assertThat(cache.size()).isZero();
+        assertThat(authenticate(filter, token)).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    // k1 y k2 en el directorio, k2 activa; sin retención de claves retiradas
+    private SigningKeyRing ring() throws Exception {
+        Files.writeString(keys.resolve("k1.key"), K1);
+        Files.writeString(keys.resolve("k2.key"), K2);
+        Files.writeString(keys.resolve("active"), "k2");
+        JwtKeyProperties properties = new JwtKeyProperties();
+        properties.setDirectory(keys.toString());
+        properties.setRetiredTtl(Duration.ZERO);
+        return new SigningKeyRing(properties, null);
+    }
+
+    private JwtAuthenticationFilter filter(SigningKeyRing ring, VerifiedTokenCache cache) {
+        return new JwtAuthenticationFilter(ring, cache, executor,
+                new TokenRejectionTracker(0, Duration.ofMinutes(1)),
+                new PublicPathMatcher(new PathAccessProperties()),
+                new TokenRevocationList(null, Duration.ofHours(24), Duration.ofMinutes(5), 1024),
+                new LatencyRecorder(false, Duration.ofSeconds(10), List.of(Duration.ofMinutes(1))),
+                new RequestLog(new DiagnosticsProperties()));
+    }
+
+    private static String token(String kid, String secret) {
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .subject("ana@tienda.pe")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    // Estado de la respuesta: 200 si la petición llegó al final de la cadena
+    private static HttpStatus authenticate(JwtAuthenticationFilter filter, String token) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders/user/1")
+                .header("Authorization", "Bearer " + token));
+        WebFilterChain chain = ex -> {
+            ex.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        };
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+        return HttpStatus.valueOf(exchange.getResponse().getStatusCode().value());
+    }
+}
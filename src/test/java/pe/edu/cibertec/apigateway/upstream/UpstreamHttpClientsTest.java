@@ -0,0 +1,78 @@
+package pe.edu.cibertec.apigateway.upstream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.route.Route;
+
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@DisplayName("UpstreamHttpClients - Pools de conexiones por ruta y servicio")
+class UpstreamHttpClientsTest {
+
+    @Test
+    @DisplayName("La ruta con pool propio gana sobre el de su servicio y el resto usa el pool compartido")
+    void dedicated_ShouldPreferRouteOverService() {
+        UpstreamPoolProperties pools = new UpstreamPoolProperties();
+        pools.getServices().put("product-service", pool(50));
+        pools.getServices().get("product-service").setProtocols(List.of(HttpProtocol.H2C));
+        pools.getRoutes().put("product-admin", pool(5));
+        HttpClientProperties properties = new HttpClientProperties();
+        ServerProperties server = new ServerProperties();
+        HttpClient shared = HttpClient.create();
+        UpstreamHttpClients clients = new UpstreamHttpClients(pools, shared, properties, server,
+                new HttpClientSslConfigurer(properties.getSsl(), server, null),
+                new StaticListableBeanFactory().getBeanProvider(HttpClientCustomizer.class));
+        try {
+            HttpClient service = clients.dedicated(route("product-service", "lb://product-service"));
+            HttpClient admin = clients.dedicated(route("product-admin", "lb://product-service"));
+
+            assertThat(service).isNotNull();
+            assertThat(service.configuration().protocols()).containsExactly(HttpProtocol.H2C);
+            assertThat(admin).isNotNull().isNotSameAs(service);
+            assertThat(clients.dedicated(route("order-service", "lb://order-service"))).isNull();
+            assertThat(clients.client(route("test-route", "http://httpbin.org:80"))).isSameAs(shared);
+        } finally {
+            clients.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Lo no indicado en el pool de la ruta se hereda del pool global")
+    void provider_ShouldInheritGlobalSettings() {
+        HttpClientProperties.Pool global = new HttpClientProperties().getPool();
+        global.setMaxConnections(64);
+
+        ConnectionProvider inherited = UpstreamHttpClients.provider("p1", global, new UpstreamPoolProperties.Pool());
+        ConnectionProvider own = UpstreamHttpClients.provider("p2", global, pool(8));
+        try {
+            assertThat(inherited.maxConnections()).isEqualTo(64);
+            assertThat(own.maxConnections()).isEqualTo(8);
+            assertThat(own.name()).isEqualTo("p2");
+        } finally {
+            inherited.dispose();
+            own.dispose();
+        }
+    }
+
+    private static UpstreamPoolProperties.Pool pool(int maxConnections) {
+        UpstreamPoolProperties.Pool pool = new UpstreamPoolProperties.Pool();
+        pool.setMaxConnections(maxConnections);
+        pool.setLeasingStrategy(HttpClientProperties.Pool.LeasingStrategy.LIFO);
+        return pool;
+    }
+
+    private static Route route(String id, String uri) {
+        return Route.async().id(id).uri(uri).predicate(exchange -> true).build();
+    }
+}